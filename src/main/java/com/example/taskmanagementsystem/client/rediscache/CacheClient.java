@@ -0,0 +1,60 @@
+package com.example.taskmanagementsystem.client.rediscache;
+
+import org.jetbrains.annotations.NotNull;
+import org.springframework.dao.DataAccessException;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Key-value store behind the application caches, {@link RedisCacheClient} by default or
+ * {@link EmbeddedCacheClient} with the {@code embedded-cache} profile.
+ * <p>
+ * Failures are reported as {@link DataAccessException}, it is up to the caller whether they fail the request.
+ */
+public interface CacheClient {
+
+    void set(@NotNull String key, @NotNull String value, long timeout, @NotNull TimeUnit timeUnit);
+
+    /**
+     * Sets every entry with the same time to live.
+     *
+     * @param entries  the keys and values
+     * @param timeout  how long the entries live
+     * @param timeUnit the unit of the timeout
+     */
+    void multiSet(@NotNull Map<String, String> entries, long timeout, @NotNull TimeUnit timeUnit);
+
+    String get(@NotNull String key);
+
+    /**
+     * Reads every key at once.
+     *
+     * @param keys the keys
+     * @return the values in the order of the keys, {@code null} for a missing key
+     */
+    List<String> multiGet(@NotNull Collection<String> keys);
+
+    void delete(@NotNull String key);
+
+    void delete(@NotNull Collection<String> keys);
+
+    /**
+     * Sends the message to every application node subscribed to the channel.
+     *
+     * @param channel the channel
+     * @param message the message
+     */
+    void publish(@NotNull String channel, @NotNull String message);
+
+    /**
+     * Appends the entries to a stream read by consumers outside the application, in order.
+     *
+     * @param stream    the stream key
+     * @param entries   the fields of each entry
+     * @param maxLength about how many entries the stream keeps, older ones are trimmed
+     */
+    void appendToStream(@NotNull String stream, @NotNull List<Map<String, String>> entries, long maxLength);
+}
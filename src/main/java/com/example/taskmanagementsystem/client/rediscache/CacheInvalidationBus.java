@@ -0,0 +1,79 @@
+package com.example.taskmanagementsystem.client.rediscache;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.connection.SubscriptionListener;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Broadcasts cache key invalidations to every application node over Redis pub/sub.
+ * <p>
+ * Local listeners are notified synchronously on {@link #publish}, remote nodes when the message arrives on
+ * {@link #CHANNEL}. A node also receives its own messages, which is harmless because invalidation is idempotent.
+ * Messages published while a node is not subscribed are lost, so listeners are asked to drop everything
+ * whenever the subscription is (re)established. With {@link EmbeddedCacheClient} there is a single node
+ * and nothing is published.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CacheInvalidationBus implements MessageListener, SubscriptionListener {
+
+    public static final String CHANNEL = "cache:invalidation";
+    private static final String SEPARATOR = "\n";
+
+    private final CacheClient cacheClient;
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * A node-local cache that has to drop entries invalidated anywhere in the cluster.
+     */
+    public interface Listener {
+
+        void invalidate(@NotNull Collection<String> keys);
+
+        void invalidateAll();
+    }
+
+    public void subscribe(@NotNull Listener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Invalidates the keys on this node and publishes them to the other nodes.
+     *
+     * @param keys the invalidated cache keys
+     */
+    public void publish(@NotNull Collection<String> keys) {
+        if (keys.isEmpty()) {
+            return;
+        }
+        listeners.forEach(listener -> listener.invalidate(keys));
+        try {
+            cacheClient.publish(CHANNEL, String.join(SEPARATOR, keys));
+        } catch (DataAccessException ex) {
+            log.warn("Cache invalidation of {} was not published", keys, ex);
+        }
+    }
+
+    @Override
+    public void onMessage(@NotNull Message message, byte[] pattern) {
+        List<String> keys = Arrays.asList(new String(message.getBody(), StandardCharsets.UTF_8).split(SEPARATOR));
+        listeners.forEach(listener -> listener.invalidate(keys));
+    }
+
+    @Override
+    public void onChannelSubscribed(byte[] channel, long count) {
+        listeners.forEach(Listener::invalidateAll);
+    }
+}
@@ -0,0 +1,206 @@
+package com.example.taskmanagementsystem.client.rediscache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * {@link CacheClient} in the heap of the application, for single-node deployments that should not need Redis,
+ * selected by the {@code embedded-cache} profile.
+ * <p>
+ * Entries are kept in a {@link ConcurrentHashMap} and read without locking; an entry past its time to live is
+ * never returned. Writes are serialized, and schedule the expiry of the entry on a {@link TimingWheel} that is
+ * advanced every {@code cache.embedded.tick}, so expired entries are dropped in constant time each without
+ * scanning the map. The footprint is bounded by {@code cache.embedded.max-size}, estimated from the length of
+ * keys and values: beyond it, the entries closest to expiry are evicted first.
+ * <p>
+ * There are no other nodes to notify and no stream for outside consumers, so {@link #publish} and
+ * {@link #appendToStream} do nothing.
+ * <p>
+ * The cache is published as the {@code cache.size} gauge, the {@code cache.embedded.weight} gauge in bytes and
+ * the {@code cache.evictions} counter, tagged {@code cache=embedded}.
+ */
+@Slf4j
+@Service
+@Profile("embedded-cache")
+public class EmbeddedCacheClient implements CacheClient, DisposableBean {
+
+    // Entry with its links, the map node and the headers of the key and value strings.
+    static final int ENTRY_OVERHEAD = 160;
+
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final TimingWheel timingWheel;
+    private final LongSupplier nanoClock;
+    private final long origin;
+    private final long tickNanos;
+    private final long maxWeight;
+    private final ScheduledExecutorService expiryExecutor;
+    private final Counter evictions;
+    private long weight;
+
+    private static final class Entry extends TimingWheel.Node {
+
+        private final String key;
+        private final String value;
+        private final long expiresAt;
+        private final long weight;
+
+        private Entry(String key, String value, long expiresAt) {
+            this.key = key;
+            this.value = value;
+            this.expiresAt = expiresAt;
+            this.weight = ENTRY_OVERHEAD + 2L * (key.length() + value.length());
+        }
+    }
+
+    @Autowired
+    public EmbeddedCacheClient(MeterRegistry meterRegistry,
+                               @Value("${cache.embedded.max-size:64MB}") DataSize maxSize,
+                               @Value("${cache.embedded.tick:100ms}") Duration tick) {
+        this(meterRegistry, maxSize, tick, System::nanoTime);
+        expiryExecutor.scheduleAtFixedRate(this::expire, tickNanos, tickNanos, TimeUnit.NANOSECONDS);
+    }
+
+    EmbeddedCacheClient(MeterRegistry meterRegistry, DataSize maxSize, Duration tick, LongSupplier nanoClock) {
+        this.nanoClock = nanoClock;
+        this.origin = nanoClock.getAsLong();
+        this.tickNanos = tick.toNanos();
+        this.maxWeight = maxSize.toBytes();
+        this.timingWheel = new TimingWheel(0);
+        this.expiryExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "embedded-cache-expiry");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.evictions = Counter.builder("cache.evictions").tag("cache", "embedded")
+                .description("Entries evicted before their expiry to stay within the maximum size")
+                .register(meterRegistry);
+        Gauge.builder("cache.size", entries, Map::size).tag("cache", "embedded")
+                .description("Entries in the embedded cache, expired ones included until the next tick")
+                .register(meterRegistry);
+        Gauge.builder("cache.embedded.weight", this, EmbeddedCacheClient::weight).tag("cache", "embedded")
+                .description("Estimated size of the embedded cache in bytes")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void set(@NotNull String key, @NotNull String value, long timeout, @NotNull TimeUnit timeUnit) {
+        long now = nanoClock.getAsLong();
+        synchronized (timingWheel) {
+            put(new Entry(key, value, now + timeUnit.toNanos(timeout)));
+        }
+    }
+
+    @Override
+    public void multiSet(@NotNull Map<String, String> entries, long timeout, @NotNull TimeUnit timeUnit) {
+        long expiresAt = nanoClock.getAsLong() + timeUnit.toNanos(timeout);
+        synchronized (timingWheel) {
+            entries.forEach((key, value) -> put(new Entry(key, value, expiresAt)));
+        }
+    }
+
+    @Override
+    public String get(@NotNull String key) {
+        Entry entry = entries.get(key);
+        return entry != null && entry.expiresAt - nanoClock.getAsLong() > 0 ? entry.value : null;
+    }
+
+    @Override
+    public List<String> multiGet(@NotNull Collection<String> keys) {
+        List<String> values = new ArrayList<>(keys.size());
+        keys.forEach(key -> values.add(get(key)));
+        return values;
+    }
+
+    @Override
+    public void delete(@NotNull String key) {
+        synchronized (timingWheel) {
+            remove(entries.remove(key));
+        }
+    }
+
+    @Override
+    public void delete(@NotNull Collection<String> keys) {
+        synchronized (timingWheel) {
+            keys.forEach(key -> remove(entries.remove(key)));
+        }
+    }
+
+    @Override
+    public void publish(@NotNull String channel, @NotNull String message) {
+    }
+
+    @Override
+    public void appendToStream(@NotNull String stream, @NotNull List<Map<String, String>> entries, long maxLength) {
+    }
+
+    @Override
+    public void destroy() {
+        expiryExecutor.shutdownNow();
+    }
+
+    /**
+     * Drops the entries whose time to live has passed, called every tick.
+     */
+    void expire() {
+        long tick = (nanoClock.getAsLong() - origin) / tickNanos;
+        synchronized (timingWheel) {
+            timingWheel.advance(tick, node -> {
+                Entry entry = (Entry) node;
+                if (entries.remove(entry.key, entry)) {
+                    weight -= entry.weight;
+                }
+            });
+        }
+    }
+
+    long weight() {
+        synchronized (timingWheel) {
+            return weight;
+        }
+    }
+
+    private void put(Entry entry) {
+        if (entry.weight > maxWeight) {
+            log.warn("Not caching {}, its {} bytes exceed the maximum size", entry.key, entry.weight);
+            remove(entries.remove(entry.key));
+            return;
+        }
+        remove(entries.put(entry.key, entry));
+        // The first tick at or after the expiry, so the entry is never dropped early.
+        timingWheel.schedule(entry, -Math.floorDiv(origin - entry.expiresAt, tickNanos));
+        weight += entry.weight;
+        while (weight > maxWeight) {
+            Entry soonest = (Entry) timingWheel.nextToExpire();
+            entries.remove(soonest.key, soonest);
+            remove(soonest);
+            evictions.increment();
+        }
+    }
+
+    private void remove(Entry entry) {
+        if (entry != null) {
+            timingWheel.cancel(entry);
+            weight -= entry.weight;
+        }
+    }
+}
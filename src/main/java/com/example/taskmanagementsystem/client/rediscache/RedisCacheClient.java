@@ -1,31 +1,320 @@
 package com.example.taskmanagementsystem.client.rediscache;
 
-import lombok.RequiredArgsConstructor;
-import org.springframework.data.redis.core.StringRedisTemplate;
+import io.lettuce.core.AbstractRedisClient;
+import io.lettuce.core.KeyValue;
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.RedisFuture;
+import io.lettuce.core.SetArgs;
+import io.lettuce.core.XAddArgs;
+import io.lettuce.core.api.StatefulConnection;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.cluster.RedisClusterClient;
+import io.lettuce.core.cluster.api.StatefulRedisClusterConnection;
+import io.lettuce.core.cluster.api.async.RedisClusterAsyncCommands;
+import io.lettuce.core.codec.StringCodec;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.RedisSystemException;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.connection.lettuce.LettuceExceptionConverter;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
 
+/**
+ * {@link CacheClient} on Redis, through a dedicated Lettuce connection driven by the async API.
+ * <p>
+ * Every call waits at most {@code cache.redis.timeout} for its reply, and multi-key operations send all their
+ * commands before waiting for the first reply, so they cost one round trip under a single deadline. Calls go
+ * through a {@link RedisCircuitBreaker}: while Redis keeps failing they are rejected without reaching it, so
+ * an outage costs a request a few deadlines at most and then nothing. Whether a failed call fails the request
+ * is up to the caller, every failure is reported as a {@link DataAccessException}:
+ * <ul>
+ *     <li>{@link QueryTimeoutException} when the deadline passed,</li>
+ *     <li>{@link RedisConnectionFailureException} when the circuit is open or there is no connection yet,</li>
+ *     <li>the translated Lettuce error when the command failed.</li>
+ * </ul>
+ * The connection is opened in the background, so the application starts while Redis is down; once opened,
+ * Lettuce reconnects it on its own.
+ * <p>
+ * Calls are published as the {@code cache.redis.calls} meter tagged {@code result=success|failure|timeout|rejected},
+ * the circuit as the {@code cache.redis.circuit.state} gauge (0 closed, 1 open, 2 half-open).
+ */
+@Slf4j
 @Service
-@RequiredArgsConstructor
-public class RedisCacheClient {
+@Profile("!embedded-cache")
+public class RedisCacheClient implements CacheClient, DisposableBean {
 
-    private final StringRedisTemplate redisTemplate;
+    private static final LettuceExceptionConverter EXCEPTION_CONVERTER = new LettuceExceptionConverter();
 
-    public void set(String key, String value, long timeout, TimeUnit timeUnit) {
-        redisTemplate.opsForValue().set(key, value, timeout, timeUnit);
+    private final Supplier<StatefulConnection<String, String>> connector;
+    private final RedisCircuitBreaker circuitBreaker;
+    private final long timeoutNanos;
+    private final ExecutorService connectExecutor;
+    private final AtomicBoolean connecting = new AtomicBoolean();
+    private volatile StatefulConnection<String, String> connection;
+    private volatile RedisClusterAsyncCommands<String, String> commands;
+    private final Counter successes;
+    private final Counter failures;
+    private final Counter timeouts;
+    private final Counter rejections;
+
+    @Autowired
+    public RedisCacheClient(LettuceConnectionFactory connectionFactory,
+                            MeterRegistry meterRegistry,
+                            @Value("${cache.redis.timeout:100ms}") Duration timeout,
+                            @Value("${cache.redis.circuit-breaker.failure-threshold:5}") int failureThreshold,
+                            @Value("${cache.redis.circuit-breaker.open-duration:5s}") Duration openDuration) {
+        this(() -> connect(connectionFactory), new RedisCircuitBreaker(failureThreshold, openDuration),
+                meterRegistry, timeout);
+    }
+
+    RedisCacheClient(Supplier<StatefulConnection<String, String>> connector,
+                     RedisCircuitBreaker circuitBreaker,
+                     MeterRegistry meterRegistry,
+                     Duration timeout) {
+        this.connector = connector;
+        this.circuitBreaker = circuitBreaker;
+        this.timeoutNanos = timeout.toNanos();
+        this.connectExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "redis-cache-connect");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.successes = calls(meterRegistry, "success");
+        this.failures = calls(meterRegistry, "failure");
+        this.timeouts = calls(meterRegistry, "timeout");
+        this.rejections = calls(meterRegistry, "rejected");
+        Gauge.builder("cache.redis.circuit.state", circuitBreaker, breaker -> breaker.getState().ordinal())
+                .description("State of the Redis circuit: 0 closed, 1 open, 2 half-open")
+                .register(meterRegistry);
+        connectInBackground();
+    }
+
+    @Override
+    public void set(@NotNull String key, @NotNull String value, long timeout, @NotNull TimeUnit timeUnit) {
+        SetArgs args = SetArgs.Builder.px(timeUnit.toMillis(timeout));
+        call(redis -> redis.set(key, value, args));
+    }
+
+    /**
+     * Pipelines the {@code SET} commands under a single deadline.
+     */
+    @Override
+    public void multiSet(@NotNull Map<String, String> entries, long timeout, @NotNull TimeUnit timeUnit) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        SetArgs args = SetArgs.Builder.px(timeUnit.toMillis(timeout));
+        pipeline((redis, futures) -> entries.forEach((key, value) -> futures.add(redis.set(key, value, args))));
+    }
+
+    @Override
+    public String get(@NotNull String key) {
+        return call(redis -> redis.get(key));
+    }
+
+    /**
+     * Reads every key with a single {@code MGET}.
+     */
+    @Override
+    public List<String> multiGet(@NotNull Collection<String> keys) {
+        if (keys.isEmpty()) {
+            return List.of();
+        }
+        List<KeyValue<String, String>> values = call(redis -> redis.mget(keys.toArray(String[]::new)));
+        return values.stream().map(value -> value.getValueOrElse(null)).toList();
+    }
+
+    @Override
+    public void delete(@NotNull String key) {
+        call(redis -> redis.del(key));
+    }
+
+    @Override
+    public void delete(@NotNull Collection<String> keys) {
+        if (keys.isEmpty()) {
+            return;
+        }
+        call(redis -> redis.del(keys.toArray(String[]::new)));
+    }
+
+    @Override
+    public void publish(@NotNull String channel, @NotNull String message) {
+        call(redis -> redis.publish(channel, message));
+    }
+
+    /**
+     * Pipelines one {@code XADD} per entry under a single deadline, trimming with {@code MAXLEN ~}.
+     */
+    @Override
+    public void appendToStream(@NotNull String stream, @NotNull List<Map<String, String>> entries, long maxLength) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        XAddArgs args = new XAddArgs().maxlen(maxLength).approximateTrimming();
+        pipeline((redis, futures) -> entries.forEach(entry -> futures.add(redis.xadd(stream, args, entry))));
+    }
+
+    @Override
+    public void destroy() {
+        connectExecutor.shutdownNow();
+        StatefulConnection<String, String> current = connection;
+        if (current != null) {
+            current.closeAsync();
+        }
+    }
+
+    boolean isConnected() {
+        return commands != null;
+    }
+
+    private <T> T call(Command<RedisFuture<T>> command) {
+        @SuppressWarnings("unchecked")
+        T result = (T) pipeline((redis, futures) -> futures.add(command.send(redis))).get(0);
+        return result;
+    }
+
+    private List<Object> pipeline(PipelinedCommands sender) {
+        if (!circuitBreaker.tryAcquire()) {
+            rejections.increment();
+            throw new RedisConnectionFailureException("Redis circuit is open");
+        }
+        RedisClusterAsyncCommands<String, String> redis = commands;
+        if (redis == null) {
+            connectInBackground();
+            circuitBreaker.onFailure();
+            failures.increment();
+            throw new RedisConnectionFailureException("Redis is not connected yet");
+        }
+        long deadline = System.nanoTime() + timeoutNanos;
+        List<RedisFuture<?>> futures = new ArrayList<>();
+        List<Object> results;
+        try {
+            sender.send(redis, futures);
+            results = new ArrayList<>(futures.size());
+            for (RedisFuture<?> future : futures) {
+                results.add(future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS));
+            }
+        } catch (TimeoutException ex) {
+            futures.forEach(future -> future.cancel(false));
+            circuitBreaker.onFailure();
+            timeouts.increment();
+            throw new QueryTimeoutException("Redis did not reply within " + Duration.ofNanos(timeoutNanos), ex);
+        } catch (ExecutionException ex) {
+            circuitBreaker.onFailure();
+            failures.increment();
+            throw translate(ex.getCause());
+        } catch (CancellationException ex) {
+            // Lettuce cancels queued commands when it gives up reconnecting.
+            circuitBreaker.onFailure();
+            failures.increment();
+            throw new RedisConnectionFailureException("Redis command was cancelled", ex);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            futures.forEach(future -> future.cancel(false));
+            circuitBreaker.onFailure();
+            failures.increment();
+            throw new RedisSystemException("Interrupted while waiting for Redis", ex);
+        } catch (RuntimeException ex) {
+            // Thrown while sending, e.g. when Lettuce rejects commands while disconnected. The commands already
+            // queued are dropped and the failure is recorded, or a half-open circuit would wait for its probe forever.
+            futures.forEach(future -> future.cancel(false));
+            circuitBreaker.onFailure();
+            failures.increment();
+            throw translate(ex);
+        }
+        circuitBreaker.onSuccess();
+        successes.increment();
+        return results;
+    }
+
+    private void connectInBackground() {
+        if (connection != null || !connecting.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            connectExecutor.execute(() -> {
+                try {
+                    StatefulConnection<String, String> opened = connector.get();
+                    commands = asyncCommands(opened);
+                    connection = opened;
+                    log.info("Redis cache connection opened");
+                } catch (RuntimeException ex) {
+                    log.warn("Redis cache connection failed, retrying on the next call: {}", ex.getMessage());
+                } finally {
+                    connecting.set(false);
+                }
+            });
+        } catch (RejectedExecutionException ex) {
+            // The application is stopping.
+            connecting.set(false);
+        }
+    }
+
+    private static DataAccessException translate(Throwable cause) {
+        if (cause instanceof Exception ex) {
+            DataAccessException translated = EXCEPTION_CONVERTER.convert(ex);
+            if (translated != null) {
+                return translated;
+            }
+        }
+        return new RedisSystemException("Redis command failed", cause);
+    }
+
+    private static StatefulConnection<String, String> connect(LettuceConnectionFactory connectionFactory) {
+        AbstractRedisClient client = connectionFactory.getRequiredNativeClient();
+        if (client instanceof RedisClusterClient clusterClient) {
+            return clusterClient.connect(StringCodec.UTF8);
+        }
+        return ((RedisClient) client).connect(StringCodec.UTF8);
+    }
+
+    private static RedisClusterAsyncCommands<String, String> asyncCommands(StatefulConnection<String, String> connection) {
+        if (connection instanceof StatefulRedisClusterConnection<String, String> clusterConnection) {
+            return clusterConnection.async();
+        }
+        return ((StatefulRedisConnection<String, String>) connection).async();
     }
 
-    public String get(String key) {
-        return redisTemplate.opsForValue().get(key);
+    private static Counter calls(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("cache.redis.calls").tag("result", result)
+                .description("Calls to the Redis cache").register(meterRegistry);
     }
 
-    public void delete(String key) {
-        redisTemplate.delete(key);
+    @FunctionalInterface
+    private interface Command<T> {
+        T send(RedisClusterAsyncCommands<String, String> redis);
     }
 
-    public boolean isUserTokenInWhiteList(String userId, String tokenFromRequest) {
-        String tokenFromRedis = get("whitelist:" + userId);
-        return tokenFromRedis != null && tokenFromRedis.equals(tokenFromRequest);
+    @FunctionalInterface
+    private interface PipelinedCommands {
+        /**
+         * Sends the commands, adding the future of each one to {@code futures} as soon as it is sent.
+         */
+        void send(RedisClusterAsyncCommands<String, String> redis, List<RedisFuture<?>> futures);
     }
 }
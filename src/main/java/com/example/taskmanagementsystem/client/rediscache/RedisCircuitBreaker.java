@@ -0,0 +1,87 @@
+package com.example.taskmanagementsystem.client.rediscache;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+
+/**
+ * Circuit breaker in front of Redis, so that an unavailable or slow Redis costs a request nothing instead of
+ * a full deadline.
+ * <p>
+ * After {@code failureThreshold} consecutive failures the circuit opens and calls are rejected for
+ * {@code openDuration}. Then a single call is let through as a probe: its success closes the circuit,
+ * its failure opens it again.
+ */
+@Slf4j
+public class RedisCircuitBreaker {
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final int failureThreshold;
+    private final long openNanos;
+    private final LongSupplier nanoClock;
+    private final AtomicReference<State> state = new AtomicReference<>(State.CLOSED);
+    private final AtomicInteger failures = new AtomicInteger();
+    private volatile long openedAt;
+
+    public RedisCircuitBreaker(int failureThreshold, Duration openDuration) {
+        this(failureThreshold, openDuration, System::nanoTime);
+    }
+
+    RedisCircuitBreaker(int failureThreshold, Duration openDuration, LongSupplier nanoClock) {
+        if (failureThreshold < 1) {
+            throw new IllegalArgumentException("failureThreshold must be positive");
+        }
+        this.failureThreshold = failureThreshold;
+        this.openNanos = openDuration.toNanos();
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Asks for permission to call Redis. Every permitted call must be followed by {@link #onSuccess()}
+     * or {@link #onFailure()}.
+     *
+     * @return {@code false} if the call has to be rejected without reaching Redis
+     */
+    public boolean tryAcquire() {
+        return switch (state.get()) {
+            case CLOSED -> true;
+            case HALF_OPEN -> false;
+            case OPEN -> nanoClock.getAsLong() - openedAt >= openNanos
+                    && state.compareAndSet(State.OPEN, State.HALF_OPEN);
+        };
+    }
+
+    public void onSuccess() {
+        failures.set(0);
+        if (state.get() != State.CLOSED && state.getAndSet(State.CLOSED) != State.CLOSED) {
+            log.info("Redis circuit closed");
+        }
+    }
+
+    public void onFailure() {
+        State current = state.get();
+        if (current == State.HALF_OPEN) {
+            open(State.HALF_OPEN, "Redis circuit opened again, the probe failed");
+        } else if (current == State.CLOSED && failures.incrementAndGet() >= failureThreshold) {
+            open(State.CLOSED, "Redis circuit opened after consecutive failures");
+        }
+    }
+
+    public State getState() {
+        return state.get();
+    }
+
+    private void open(State expected, String message) {
+        // Set before the transition, so that no caller sees the circuit open without its start.
+        openedAt = nanoClock.getAsLong();
+        if (state.compareAndSet(expected, State.OPEN)) {
+            log.warn(message);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.taskmanagementsystem.client.rediscache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A {@link RedisMessageListenerContainer} that does not fail application startup when Redis is unreachable.
+ * <p>
+ * The stock container gives up on the first failed subscription and stays "running" without listening.
+ * This one logs the failure and retries the subscription in the background until it succeeds, so pub/sub
+ * consumers such as {@link CacheInvalidationBus} only degrade while Redis is down.
+ */
+@Slf4j
+public class ResilientRedisMessageListenerContainer extends RedisMessageListenerContainer {
+
+    private final Duration retryInterval;
+    private final ScheduledExecutorService retryExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "redis-subscription-retry");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private volatile boolean active;
+
+    public ResilientRedisMessageListenerContainer(Duration retryInterval) {
+        this.retryInterval = retryInterval;
+    }
+
+    @Override
+    public void start() {
+        active = true;
+        try {
+            super.start();
+        } catch (DataAccessException ex) {
+            log.warn("Redis subscription failed, retrying in {}", retryInterval, ex);
+            retryExecutor.schedule(this::restart, retryInterval.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    public void stop() {
+        active = false;
+        super.stop();
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        active = false;
+        retryExecutor.shutdownNow();
+        super.destroy();
+    }
+
+    private void restart() {
+        if (active) {
+            super.stop();
+            start();
+        }
+    }
+}
@@ -0,0 +1,250 @@
+package com.example.taskmanagementsystem.client.rediscache;
+
+import com.example.taskmanagementsystem.dto.task.TaskRs;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Two-tier read-through cache of {@link TaskRs}: a bounded in-heap L1 in front of serialized entries in Redis (L2).
+ * <p>
+ * A task is cached under two keys: {@code task:{id}} without comments and {@code task:{id}:comments}
+ * with them, so a comment change only drops the variant that contains comments. Evictions requested
+ * inside a transaction run after commit, otherwise a concurrent read could cache the old row again.
+ * Evicted keys are broadcast through {@link CacheInvalidationBus} so that every node drops its L1 copy;
+ * a lost message is bounded by the L1 time to live. Redis failures never fail the request: reads fall
+ * back to the loader and are counted as misses.
+ * <p>
+ * Lookups are published as the {@code cache.gets} meter, tagged {@code cache=task.local} for L1 and
+ * {@code cache=task} for L2, with {@code result=hit|miss}.
+ */
+@Slf4j
+@Component
+public class TaskRsCache implements CacheInvalidationBus.Listener {
+
+    static final String KEY_PREFIX = "task:";
+    static final String COMMENTS_SUFFIX = ":comments";
+
+    private final CacheClient cacheClient;
+    private final CacheInvalidationBus cacheInvalidationBus;
+    private final ObjectMapper objectMapper;
+    private final Duration ttl;
+    private final Cache<String, TaskRs> localCache;
+    private final AtomicLong invalidations = new AtomicLong();
+    private final Counter hits;
+    private final Counter misses;
+
+    public TaskRsCache(CacheClient cacheClient,
+                       CacheInvalidationBus cacheInvalidationBus,
+                       ObjectMapper objectMapper,
+                       MeterRegistry meterRegistry,
+                       @Value("${cache.task.ttl:10m}") Duration ttl,
+                       @Value("${cache.task.local.max-size:10000}") long localMaxSize,
+                       @Value("${cache.task.local.ttl:30s}") Duration localTtl) {
+        this.cacheClient = cacheClient;
+        this.cacheInvalidationBus = cacheInvalidationBus;
+        this.objectMapper = objectMapper;
+        this.ttl = ttl;
+        this.localCache = Caffeine.newBuilder()
+                .maximumSize(localMaxSize)
+                .expireAfterWrite(localTtl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, localCache, "task.local");
+        this.hits = Counter.builder("cache.gets").tag("cache", "task").tag("result", "hit")
+                .description("Task cache lookups served from Redis").register(meterRegistry);
+        this.misses = Counter.builder("cache.gets").tag("cache", "task").tag("result", "miss")
+                .description("Task cache lookups loaded from the database").register(meterRegistry);
+        cacheInvalidationBus.subscribe(this);
+    }
+
+    /**
+     * Returns the cached task or loads, caches and returns it.
+     *
+     * @param id              the task id
+     * @param includeComments whether the cached response contains comments
+     * @param loader          loads the task on a miss
+     * @return the task response
+     */
+    public TaskRs get(@NotNull Long id, boolean includeComments, @NotNull Supplier<TaskRs> loader) {
+        TaskRs taskRs = getIfPresent(id, includeComments);
+        return taskRs != null ? taskRs : load(id, includeComments, loader);
+    }
+
+    /**
+     * Returns the cached task from L1 or Redis without loading it, e.g. to answer a conditional request from
+     * the version of the cached copy.
+     *
+     * @param id              the task id
+     * @param includeComments whether the cached response contains comments
+     * @return the task response, or null on a miss
+     */
+    public TaskRs getIfPresent(@NotNull Long id, boolean includeComments) {
+        String key = key(id, includeComments);
+        TaskRs taskRs = localCache.getIfPresent(key);
+        if (taskRs != null) {
+            return taskRs;
+        }
+        // An invalidation that races with this lookup must not be overwritten by the value read before it.
+        long seenInvalidations = invalidations.get();
+        taskRs = readRemote(key);
+        if (taskRs == null) {
+            return null;
+        }
+        hits.increment();
+        if (invalidations.get() == seenInvalidations) {
+            localCache.put(key, taskRs);
+        }
+        return taskRs;
+    }
+
+    /**
+     * Loads the task and caches it, for a lookup that missed {@link #getIfPresent}.
+     *
+     * @param id              the task id
+     * @param includeComments whether the cached response contains comments
+     * @param loader          loads the task
+     * @return the task response
+     */
+    public TaskRs load(@NotNull Long id, boolean includeComments, @NotNull Supplier<TaskRs> loader) {
+        String key = key(id, includeComments);
+        long seenInvalidations = invalidations.get();
+        misses.increment();
+        TaskRs taskRs = loader.get();
+        writeRemote(key, taskRs);
+        if (invalidations.get() == seenInvalidations) {
+            localCache.put(key, taskRs);
+        }
+        return taskRs;
+    }
+
+    /**
+     * Evicts both cached variants of a task, e.g. after the task was updated or deleted.
+     *
+     * @param id the task id
+     */
+    public void evict(@NotNull Long id) {
+        evict(List.of(id));
+    }
+
+    /**
+     * Evicts both cached variants of every given task.
+     *
+     * @param ids the task ids
+     */
+    public void evict(@NotNull Collection<Long> ids) {
+        List<String> keys = new ArrayList<>(ids.size() * 2);
+        ids.forEach(id -> {
+            keys.add(key(id, false));
+            keys.add(key(id, true));
+        });
+        afterCommit(keys);
+    }
+
+    /**
+     * Evicts only the cached variant with comments, e.g. after a comment of the task changed.
+     *
+     * @param id the task id
+     */
+    public void evictComments(@NotNull Long id) {
+        evictComments(List.of(id));
+    }
+
+    /**
+     * Evicts only the cached variant with comments of every given task.
+     *
+     * @param ids the task ids
+     */
+    public void evictComments(@NotNull Collection<Long> ids) {
+        afterCommit(ids.stream().map(id -> key(id, true)).toList());
+    }
+
+    @Override
+    public void invalidate(@NotNull Collection<String> keys) {
+        invalidations.incrementAndGet();
+        localCache.invalidateAll(keys);
+    }
+
+    @Override
+    public void invalidateAll() {
+        invalidations.incrementAndGet();
+        localCache.invalidateAll();
+    }
+
+    static @NotNull String key(@NotNull Long id, boolean includeComments) {
+        return includeComments
+                ? KEY_PREFIX + id + COMMENTS_SUFFIX
+                : KEY_PREFIX + id;
+    }
+
+    private TaskRs readRemote(String key) {
+        String cached;
+        try {
+            cached = cacheClient.get(key);
+        } catch (DataAccessException ex) {
+            log.warn("Task cache read failed for {}", key, ex);
+            return null;
+        }
+        if (cached == null) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(cached, TaskRs.class);
+        } catch (JsonProcessingException ex) {
+            log.warn("Dropping unreadable cache entry {}", key, ex);
+            return null;
+        }
+    }
+
+    private void writeRemote(String key, TaskRs taskRs) {
+        try {
+            cacheClient.set(key, objectMapper.writeValueAsString(taskRs), ttl.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (JsonProcessingException | DataAccessException ex) {
+            log.warn("Task cache write failed for {}", key, ex);
+        }
+    }
+
+    private void afterCommit(List<String> keys) {
+        if (keys.isEmpty()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidateEverywhere(keys);
+                }
+            });
+        } else {
+            invalidateEverywhere(keys);
+        }
+    }
+
+    private void invalidateEverywhere(List<String> keys) {
+        try {
+            cacheClient.delete(keys);
+        } catch (DataAccessException ex) {
+            log.warn("Task cache eviction failed for {}", keys, ex);
+        }
+        cacheInvalidationBus.publish(keys);
+    }
+}
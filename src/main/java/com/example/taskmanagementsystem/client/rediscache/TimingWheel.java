@@ -0,0 +1,154 @@
+package com.example.taskmanagementsystem.client.rediscache;
+
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical timing wheel: four levels of 64 slots, each slot of a level spanning a whole turn of the level
+ * below, so expiries up to 64<sup>4</sup> ticks ahead are scheduled, cancelled and fired in constant time.
+ * <p>
+ * A node is kept in the slot of its expiry tick on the lowest level whose turn covers it. When the level below
+ * completes a turn, the next slot of the level above is cascaded, its nodes moving down to finer slots, until
+ * they reach the lowest level and fire on their exact tick. Nodes further ahead than the wheel covers wait in
+ * its last slot and are rescheduled when they come down. Slots are intrusive doubly linked lists, so a node
+ * costs no memory besides its own links.
+ * <p>
+ * Not thread-safe, callers synchronize.
+ */
+class TimingWheel {
+
+    private static final int LEVELS = 4;
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final long SPAN = 1L << (SLOT_BITS * LEVELS);
+
+    /**
+     * An element scheduled on the wheel, in at most one slot at a time.
+     */
+    static class Node {
+
+        private long expiryTick;
+        private Node prev;
+        private Node next;
+
+        long getExpiryTick() {
+            return expiryTick;
+        }
+
+        boolean isScheduled() {
+            return prev != null;
+        }
+    }
+
+    private final Node[][] slots = new Node[LEVELS][SLOTS];
+    private long currentTick;
+
+    TimingWheel(long currentTick) {
+        this.currentTick = currentTick;
+        for (Node[] level : slots) {
+            for (int i = 0; i < SLOTS; i++) {
+                Node sentinel = new Node();
+                sentinel.prev = sentinel;
+                sentinel.next = sentinel;
+                level[i] = sentinel;
+            }
+        }
+    }
+
+    long currentTick() {
+        return currentTick;
+    }
+
+    /**
+     * Schedules the node to fire on the given tick, or on the next tick if that one has passed.
+     */
+    void schedule(Node node, long expiryTick) {
+        cancel(node);
+        node.expiryTick = expiryTick;
+        add(node, currentTick + 1);
+    }
+
+    void cancel(Node node) {
+        if (node.isScheduled()) {
+            node.prev.next = node.next;
+            node.next.prev = node.prev;
+            node.prev = null;
+            node.next = null;
+        }
+    }
+
+    /**
+     * Advances the wheel tick by tick up to the given tick, handing every node whose expiry tick was reached
+     * to the consumer, unscheduled.
+     */
+    void advance(long tick, Consumer<Node> expired) {
+        while (currentTick < tick) {
+            currentTick++;
+            // Cascade from the highest level completing a turn down to the lowest, whose slot fires.
+            int level = 0;
+            while (level < LEVELS - 1 && (currentTick & ((1L << (SLOT_BITS * (level + 1))) - 1)) == 0) {
+                level++;
+            }
+            for (; level >= 0; level--) {
+                drain(slot(level, currentTick), expired);
+            }
+        }
+    }
+
+    /**
+     * Returns a node among the first to expire, found by walking the slots ahead from the lowest level up.
+     *
+     * @return the node, or {@code null} if nothing is scheduled
+     */
+    Node nextToExpire() {
+        for (int level = 0; level < LEVELS; level++) {
+            long base = currentTick >>> (SLOT_BITS * level);
+            for (int i = 0; i < SLOTS; i++) {
+                Node sentinel = slots[level][(int) ((base + i) & SLOT_MASK)];
+                if (sentinel.next != sentinel) {
+                    return sentinel.next;
+                }
+            }
+        }
+        return null;
+    }
+
+    private void add(Node node, long earliestTick) {
+        long tick = Math.max(node.expiryTick, earliestTick);
+        long delta = tick - currentTick;
+        if (delta >= SPAN) {
+            tick = currentTick + SPAN - 1;
+            delta = SPAN - 1;
+        }
+        int level = 0;
+        while (delta >= 1L << (SLOT_BITS * (level + 1))) {
+            level++;
+        }
+        Node sentinel = slot(level, tick);
+        node.prev = sentinel.prev;
+        node.next = sentinel;
+        sentinel.prev.next = node;
+        sentinel.prev = node;
+    }
+
+    private Node slot(int level, long tick) {
+        return slots[level][(int) ((tick >>> (SLOT_BITS * level)) & SLOT_MASK)];
+    }
+
+    private void drain(Node sentinel, Consumer<Node> expired) {
+        Node node = sentinel.next;
+        sentinel.next = sentinel;
+        sentinel.prev = sentinel;
+        while (node != sentinel) {
+            Node next = node.next;
+            node.prev = null;
+            node.next = null;
+            if (node.expiryTick <= currentTick) {
+                expired.accept(node);
+            } else {
+                add(node, currentTick + 1);
+            }
+            node = next;
+        }
+    }
+}
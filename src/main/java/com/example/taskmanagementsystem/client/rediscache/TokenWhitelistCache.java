@@ -0,0 +1,148 @@
+package com.example.taskmanagementsystem.client.rediscache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Whitelist of the current access token of every user, kept in Redis under {@code whitelist:{userId}}
+ * with a bounded in-heap copy in front of it; single-node deployments can keep it in {@link EmbeddedCacheClient}
+ * instead. Only the {@code jti} claim of the token is stored, which is
+ * a fraction of the size of the encoded token, both in Redis and on the wire.
+ * <p>
+ * Every authenticated request checks its token here, so positive lookups are served from the local copy
+ * and only misses go to Redis. Issuing or revoking a token writes Redis first and then broadcasts the key
+ * through {@link CacheInvalidationBus}, so every node drops its copy before the next request; a lost message
+ * is bounded by the local time to live. A token that differs from the local copy is re-checked against Redis,
+ * so a stale copy can delay a revocation but never rejects a freshly issued token.
+ * <p>
+ * When Redis cannot answer a lookup, {@code cache.whitelist.fail-open} decides: by default the failure is
+ * thrown and the token is not accepted; with fail-open, a token missing from the local copy is accepted on its
+ * signature alone, so a Redis outage delays revocations instead of rejecting every request. Issuing and revoking
+ * always fail when Redis does, a lost revocation must not go unnoticed.
+ * <p>
+ * Local lookups are published as the {@code cache.gets} meter tagged {@code cache=whitelist.local}, tokens
+ * accepted without a lookup as the {@code cache.whitelist.unchecked} counter.
+ */
+@Slf4j
+@Component
+public class TokenWhitelistCache implements CacheInvalidationBus.Listener {
+
+    static final String KEY_PREFIX = "whitelist:";
+
+    private final CacheClient cacheClient;
+    private final CacheInvalidationBus cacheInvalidationBus;
+    private final Cache<String, String> localCache;
+    private final AtomicLong invalidations = new AtomicLong();
+    private final boolean failOpen;
+    private final Counter unchecked;
+
+    public TokenWhitelistCache(CacheClient cacheClient,
+                               CacheInvalidationBus cacheInvalidationBus,
+                               MeterRegistry meterRegistry,
+                               @Value("${cache.whitelist.local.max-size:100000}") long localMaxSize,
+                               @Value("${cache.whitelist.local.ttl:30s}") Duration localTtl,
+                               @Value("${cache.whitelist.fail-open:false}") boolean failOpen) {
+        this.cacheClient = cacheClient;
+        this.cacheInvalidationBus = cacheInvalidationBus;
+        this.localCache = Caffeine.newBuilder()
+                .maximumSize(localMaxSize)
+                .expireAfterWrite(localTtl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, localCache, "whitelist.local");
+        this.failOpen = failOpen;
+        this.unchecked = Counter.builder("cache.whitelist.unchecked")
+                .description("Tokens accepted without a whitelist lookup because Redis was unavailable")
+                .register(meterRegistry);
+        cacheInvalidationBus.subscribe(this);
+    }
+
+    /**
+     * Makes the token the only valid token of the user, e.g. after login.
+     *
+     * @param userId   the user id
+     * @param tokenId  the {@code jti} of the issued token
+     * @param timeout  how long the token stays whitelisted
+     * @param timeUnit the unit of the timeout
+     */
+    public void put(@NotNull Long userId, @NotNull String tokenId, long timeout, @NotNull TimeUnit timeUnit) {
+        String key = key(userId.toString());
+        cacheClient.set(key, tokenId, timeout, timeUnit);
+        cacheInvalidationBus.publish(List.of(key));
+    }
+
+    /**
+     * Revokes the current token of the user, e.g. after the password was changed.
+     *
+     * @param userId the user id
+     */
+    public void revoke(@NotNull Long userId) {
+        String key = key(userId.toString());
+        cacheClient.delete(key);
+        cacheInvalidationBus.publish(List.of(key));
+    }
+
+    /**
+     * Checks whether the token is the current token of the user.
+     *
+     * @param userId  the user id from the token
+     * @param tokenId the {@code jti} of the token from the request
+     * @return {@code true} if the token is whitelisted
+     */
+    public boolean isWhitelisted(@NotNull String userId, @NotNull String tokenId) {
+        String key = key(userId);
+        if (tokenId.equals(localCache.getIfPresent(key))) {
+            return true;
+        }
+        // An invalidation that races with this lookup must not be overwritten by the value read before it.
+        long seenInvalidations = invalidations.get();
+        String whitelisted;
+        try {
+            whitelisted = cacheClient.get(key);
+        } catch (DataAccessException ex) {
+            if (!failOpen) {
+                throw ex;
+            }
+            log.debug("Accepting token of user {} unchecked, Redis is unavailable", userId, ex);
+            unchecked.increment();
+            return true;
+        }
+        if (whitelisted == null) {
+            return false;
+        }
+        if (invalidations.get() == seenInvalidations) {
+            localCache.put(key, whitelisted);
+        }
+        return whitelisted.equals(tokenId);
+    }
+
+    @Override
+    public void invalidate(@NotNull Collection<String> keys) {
+        invalidations.incrementAndGet();
+        localCache.invalidateAll(keys);
+    }
+
+    @Override
+    public void invalidateAll() {
+        invalidations.incrementAndGet();
+        localCache.invalidateAll();
+    }
+
+    static @NotNull String key(@NotNull String userId) {
+        return KEY_PREFIX + userId;
+    }
+}
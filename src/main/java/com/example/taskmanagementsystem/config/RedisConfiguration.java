@@ -0,0 +1,28 @@
+package com.example.taskmanagementsystem.config;
+
+import com.example.taskmanagementsystem.client.rediscache.CacheInvalidationBus;
+import com.example.taskmanagementsystem.client.rediscache.ResilientRedisMessageListenerContainer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.time.Duration;
+
+@Configuration
+@Profile("!embedded-cache")
+public class RedisConfiguration {
+
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                       CacheInvalidationBus cacheInvalidationBus,
+                                                                       @Value("${cache.invalidation.retry-interval:5s}") Duration retryInterval) {
+        RedisMessageListenerContainer container = new ResilientRedisMessageListenerContainer(retryInterval);
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(cacheInvalidationBus, new ChannelTopic(CacheInvalidationBus.CHANNEL));
+        return container;
+    }
+}
@@ -1,50 +1,54 @@
 package com.example.taskmanagementsystem.config;
 
+import com.example.taskmanagementsystem.security.BoundedPasswordEncoder;
+import com.example.taskmanagementsystem.security.CachingDaoAuthenticationProvider;
+import com.example.taskmanagementsystem.security.CachingJwtDecoder;
 import com.example.taskmanagementsystem.security.CustomBasicAuthenticationEntryPoint;
 import com.example.taskmanagementsystem.security.CustomBearerTokenAccessDeniedHandler;
 import com.example.taskmanagementsystem.security.CustomBearerTokenAuthenticationEntryPoint;
+import com.example.taskmanagementsystem.security.JwkJwtEncoder;
+import com.example.taskmanagementsystem.security.JwkSetJwtProcessor;
+import com.example.taskmanagementsystem.security.JwtKeySet;
+import com.example.taskmanagementsystem.security.JwtSigningAlgorithm;
+import com.example.taskmanagementsystem.security.LoginRateLimitFilter;
+import com.example.taskmanagementsystem.security.LoginRateLimiter;
+import com.example.taskmanagementsystem.security.TunableBCryptPasswordEncoder;
+import com.example.taskmanagementsystem.security.UserAuthenticationCache;
+import com.example.taskmanagementsystem.security.UserJwtAuthenticationConverter;
 import com.example.taskmanagementsystem.security.UserRequestAuthorizationManager;
-import com.nimbusds.jose.jwk.JWK;
-import com.nimbusds.jose.jwk.JWKSet;
-import com.nimbusds.jose.jwk.RSAKey;
-import com.nimbusds.jose.jwk.source.ImmutableJWKSet;
-import com.nimbusds.jose.jwk.source.JWKSource;
-import com.nimbusds.jose.proc.SecurityContext;
+import com.example.taskmanagementsystem.service.UserService;
+import com.nimbusds.jose.JOSEException;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.Resource;
 import org.springframework.http.HttpMethod;
 import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.annotation.web.configurers.HeadersConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.oauth2.jwt.JwtDecoder;
 import org.springframework.security.oauth2.jwt.JwtEncoder;
 import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
-import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
-import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
-import org.springframework.security.oauth2.server.resource.authentication.JwtGrantedAuthoritiesConverter;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
 import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
 
-import java.security.KeyPair;
-import java.security.KeyPairGenerator;
-import java.security.NoSuchAlgorithmException;
-import java.security.interfaces.RSAPrivateKey;
-import java.security.interfaces.RSAPublicKey;
+import java.io.IOException;
+import java.security.GeneralSecurityException;
+import java.text.ParseException;
 
 @Configuration
 public class SecurityConfiguration {
 
-    private final RSAPublicKey publicKey;
-    private final RSAPrivateKey privateKey;
     private final CustomBasicAuthenticationEntryPoint customBasicAuthenticationEntryPoint;
     private final CustomBearerTokenAuthenticationEntryPoint customBearerTokenAuthenticationEntryPoint;
     private final CustomBearerTokenAccessDeniedHandler customBearerTokenAccessDeniedHandler;
     private final UserRequestAuthorizationManager userRequestAuthorizationManager;
+    private final LoginRateLimiter loginRateLimiter;
 
     @Value("${api.endpoint.base-url}")
     private String baseUrl;
@@ -55,26 +59,22 @@ public class SecurityConfiguration {
             "/swagger-ui.html",      // Swagger UI HTML
     };
 
-    public SecurityConfiguration(CustomBasicAuthenticationEntryPoint customBasicAuthenticationEntryPoint, CustomBearerTokenAuthenticationEntryPoint customBearerTokenAuthenticationEntryPoint, CustomBearerTokenAccessDeniedHandler customBearerTokenAccessDeniedHandler, UserRequestAuthorizationManager userRequestAuthorizationManager) throws NoSuchAlgorithmException {
+    public SecurityConfiguration(CustomBasicAuthenticationEntryPoint customBasicAuthenticationEntryPoint, CustomBearerTokenAuthenticationEntryPoint customBearerTokenAuthenticationEntryPoint, CustomBearerTokenAccessDeniedHandler customBearerTokenAccessDeniedHandler, UserRequestAuthorizationManager userRequestAuthorizationManager, LoginRateLimiter loginRateLimiter) {
         this.customBasicAuthenticationEntryPoint = customBasicAuthenticationEntryPoint;
         this.customBearerTokenAuthenticationEntryPoint = customBearerTokenAuthenticationEntryPoint;
         this.customBearerTokenAccessDeniedHandler = customBearerTokenAccessDeniedHandler;
         this.userRequestAuthorizationManager = userRequestAuthorizationManager;
-
-        KeyPairGenerator keyPairGenerator = KeyPairGenerator.getInstance("RSA");
-        keyPairGenerator.initialize(2048);
-        KeyPair keyPair = keyPairGenerator.generateKeyPair();
-        publicKey = (RSAPublicKey) keyPair.getPublic();
-        privateKey = (RSAPrivateKey) keyPair.getPrivate();
-
+        this.loginRateLimiter = loginRateLimiter;
     }
 
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         return http
                 .authorizeHttpRequests(authorizeHttpRequests -> authorizeHttpRequests
+                        .requestMatchers(HttpMethod.GET, baseUrl + "/task/export").authenticated()
                         .requestMatchers(HttpMethod.GET, baseUrl + "/task/**").permitAll()
                         .requestMatchers(HttpMethod.POST, baseUrl + "/task/search").permitAll()
+                        .requestMatchers(HttpMethod.PATCH, baseUrl + "/task/bulk").hasAuthority("ROLE_ADMIN")
                         .requestMatchers(HttpMethod.POST, baseUrl + "/user/login").permitAll()
                         .requestMatchers(HttpMethod.GET, baseUrl + "/user/**").access(userRequestAuthorizationManager)
                         .requestMatchers(HttpMethod.POST, baseUrl + "/user").hasAuthority("ROLE_ADMIN")
@@ -89,8 +89,10 @@ public class SecurityConfiguration {
                 .csrf(AbstractHttpConfigurer::disable)
                 .cors(Customizer.withDefaults())
                 .httpBasic(httpBasic -> httpBasic.authenticationEntryPoint(customBasicAuthenticationEntryPoint))
+                .addFilterBefore(new LoginRateLimitFilter(loginRateLimiter, customBasicAuthenticationEntryPoint),
+                        BasicAuthenticationFilter.class)
                 .oauth2ResourceServer(auth2ResourceServer -> auth2ResourceServer
-                        .jwt(Customizer.withDefaults())
+                        .jwt(jwt -> jwt.jwtAuthenticationConverter(jwtAuthenticationConverter()))
                         .authenticationEntryPoint(customBearerTokenAuthenticationEntryPoint)
                         .accessDeniedHandler(customBearerTokenAccessDeniedHandler))
                 .sessionManagement(sessionManagement -> sessionManagement.sessionCreationPolicy(
@@ -99,33 +101,53 @@ public class SecurityConfiguration {
     }
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder(12);
+    public PasswordEncoder passwordEncoder(MeterRegistry meterRegistry,
+                                           @Value("${security.password.bcrypt-strength:12}") int strength,
+                                           @Value("${security.password.threads:0}") int threads,
+                                           @Value("${security.password.queue-capacity:64}") int queueCapacity) {
+        if (threads <= 0) {
+            threads = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        }
+        return new BoundedPasswordEncoder(new TunableBCryptPasswordEncoder(strength), meterRegistry, threads, queueCapacity);
     }
 
     @Bean
-    public JwtEncoder jwtEncoder() {
-        JWK jwk = new RSAKey.Builder(publicKey).privateKey(privateKey).build();
-        JWKSource<SecurityContext> jwkSet = new ImmutableJWKSet<>(new JWKSet(jwk));
-        return new NimbusJwtEncoder(jwkSet);
+    public CachingDaoAuthenticationProvider authenticationProvider(PasswordEncoder passwordEncoder, UserService userService,
+                                                                   UserAuthenticationCache userAuthenticationCache) {
+        return new CachingDaoAuthenticationProvider(passwordEncoder, userService, userService, userAuthenticationCache);
     }
 
     @Bean
-    public JwtDecoder jwtDecoder() {
-        return NimbusJwtDecoder.withPublicKey(publicKey).build();
+    public JwtKeySet jwtKeySet(@Value("${security.jwt.algorithm:RS256}") JwtSigningAlgorithm algorithm,
+                               @Value("${security.jwt.key-id:#{null}}") String keyId,
+                               @Value("${security.jwt.jwks:#{null}}") Resource jwks,
+                               @Value("${security.jwt.keystore.location:#{null}}") Resource keyStore,
+                               @Value("${security.jwt.keystore.type:PKCS12}") String keyStoreType,
+                               @Value("${security.jwt.keystore.password:}") String keyStorePassword)
+            throws IOException, ParseException, GeneralSecurityException, JOSEException {
+        if (jwks != null) {
+            return JwtKeySet.loadJwks(jwks, keyId);
+        }
+        if (keyStore != null) {
+            return JwtKeySet.loadKeyStore(keyStore, keyStoreType, keyStorePassword.toCharArray(), keyId);
+        }
+        return JwtKeySet.generate(algorithm);
     }
 
     @Bean
-    public JwtAuthenticationConverter jwtAuthenticationConverter() {
-
-        JwtGrantedAuthoritiesConverter jwtGrantedAuthoritiesConverter = new JwtGrantedAuthoritiesConverter();
+    public JwtEncoder jwtEncoder(JwtKeySet jwtKeySet) throws JOSEException {
+        return new JwkJwtEncoder(jwtKeySet.getSigningKey(), jwtKeySet.getSigningAlgorithm());
+    }
 
-        jwtGrantedAuthoritiesConverter.setAuthoritiesClaimName("authorities");
-        jwtGrantedAuthoritiesConverter.setAuthorityPrefix("");
+    @Bean
+    public JwtDecoder jwtDecoder(JwtKeySet jwtKeySet, MeterRegistry meterRegistry, @Value("${cache.jwt.max-size:100000}") long cacheMaxSize) throws JOSEException {
+        JwkSetJwtProcessor jwtProcessor = new JwkSetJwtProcessor(jwtKeySet.getVerificationKeys());
+        return new CachingJwtDecoder(new NimbusJwtDecoder(jwtProcessor), meterRegistry, cacheMaxSize);
+    }
 
-        JwtAuthenticationConverter jwtAuthenticationConverter = new JwtAuthenticationConverter();
-        jwtAuthenticationConverter.setJwtGrantedAuthoritiesConverter(jwtGrantedAuthoritiesConverter);
-        return jwtAuthenticationConverter;
+    @Bean
+    public UserJwtAuthenticationConverter jwtAuthenticationConverter() {
+        return new UserJwtAuthenticationConverter();
     }
 
 }
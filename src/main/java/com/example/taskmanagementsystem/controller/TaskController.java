@@ -1,20 +1,38 @@
 package com.example.taskmanagementsystem.controller;
 
+import com.example.taskmanagementsystem.dto.CursorPage;
+import com.example.taskmanagementsystem.dto.PageMode;
 import com.example.taskmanagementsystem.dto.Result;
+import com.example.taskmanagementsystem.dto.SlicePage;
 import com.example.taskmanagementsystem.dto.StatusCode;
+import com.example.taskmanagementsystem.dto.task.TaskBulkUpdateRq;
+import com.example.taskmanagementsystem.dto.task.TaskExportFormat;
 import com.example.taskmanagementsystem.dto.task.TaskFilter;
 import com.example.taskmanagementsystem.dto.task.TaskRq;
 import com.example.taskmanagementsystem.dto.task.TaskRs;
 import com.example.taskmanagementsystem.service.TaskService;
+import com.example.taskmanagementsystem.util.VersionETags;
 import io.swagger.v3.oas.annotations.Operation;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
 import org.springdoc.core.annotations.ParameterObject;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.Duration;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 /**
  * REST controller for managing tasks within the Task Management System.
  * Handles operations like creating, updating, assigning, and deleting tasks.
@@ -23,27 +41,63 @@ import java.util.Map;
 @RequiredArgsConstructor
 @RequestMapping("${api.endpoint.base-url}/task")
 public class TaskController {
+    private static final String INCLUDE_COMMENTS = "comments";
+    private static final int MAX_BATCH_SIZE = 1000;
+
     private final TaskService taskService;
 
+    @Value("${task.export.timeout:30m}")
+    private Duration exportTimeout;
 
+    /**
+     * Fetches a task by its ID.
+     *
+     * @param id      the ID of the task
+     * @param include    optional associations to embed, {@code comments} is supported
+     * @param webRequest the request, checked against the ETag and Last-Modified of the task
+     * @return a result object containing the DTO task, or null with 304 Not Modified when the client's copy is current
+     */
+    @Operation(summary = "Get task by id",
+            description = "Retrieves a task, comments are embedded only with include=comments. " +
+                    "The ETag header holds the version to send back in If-Match on update. " +
+                    "Answers 304 without a body when If-None-Match or If-Modified-Since show the client's copy is current")
     @GetMapping("/{id}")
-    public Result findById(@PathVariable Long id) {
-        TaskRs rs = taskService.findByIdReturnTaskRs(id);
-        return new Result(true, StatusCode.SUCCESS, "Found one", rs);
+    public ResponseEntity<Result> findById(@PathVariable Long id, @RequestParam(required = false) Set<String> include,
+                                           WebRequest webRequest) {
+        TaskRs rs = taskService.findByIdReturnTaskRs(id, includesComments(include), webRequest::checkNotModified);
+        return rs == null ? null : revalidated(new Result(true, StatusCode.SUCCESS, "Found one", rs));
     }
 
     /**
      * Fetches all tasks.
      *
-     * @return a result object containing list of all DTO tasks
+     * @param pageable page number, size and sort for OFFSET, SLICE and ESTIMATE modes, only size is used in CURSOR mode
+     * @param mode     pagination mode
+     * @param cursor   continuation token from the previous CURSOR page
+     * @param include    optional associations to embed, {@code comments} is supported
+     * @param webRequest the request, checked against the ETag of the page
+     * @return a result object containing list of all DTO tasks, or null with 304 Not Modified when the client's copy is current
      */
     @Operation(summary = "Get all tasks",
-            description = "Retrieves all tasks in the system")
+            description = "Retrieves all tasks in the system. CURSOR mode pages newest first by an opaque token and skips the total count. " +
+                    "SLICE mode skips the total count, ESTIMATE mode replaces it with a planner estimate. " +
+                    "Answers 304 without a body when If-None-Match holds the current ETag of the page")
 
     @GetMapping
-    public Result findAll(Pageable pageable) {
-        Page<TaskRs> taskRsPage = taskService.findAll(pageable);
-        return new Result(true, StatusCode.SUCCESS, "Found all", taskRsPage);
+    public ResponseEntity<Result> findAll(Pageable pageable,
+                                          @RequestParam(defaultValue = "OFFSET") PageMode mode,
+                                          @RequestParam(required = false) String cursor,
+                                          @RequestParam(required = false) Set<String> include,
+                                          WebRequest webRequest) {
+        Object page;
+        if (mode == PageMode.CURSOR) {
+            page = taskService.findAllByCursor(cursor, pageable.getPageSize(), includesComments(include), webRequest::checkNotModified);
+        } else if (isSlice(mode)) {
+            page = taskService.findAllSlice(pageable, mode == PageMode.ESTIMATE, includesComments(include), webRequest::checkNotModified);
+        } else {
+            page = taskService.findAll(pageable, includesComments(include), webRequest::checkNotModified);
+        }
+        return page == null ? null : revalidated(new Result(true, StatusCode.SUCCESS, "Found all", page));
     }
 
     /**
@@ -60,22 +114,55 @@ public class TaskController {
         return new Result(true, StatusCode.SUCCESS, "Task created", rs);
     }
 
+    /**
+     * Creates many tasks at once.
+     *
+     * @param rqs request the details of the tasks to create, at most {@value #MAX_BATCH_SIZE}
+     * @return a result object containing the ids of the created tasks in request order
+     */
+    @Operation(summary = "Create tasks in bulk",
+            description = "Creates up to " + MAX_BATCH_SIZE + " tasks in one transaction and returns their ids in request order. " +
+                    "Nothing is created if any task is invalid or references a missing user")
+    @PostMapping("/batch")
+    public Result createBatch(@RequestBody @Size(min = 1, max = MAX_BATCH_SIZE) List<@Valid TaskRq> rqs) {
+        List<Long> ids = taskService.createAll(rqs);
+        return new Result(true, StatusCode.SUCCESS, "Tasks created", ids);
+    }
+
     /**
      * Updates the details of an existing task.
      *
-     * @param id the ID of the task to update
-     * @param rq request the updated task details
-     * @return a result object containing the DTO updated task
+     * @param id      the ID of the task to update
+     * @param rq      request the updated task details
+     * @param ifMatch optional ETag of the version the update is based on
+     * @return a result object containing the DTO updated task, with its new version as the ETag
      */
     @Operation(summary = "Update a task",
-            description = "Updates the details of an existing task")
+            description = "Updates the details of an existing task. With If-Match, fails with 412 unless the task " +
+                    "is still at that version; without it, fails with 412 only if a concurrent update wins")
     @PutMapping("/{id}")
-    public Result update(@PathVariable Long id, @RequestBody @Valid TaskRq rq) {
-        TaskRs rs = taskService.update(id, rq);
-        return new Result(true, StatusCode.SUCCESS, "Update success", rs);
+    public ResponseEntity<Result> update(@PathVariable Long id, @RequestBody @Valid TaskRq rq,
+                                         @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        TaskRs rs = taskService.update(id, rq, VersionETags.expectedVersion(ifMatch));
+        return VersionETags.ok(rs.version(), new Result(true, StatusCode.SUCCESS, "Update success", rs));
     }
 
 
+    /**
+     * Changes the status or priority of every task matching a filter, admin only.
+     *
+     * @param rq request the filter and the changes
+     * @return a result object containing the number of updated tasks
+     */
+    @Operation(summary = "Update tasks in bulk",
+            description = "Sets the status and/or priority of every task matching the filter in one transaction. " +
+                    "Pagination fields of the filter are ignored, an empty filter matches all tasks")
+    @PatchMapping("/bulk")
+    public Result updateAll(@RequestBody @Valid TaskBulkUpdateRq rq) {
+        long updated = taskService.updateAll(rq);
+        return new Result(true, StatusCode.SUCCESS, "Tasks updated", updated);
+    }
+
     /**
      * Deletes a task by its ID.
      *
@@ -93,9 +180,10 @@ public class TaskController {
 
     /**
      * Retrieves tasks filtered by various criteria.
-     * Supports pagination and filtering by attributes like title, description, status, priority, author, and assignee.
+     * Supports offset, cursor, slice or estimated-total pagination and filtering by attributes like title, description, status, priority, author, and assignee.
      *
-     * @param filter the filter object containing criteria for tasks
+     * @param filter  the filter object containing criteria for tasks
+     * @param include optional associations to embed, {@code comments} is supported
      * @return a result object containing a paginated list of tasks matching the filter criteria
      */
     @Operation(
@@ -103,23 +191,72 @@ public class TaskController {
             description = "Retrieve tasks based on the provided filter criteria. Supports pagination and filtering by attributes such as title, description, status, priority, author, and assignee."
     )
     @GetMapping("/filter")
-    public Result findAllByFilter(@Valid @ParameterObject TaskFilter filter) {
-        Page<TaskRs> taskRsPage = taskService.filterBy(filter);
+    public Result findAllByFilter(@Valid @ParameterObject TaskFilter filter,
+                                  @RequestParam(required = false) Set<String> include) {
+        if (filter.getMode() == PageMode.CURSOR) {
+            CursorPage<TaskRs> taskRsPage = taskService.filterByCursor(filter, includesComments(include));
+            return new Result(true, StatusCode.SUCCESS, "Filtered tasks", taskRsPage);
+        }
+        if (isSlice(filter.getMode())) {
+            SlicePage<TaskRs> taskRsSlice = taskService.filterBySlice(filter, includesComments(include));
+            return new Result(true, StatusCode.SUCCESS, "Filtered tasks", taskRsSlice);
+        }
+        Page<TaskRs> taskRsPage = taskService.filterBy(filter, includesComments(include));
         return new Result(true, StatusCode.SUCCESS, "Filtered tasks", taskRsPage);
     }
 
+    /**
+     * Streams all tasks matching the filter as a file.
+     *
+     * @param filter the task filter, pagination fields are ignored
+     * @param format {@code ndjson} or {@code csv}
+     * @param webRequest the request, given {@code task.export.timeout} instead of the default async timeout
+     * @return a response streaming the tasks newest first
+     */
+    @Operation(summary = "Export tasks",
+            description = "Streams every task matching the filter as NDJSON or CSV, newest first, without comments. " +
+                    "Rows are written as they are read from the database, pagination fields are ignored. Requires authentication. " +
+                    "CSV cells starting with =, +, -, @, tab or carriage return are prefixed with ' so spreadsheets do not run them as formulas")
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(@ParameterObject TaskFilter filter,
+                                                        @RequestParam(defaultValue = "ndjson") TaskExportFormat format,
+                                                        WebRequest webRequest) {
+        WebAsyncUtils.getAsyncManager(webRequest).getAsyncWebRequest().setTimeout(exportTimeout.toMillis());
+        StreamingResponseBody body = out -> taskService.export(filter, format, out);
+        return ResponseEntity.ok()
+                .contentType(format.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename("tasks." + format.getExtension()).build().toString())
+                .body(body);
+    }
+
     @Operation(
             summary = "Search tasks by criteria",
-            description = "Searches tasks dynamically using criteria specified as key-value pairs. Supports filtering by title, description, status, priority, and user information."
+            description = "Searches tasks dynamically using criteria specified as key-value pairs. Supports filtering by title, description, status, priority, and user information. " +
+                    "SLICE and ESTIMATE modes skip the total count, search results carry no estimate."
     )
     @PostMapping("/search")
-    public Result findTasksByCriteria(@RequestBody Map<String, String> searchCriteria, Pageable pageable) throws IllegalAccessException {
-        Page<TaskRs> taskRsPage = taskService.findByCriteria(searchCriteria, pageable);
+    public Result findTasksByCriteria(@RequestBody Map<String, String> searchCriteria, Pageable pageable,
+                                      @RequestParam(defaultValue = "OFFSET") PageMode mode,
+                                      @RequestParam(required = false) Set<String> include) throws IllegalAccessException {
+        if (isSlice(mode)) {
+            SlicePage<TaskRs> taskRsSlice = taskService.findByCriteriaSlice(searchCriteria, pageable, includesComments(include));
+            return new Result(true, StatusCode.SUCCESS, "Search result", taskRsSlice);
+        }
+        Page<TaskRs> taskRsPage = taskService.findByCriteria(searchCriteria, pageable, includesComments(include));
         return new Result(true, StatusCode.SUCCESS, "Search result", taskRsPage);
     }
 
+    private static boolean isSlice(PageMode mode) {
+        return mode == PageMode.SLICE || mode == PageMode.ESTIMATE;
+    }
 
+    private static boolean includesComments(Set<String> include) {
+        return include != null && include.contains(INCLUDE_COMMENTS);
+    }
 
-
-
+    // Clients may keep the response but must revalidate it, instead of the no-store added by Spring Security
+    private static ResponseEntity<Result> revalidated(Result result) {
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache().cachePrivate()).body(result);
+    }
 }
@@ -6,6 +6,7 @@ import com.example.taskmanagementsystem.dto.user.PasswordRq;
 import com.example.taskmanagementsystem.dto.user.UserRq;
 import com.example.taskmanagementsystem.dto.user.UserRs;
 import com.example.taskmanagementsystem.service.UserService;
+import com.example.taskmanagementsystem.util.VersionETags;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -15,6 +16,8 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
@@ -63,7 +66,7 @@ public class UserController {
      * Retrieves a user by their ID.
      *
      * @param id the ID of the user to retrieve
-     * @return a result object containing the user data if found
+     * @return a result object containing the user data if found, with its version as the ETag
      */
     @Operation(
             summary = "Get user by ID",
@@ -79,9 +82,9 @@ public class UserController {
             }
     )
     @GetMapping("/{id}")
-    public Result findById(@PathVariable Long id) {
+    public ResponseEntity<Result> findById(@PathVariable Long id) {
         UserRs rs = userService.findByIdReturnUserRs(id);
-        return new Result(true, StatusCode.SUCCESS, "Found one success", rs);
+        return VersionETags.ok(rs.version(), new Result(true, StatusCode.SUCCESS, "Found one success", rs));
     }
 
     /**
@@ -140,13 +143,15 @@ public class UserController {
     /**
      * Updates a user by their ID with the provided details.
      *
-     * @param id the ID of the user to update
-     * @param rq the request object containing updated user details
-     * @return a result object containing the updated user details
+     * @param id      the ID of the user to update
+     * @param rq      the request object containing updated user details
+     * @param ifMatch optional ETag of the version the update is based on
+     * @return a result object containing the updated user details, with the new version as the ETag
      */
     @Operation(
             summary = "Edit user",
-            description = "Return edited DTO user. Available only to users with a role ADMIN",
+            description = "Return edited DTO user. Available only to users with a role ADMIN. " +
+                    "With If-Match, fails with 412 unless the user is still at that version",
             tags = {"user", "id"}
     )
     @ApiResponses({
@@ -157,13 +162,18 @@ public class UserController {
             @ApiResponse(
                     responseCode = "404",
                     content = {@Content(schema = @Schema(implementation = Result.class), mediaType = "application/json")}
+            ),
+            @ApiResponse(
+                    responseCode = "412",
+                    content = {@Content(schema = @Schema(implementation = Result.class), mediaType = "application/json")}
             )
     })
 
     @PutMapping("/{id}")
-    public Result update(@PathVariable Long id, @RequestBody @Valid UserRq rq) {
-        UserRs rs = userService.update(id, rq);
-        return new Result(true,StatusCode.SUCCESS,"Update success", rs);
+    public ResponseEntity<Result> update(@PathVariable Long id, @RequestBody @Valid UserRq rq,
+                                         @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        UserRs rs = userService.update(id, rq, VersionETags.expectedVersion(ifMatch));
+        return VersionETags.ok(rs.version(), new Result(true,StatusCode.SUCCESS,"Update success", rs));
     }
 
 
@@ -0,0 +1,26 @@
+package com.example.taskmanagementsystem.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+/**
+ * A page of results fetched with keyset pagination.
+ * Pass {@code nextCursor} back as the {@code cursor} parameter to fetch the following page.
+ */
+@Schema(description = "A page of results fetched with keyset (cursor) pagination")
+public record CursorPage<T>(
+        @Schema(description = "Items of the current page")
+        List<T> content,
+
+        @Schema(description = "Requested page size", example = "20")
+        int size,
+
+        @Schema(description = "Whether another page is available", example = "true")
+        boolean hasNext,
+
+        @Schema(description = "Opaque token to request the next page, absent on the last page",
+                example = "MTcwMDU2ODAwMDowOjQy")
+        String nextCursor
+) {
+}
@@ -0,0 +1,12 @@
+package com.example.taskmanagementsystem.dto;
+
+/**
+ * Pagination strategy for list endpoints.
+ * OFFSET - classic page number / page size with a total count
+ * CURSOR - keyset pagination driven by an opaque continuation token, no total count
+ * SLICE - page number / page size without a count query, only tells whether a next page exists
+ * ESTIMATE - like SLICE, plus an approximate total taken from the database planner statistics
+ */
+public enum PageMode {
+    OFFSET, CURSOR, SLICE, ESTIMATE
+}
@@ -0,0 +1,12 @@
+package com.example.taskmanagementsystem.dto;
+
+import java.time.Instant;
+
+/**
+ * Validators of a representation, computed without building it.
+ *
+ * @param eTag         the ETag
+ * @param lastModified when the representation last changed, null when it cannot be told exactly
+ */
+public record ResourceVersion(String eTag, Instant lastModified) {
+}
@@ -0,0 +1,31 @@
+package com.example.taskmanagementsystem.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+/**
+ * A page of results fetched without a count query.
+ * {@code estimatedTotal} is only present in {@link PageMode#ESTIMATE} mode and is an approximation.
+ */
+@Schema(description = "A page of results fetched without counting all matching rows")
+public record SlicePage<T>(
+        @Schema(description = "Items of the current page")
+        List<T> content,
+
+        @Schema(description = "Zero-based page number", example = "0")
+        int number,
+
+        @Schema(description = "Requested page size", example = "20")
+        int size,
+
+        @Schema(description = "Whether another page is available", example = "true")
+        boolean hasNext,
+
+        @Schema(description = "Approximate number of matching rows, present only in ESTIMATE mode",
+                example = "5000000")
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        Long estimatedTotal
+) {
+}
@@ -6,7 +6,10 @@ package com.example.taskmanagementsystem.dto;
  * UNAUTHORIZED = 401; // Username or password incorrect
  * FORBIDDEN = 403; // No permission
  * NOT_FOUND = 404; // Not found
+ * PRECONDITION_FAILED = 412; // If-Match does not match the current version
+ * TOO_MANY_REQUESTS = 429; // Too many login attempts or password checks
  * INTERNAL_SERVER_ERROR = 500; // Server internal error
+ * SERVICE_UNAVAILABLE = 503; // A backing service, e.g. Redis, is unavailable
  */
 public class StatusCode {
 
@@ -20,6 +23,12 @@ public class StatusCode {
 
     public static final int NOT_FOUND = 404;
 
+    public static final int PRECONDITION_FAILED = 412;
+
+    public static final int TOO_MANY_REQUESTS = 429;
+
     public static final int INTERNAL_SERVER_ERROR = 500;
 
+    public static final int SERVICE_UNAVAILABLE = 503;
+
 }
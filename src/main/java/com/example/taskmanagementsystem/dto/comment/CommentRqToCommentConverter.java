@@ -1,26 +1,42 @@
 package com.example.taskmanagementsystem.dto.comment;
 
 import com.example.taskmanagementsystem.entity.Comment;
+import com.example.taskmanagementsystem.repo.CommentRepository;
 import com.example.taskmanagementsystem.service.TaskService;
 import com.example.taskmanagementsystem.service.UserService;
+import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
+import org.slf4j.helpers.MessageFormatter;
 import org.springframework.core.convert.converter.Converter;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+
+/**
+ * Converts a comment request, referencing its task and author without loading them, so creating a comment
+ * costs the same whatever the number of comments of the task. Both are checked with one query.
+ */
 @Component
 @RequiredArgsConstructor
 public class CommentRqToCommentConverter implements Converter<CommentRq, Comment> {
 
+    private final CommentRepository commentRepository;
     private final TaskService taskService;
     private final UserService userService;
 
     @Override
     public Comment convert(CommentRq rq) {
+        if (!commentRepository.existsTaskAndAuthor(rq.taskId(), rq.authorId())) {
+            // Only a failed check pays for telling which one is missing.
+            userService.getReferencesById(List.of(rq.authorId()));
+            throw new EntityNotFoundException(
+                    MessageFormatter.format("Task with id {} not found", rq.taskId()).getMessage());
+        }
 
         return Comment.builder()
                 .comment(rq.comment())
-                .author(userService.findById(rq.authorId()))
-                .task(taskService.findById(rq.taskId()))
+                .author(userService.getReferenceById(rq.authorId()))
+                .task(taskService.getReferenceById(rq.taskId()))
                 .build();
     }
 }
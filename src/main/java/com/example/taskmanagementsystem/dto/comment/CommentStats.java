@@ -0,0 +1,11 @@
+package com.example.taskmanagementsystem.dto.comment;
+
+/**
+ * Count and highest id of a set of comments. Comments are only ever created, with increasing ids, or deleted,
+ * so these two change whenever the set does.
+ *
+ * @param count  the number of comments
+ * @param lastId the highest comment id, null when there are none
+ */
+public record CommentStats(Long count, Long lastId) {
+}
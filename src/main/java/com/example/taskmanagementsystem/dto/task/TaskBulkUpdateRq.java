@@ -0,0 +1,33 @@
+package com.example.taskmanagementsystem.dto.task;
+
+import com.example.taskmanagementsystem.entity.Priority;
+import com.example.taskmanagementsystem.entity.Status;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * A request object for changing the status or priority of every task matching a filter.
+ */
+@Schema(description = "A request object for changing the status or priority of every task matching a filter")
+public record TaskBulkUpdateRq(
+        @Schema(description = "Tasks to update, pagination fields are ignored and an empty filter matches all tasks")
+        @NotNull(message = "Filter must not be null")
+        TaskFilter filter,
+
+        @Schema(description = "New status, unchanged when null",
+                example = "FINISHED")
+        Status status,
+
+        @Schema(description = "New priority, unchanged when null",
+                example = "LOW")
+        Priority priority
+) {
+
+    @JsonIgnore
+    @AssertTrue(message = "Status or priority must be specified")
+    public boolean isChangeSpecified() {
+        return status != null || priority != null;
+    }
+}
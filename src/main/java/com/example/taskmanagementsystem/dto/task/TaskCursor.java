@@ -0,0 +1,53 @@
+package com.example.taskmanagementsystem.dto.task;
+
+import com.example.taskmanagementsystem.entity.Task;
+import com.example.taskmanagementsystem.exception.InvalidCursorException;
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.helpers.MessageFormatter;
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Keyset position of a task in the {@code created_at DESC, id DESC} ordering.
+ * Serialized to clients as an opaque base64url token.
+ */
+public record TaskCursor(Instant createdAt, Long id) {
+
+    public static final Sort SORT = Sort.by(Sort.Order.desc("createdAt"), Sort.Order.desc("id"));
+
+    public static @NotNull TaskCursor of(@NotNull Task task) {
+        return new TaskCursor(task.getCreatedAt(), task.getId());
+    }
+
+    /**
+     * Decodes a token produced by {@link #encode()}.
+     *
+     * @param token the token received from the client, may be null or blank for the first page
+     * @return the decoded cursor or null when no token was given
+     */
+    public static TaskCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split(":");
+            if (parts.length != 3) {
+                throw new IllegalArgumentException("Unexpected cursor format");
+            }
+            Instant createdAt = Instant.ofEpochSecond(Long.parseLong(parts[0]), Long.parseLong(parts[1]));
+            return new TaskCursor(createdAt, Long.valueOf(parts[2]));
+        } catch (IllegalArgumentException | DateTimeException ex) {
+            throw new InvalidCursorException(
+                    MessageFormatter.format("Invalid cursor value:{}", token).getMessage());
+        }
+    }
+
+    public String encode() {
+        String raw = createdAt.getEpochSecond() + ":" + createdAt.getNano() + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.taskmanagementsystem.dto.task;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.Getter;
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.helpers.MessageFormatter;
+import org.springframework.http.MediaType;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+
+/**
+ * File formats of the task export.
+ * NDJSON - one TaskRs JSON object per line
+ * CSV - RFC 4180 rows with a header line, cells a spreadsheet would evaluate as a formula are prefixed with {@code '}
+ */
+@Getter
+public enum TaskExportFormat {
+
+    NDJSON(new MediaType("application", "x-ndjson", StandardCharsets.UTF_8), "ndjson") {
+        @Override
+        public void write(Iterator<TaskRs> rows, OutputStream out, ObjectMapper objectMapper) throws IOException {
+            ObjectWriter rowWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                generator.setRootValueSeparator(null);
+                boolean first = true;
+                while (rows.hasNext()) {
+                    rowWriter.writeValue(generator, rows.next());
+                    generator.writeRaw('\n');
+                    if (first) {
+                        generator.flush();
+                        first = false;
+                    }
+                }
+            }
+        }
+    },
+
+    CSV(new MediaType("text", "csv", StandardCharsets.UTF_8), "csv") {
+        private static final String HEADER = "id,title,description,status,priority,authorId,assigneeId,createdAt";
+        // Characters that start a formula in Excel, LibreOffice or Google Sheets (CSV injection)
+        private static final String FORMULA_PREFIXES = "=+-@\t\r";
+
+        @Override
+        public void write(Iterator<TaskRs> rows, OutputStream out, ObjectMapper objectMapper) throws IOException {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            writer.write(HEADER);
+            writer.write("\r\n");
+            writer.flush();
+            while (rows.hasNext()) {
+                TaskRs rs = rows.next();
+                writer.write(String.join(",", field(rs.id()), field(rs.title()), field(rs.description()),
+                        field(rs.status()), field(rs.priority()), field(rs.authorId()), field(rs.assigneeId()),
+                        field(rs.createdAt())));
+                writer.write("\r\n");
+            }
+            writer.flush();
+        }
+
+        private static String field(Object value) {
+            if (value == null) {
+                return "";
+            }
+            String text = value.toString();
+            if (!text.isEmpty() && FORMULA_PREFIXES.indexOf(text.charAt(0)) >= 0) {
+                text = "'" + text;
+            }
+            if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+                return text;
+            }
+            return '"' + text.replace("\"", "\"\"") + '"';
+        }
+    };
+
+    private final MediaType mediaType;
+    private final String extension;
+
+    TaskExportFormat(MediaType mediaType, String extension) {
+        this.mediaType = mediaType;
+        this.extension = extension;
+    }
+
+    /**
+     * Writes all rows to the stream and flushes it, the stream is left open for the caller.
+     * The first bytes are flushed right away, later rows as the buffer fills.
+     */
+    public abstract void write(Iterator<TaskRs> rows, OutputStream out, ObjectMapper objectMapper) throws IOException;
+
+    /**
+     * Parses a format name, ignoring case.
+     *
+     * @throws IllegalArgumentException if the name is not a known format
+     */
+    public static @NotNull TaskExportFormat of(@NotNull String name) {
+        for (TaskExportFormat format : values()) {
+            if (format.name().equalsIgnoreCase(name.trim())) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException(MessageFormatter.format("Unknown export format {}", name).getMessage());
+    }
+}
@@ -1,9 +1,12 @@
 package com.example.taskmanagementsystem.dto.task;
 
+import com.example.taskmanagementsystem.dto.PageMode;
 import com.example.taskmanagementsystem.entity.Priority;
 import com.example.taskmanagementsystem.entity.Status;
 import com.example.taskmanagementsystem.validation.TaskFilterValid;
 import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -18,9 +21,12 @@ import java.time.Instant;
 public class TaskFilter {
 
     @Schema(description = "Number of items per page", example = "10")
+    @Min(value = 1, message = "Page size must be from 1 to 1000")
+    @Max(value = 1000, message = "Page size must be from 1 to 1000")
     private Integer pageSize;
 
     @Schema(description = "Page number to retrieve", example = "0")
+    @Min(value = 0, message = "Page number must not be negative")
     private Integer pageNumber;
 
     @Schema(description = "Task title to filter by", example = "Fix bug")
@@ -44,4 +50,10 @@ public class TaskFilter {
     @Schema(description = "Filter tasks created after this timestamp", example = "2023-01-01T00:00:00Z")
     private Instant createdAt;
 
+    @Schema(description = "Pagination mode, CURSOR ignores pageNumber and skips the total count", example = "OFFSET")
+    private PageMode mode;
+
+    @Schema(description = "Continuation token returned as nextCursor by the previous CURSOR page")
+    private String cursor;
+
 }
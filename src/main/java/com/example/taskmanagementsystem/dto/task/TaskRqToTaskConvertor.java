@@ -1,26 +1,48 @@
 package com.example.taskmanagementsystem.dto.task;
 
 import com.example.taskmanagementsystem.entity.Task;
+import com.example.taskmanagementsystem.entity.User;
 import com.example.taskmanagementsystem.service.UserService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.core.convert.converter.Converter;
 import org.springframework.stereotype.Component;
 
+import java.util.Arrays;
+import java.util.Map;
+
 @Component
 @RequiredArgsConstructor
 public class TaskRqToTaskConvertor implements Converter<TaskRq, Task> {
 
     private final UserService userService;
 
+    /**
+     * Converts a request, referencing its author and assignee without loading them; both are checked
+     * with one query.
+     *
+     * @param rq the request
+     * @return the new task
+     */
     @Override
     public Task convert(TaskRq rq) {
+        return convert(rq, userService.getReferencesById(Arrays.asList(rq.authorId(), rq.assigneeId())));
+    }
+
+    /**
+     * Converts a request whose users were already resolved, so no lookup is made per task.
+     *
+     * @param rq    the request
+     * @param users the author and assignee of the request keyed by id
+     * @return the new task
+     */
+    public Task convert(TaskRq rq, Map<Long, User> users) {
         return Task.builder()
                 .title(rq.title())
                 .description(rq.description())
                 .status(rq.status())
                 .priority(rq.priority())
-                .author(userService.findById(rq.authorId()))
-                .assignee(userService.findById(rq.assigneeId()))
+                .author(users.get(rq.authorId()))
+                .assignee(users.get(rq.assigneeId()))
                 .build();
     }
 }
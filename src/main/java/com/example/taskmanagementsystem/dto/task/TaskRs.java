@@ -5,6 +5,7 @@ package com.example.taskmanagementsystem.dto.task;
 import com.example.taskmanagementsystem.dto.comment.CommentRs;
 import com.example.taskmanagementsystem.entity.Priority;
 import com.example.taskmanagementsystem.entity.Status;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import io.swagger.v3.oas.annotations.media.Schema;
 
 import java.time.Instant;
@@ -47,7 +48,16 @@ public record TaskRs(
                 example = "2023-11-21T12:00:00Z")
         Instant createdAt,
 
-        @Schema(description = "List of comments associated with the task")
+        @Schema(description = "Timestamp of the last change of the task, also sent as the Last-Modified header",
+                example = "2023-11-22T09:30:00Z")
+        Instant updatedAt,
+
+        @Schema(description = "Version of the task, also sent as the ETag header and expected back in If-Match on update",
+                example = "3")
+        Long version,
+
+        @Schema(description = "List of comments associated with the task, present only when requested with include=comments")
+        @JsonInclude(JsonInclude.Include.NON_NULL)
         List<CommentRs> commentsRs
 ) {
 }
@@ -2,26 +2,26 @@ package com.example.taskmanagementsystem.dto.task;
 
 
 import com.example.taskmanagementsystem.dto.comment.CommentRs;
-import com.example.taskmanagementsystem.dto.comment.CommentToCommentRsConverter;
-import com.example.taskmanagementsystem.entity.Comment;
 import com.example.taskmanagementsystem.entity.Task;
-import lombok.RequiredArgsConstructor;
 import org.jetbrains.annotations.NotNull;
 import org.springframework.core.convert.converter.Converter;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
-import java.util.stream.Collectors;
-
 
+/**
+ * Converts a task to its DTO. Only the task row is read, author and assignee ids come from the
+ * foreign keys and comments are attached only when the caller already loaded them.
+ */
 @Component
-@RequiredArgsConstructor
 public class TaskToTaskRsConvertor implements Converter<Task, TaskRs> {
 
-    private final CommentToCommentRsConverter commentToCommentRsConverter;
-
     @Override
     public TaskRs convert(@NotNull Task source) {
+        return convert(source, null);
+    }
+
+    public TaskRs convert(@NotNull Task source, List<CommentRs> commentsRs) {
         return new TaskRs(
                 source.getId(),
                 source.getTitle(),
@@ -31,12 +31,8 @@ public class TaskToTaskRsConvertor implements Converter<Task, TaskRs> {
                 source.getAuthorId(),
                 source.getAssigneeId(),
                 source.getCreatedAt(),
-                setCommentsRs(source.getComments()));
-    }
-
-    private List<CommentRs> setCommentsRs(List<Comment> comments) {
-        return comments.stream()
-                .map(commentToCommentRsConverter::convert)
-                .collect(Collectors.toList());
+                source.getUpdatedAt(),
+                source.getVersion(),
+                commentsRs);
     }
 }
@@ -0,0 +1,12 @@
+package com.example.taskmanagementsystem.dto.task;
+
+import java.time.Instant;
+
+/**
+ * The columns of a task that change on every update, read to answer a conditional request without loading the task.
+ *
+ * @param version   the optimistic locking version
+ * @param updatedAt when the task was last updated
+ */
+public record TaskVersion(Long version, Instant updatedAt) {
+}
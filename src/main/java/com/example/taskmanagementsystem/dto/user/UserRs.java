@@ -22,6 +22,10 @@ public record UserRs(
         String email,
 
         @Schema(description = "Roles assigned to the user", example = "[\"ROLE_ADMIN\", \"ROLE_USER\"]")
-        Set<RoleType> roles
+        Set<RoleType> roles,
+
+        @Schema(description = "Version of the user, also sent as the ETag header and expected back in If-Match on update",
+                example = "3")
+        Long version
 ) {
 }
@@ -14,6 +14,7 @@ public class UserToUserRsConverter implements Converter<User, UserRs> {
                 user.getId(),
                 user.getUsername(),
                 user.getEmail(),
-                user.getRoles());
+                user.getRoles(),
+                user.getVersion());
     }
 }
@@ -0,0 +1,5 @@
+package com.example.taskmanagementsystem.entity;
+
+public enum AggregateType {
+    TASK, COMMENT, USER
+}
@@ -0,0 +1,47 @@
+package com.example.taskmanagementsystem.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.io.Serializable;
+import java.time.Instant;
+/**
+ * Represents a change to a task, comment or user, recorded in the transaction that made it
+ * and kept until the outbox relay has published it.
+ * The event names what changed, consumers read the current state themselves.
+ */
+@Getter
+@Setter
+@ToString
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Entity
+@Table(name = "outbox_events")
+public class OutboxEvent implements Serializable {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outbox_events_seq")
+    @SequenceGenerator(name = "outbox_events_seq", sequenceName = "outbox_events_seq", allocationSize = 50)
+    private Long id;
+
+    @Enumerated(value = EnumType.STRING)
+    @Column(nullable = false)
+    private AggregateType aggregateType;
+
+    @Column(nullable = false)
+    private Long aggregateId;
+
+    @Enumerated(value = EnumType.STRING)
+    @Column(nullable = false)
+    private EventType eventType;
+
+    /**
+     * The task the change concerns: the task itself or the task of a comment, {@code null} for users.
+     */
+    private Long taskId;
+
+    @CreationTimestamp
+    private Instant createdAt;
+}
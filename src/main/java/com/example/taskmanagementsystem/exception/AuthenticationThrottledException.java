@@ -0,0 +1,21 @@
+package com.example.taskmanagementsystem.exception;
+
+import lombok.Getter;
+import org.springframework.security.authentication.AuthenticationServiceException;
+
+import java.time.Duration;
+
+/**
+ * A password check that was refused before it ran, either because the caller exceeded its login attempts
+ * or because too many checks are already waiting. Answered with 429 and a {@code Retry-After} header.
+ */
+@Getter
+public class AuthenticationThrottledException extends AuthenticationServiceException {
+
+    private final Duration retryAfter;
+
+    public AuthenticationThrottledException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+}
@@ -3,7 +3,12 @@ package com.example.taskmanagementsystem.exception;
 import com.example.taskmanagementsystem.dto.Result;
 import com.example.taskmanagementsystem.dto.StatusCode;
 import jakarta.persistence.EntityNotFoundException;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.ConstraintViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.authentication.AccountStatusException;
@@ -18,6 +23,8 @@ import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.method.annotation.HandlerMethodValidationException;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 
 import java.util.HashMap;
 import java.util.List;
@@ -38,6 +45,33 @@ public class ExceptionHandlerAdvice {
         return new Result(false, StatusCode.INVALID_ARGUMENT,"Provided arguments are not valid", ex.getMessage());
     }
 
+    @ExceptionHandler(InvalidCursorException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    Result handleInvalidCursorException(InvalidCursorException ex) {
+        return new Result(false, StatusCode.INVALID_ARGUMENT, "Provided arguments are not valid", ex.getMessage());
+    }
+
+    @ExceptionHandler(PreconditionFailedException.class)
+    @ResponseStatus(HttpStatus.PRECONDITION_FAILED)
+    Result handlePreconditionFailedException(PreconditionFailedException ex) {
+        return new Result(false, StatusCode.PRECONDITION_FAILED, "Resource was modified", ex.getMessage());
+    }
+
+    // Another update committed between the read and the versioned UPDATE of this one
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    @ResponseStatus(HttpStatus.PRECONDITION_FAILED)
+    Result handleOptimisticLockingFailureException(OptimisticLockingFailureException ex) {
+        return new Result(false, StatusCode.PRECONDITION_FAILED, "Resource was modified", ex.getMessage());
+    }
+
+    @ExceptionHandler(MethodArgumentTypeMismatchException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    Result handleMethodArgumentTypeMismatchException(MethodArgumentTypeMismatchException ex) {
+        Throwable cause = ex.getMostSpecificCause();
+        return new Result(false, StatusCode.INVALID_ARGUMENT, "Provided arguments are not valid",
+                Map.of(ex.getName(), cause.getMessage() == null ? ex.getMessage() : cause.getMessage()));
+    }
+
     @ExceptionHandler(HttpMediaTypeNotSupportedException.class)
     @ResponseStatus(HttpStatus.NOT_FOUND)
     Result handleHttpMediaTypeNotSupportedException(HttpMediaTypeNotSupportedException ex) {
@@ -64,12 +98,37 @@ public class ExceptionHandlerAdvice {
         return new Result(false, StatusCode.INVALID_ARGUMENT, "Provided arguments are not valid", map);
     }
 
+    @ExceptionHandler(HandlerMethodValidationException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    Result handleHandlerMethodValidationException(HandlerMethodValidationException ex) {
+        Map<String, String> map = new HashMap<>();
+        ex.getAllValidationResults().forEach(result -> {
+            // Errors of a list element are keyed like [2].title
+            String prefix = result.getContainerIndex() == null ? "" : "[" + result.getContainerIndex() + "].";
+            result.getResolvableErrors().forEach(error -> {
+                String key = error instanceof FieldError fieldError
+                        ? prefix + fieldError.getField()
+                        : result.getMethodParameter().getParameterName();
+                map.put(key, error.getDefaultMessage());
+            });
+        });
+
+        return new Result(false, StatusCode.INVALID_ARGUMENT, "Provided arguments are not valid", map);
+    }
+
     @ExceptionHandler({UsernameNotFoundException.class, BadCredentialsException.class,  })
     @ResponseStatus(HttpStatus.UNAUTHORIZED)
     Result handleAuthenticationException(Exception ex) {
         return new Result(false, StatusCode.UNAUTHORIZED, "username or password is incorrect", ex.getMessage());
     }
 
+    @ExceptionHandler(AuthenticationThrottledException.class)
+    @ResponseStatus(HttpStatus.TOO_MANY_REQUESTS)
+    Result handleAuthenticationThrottledException(AuthenticationThrottledException ex, HttpServletResponse response) {
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfter().toSeconds()));
+        return new Result(false, StatusCode.TOO_MANY_REQUESTS, "Too many requests", ex.getMessage());
+    }
+
     @ExceptionHandler(AccountStatusException.class)
     @ResponseStatus(HttpStatus.UNAUTHORIZED)
     Result handleAccountStatusException(AccountStatusException ex) {
@@ -101,6 +160,12 @@ public class ExceptionHandlerAdvice {
         return new Result(false, StatusCode.INVALID_ARGUMENT, ex.getMessage());
     }
 
+    @ExceptionHandler({RedisConnectionFailureException.class, QueryTimeoutException.class})
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    Result handleServiceUnavailableException(Exception ex) {
+        return new Result(false, StatusCode.SERVICE_UNAVAILABLE, "Service temporarily unavailable", ex.getMessage());
+    }
+
     @ExceptionHandler(Exception.class)
     @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
     Result handleOtherException(Exception ex) {
@@ -0,0 +1,8 @@
+package com.example.taskmanagementsystem.exception;
+
+public class InvalidCursorException extends RuntimeException {
+
+    public InvalidCursorException(String message) {
+        super(message);
+    }
+}
@@ -1,11 +1,39 @@
 package com.example.taskmanagementsystem.repo;
 
+import com.example.taskmanagementsystem.dto.comment.CommentRs;
+import com.example.taskmanagementsystem.dto.comment.CommentStats;
 import com.example.taskmanagementsystem.entity.Comment;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface CommentRepository extends JpaRepository<Comment, Long> {
 
+    /**
+     * Loads the comments of several tasks in one query, projected straight into DTOs
+     * so no Comment, User or Task entities are hydrated.
+     */
+    @Query("select new com.example.taskmanagementsystem.dto.comment.CommentRs(c.id, c.comment, c.author.id, c.task.id, c.createAt) " +
+            "from Comment c where c.task.id in :taskIds order by c.id")
+    List<CommentRs> findCommentsRsByTaskIds(@Param("taskIds") Collection<Long> taskIds);
+
+    /**
+     * Counts the comments of several tasks and finds the highest id, reading only the task id index.
+     */
+    @Query("select new com.example.taskmanagementsystem.dto.comment.CommentStats(count(c), max(c.id)) " +
+            "from Comment c where c.task.id in :taskIds")
+    CommentStats findStatsByTaskIds(@Param("taskIds") Collection<Long> taskIds);
 
+    /**
+     * Checks that the task and the author of a new comment both exist, in one query reading only
+     * the primary key indexes, whatever the number of comments of the task.
+     */
+    @Query("select case when count(t) > 0 then true else false end from Task t " +
+            "where t.id = :taskId and exists (select u.id from User u where u.id = :authorId)")
+    boolean existsTaskAndAuthor(@Param("taskId") Long taskId, @Param("authorId") Long authorId);
 }
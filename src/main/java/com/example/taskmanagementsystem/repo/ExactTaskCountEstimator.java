@@ -0,0 +1,24 @@
+package com.example.taskmanagementsystem.repo;
+
+import com.example.taskmanagementsystem.dto.task.TaskFilter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+/**
+ * Estimator for the H2 {@code test} profile, which has no planner statistics: returns the exact count.
+ */
+@Component
+@Profile("test")
+@RequiredArgsConstructor
+public class ExactTaskCountEstimator implements TaskCountEstimator {
+
+    private final TaskRepository taskRepository;
+
+    @Override
+    public long estimate(TaskFilter filter) {
+        return filter == null
+                ? taskRepository.count()
+                : taskRepository.count(TaskSpecification.withFilter(filter));
+    }
+}
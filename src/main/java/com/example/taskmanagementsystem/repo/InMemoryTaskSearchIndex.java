@@ -0,0 +1,174 @@
+package com.example.taskmanagementsystem.repo;
+
+import com.example.taskmanagementsystem.entity.Task;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import lombok.RequiredArgsConstructor;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory trigram inverted index used with the H2 {@code test} profile, where {@code pg_trgm} is not available.
+ * <p>
+ * Postings only ever grow on create/update, so the index holds a superset of the matching ids; the
+ * LIKE predicate is still applied to the narrowed id set, which keeps results exact even when an
+ * indexed change is rolled back. The index is built from the table on first use.
+ */
+@Component
+@Profile("test")
+@RequiredArgsConstructor
+public class InMemoryTaskSearchIndex implements TaskSearchIndex {
+
+    private static final int GRAM_LENGTH = 3;
+
+    private final TaskRepository taskRepository;
+
+    private final Postings titles = new Postings();
+    private final Postings descriptions = new Postings();
+    private volatile boolean loaded;
+
+    @Override
+    public @NotNull Specification<Task> search(String title, String description) {
+        return (root, query, criteriaBuilder) -> {
+            List<Predicate> predicates = new ArrayList<>(3);
+            Set<Long> candidates = null;
+
+            if (StringUtils.hasLength(title)) {
+                predicates.add(contains(criteriaBuilder, root, "title", title));
+                candidates = intersect(candidates, titles.candidates(title));
+            }
+            if (StringUtils.hasLength(description)) {
+                predicates.add(contains(criteriaBuilder, root, "description", description));
+                candidates = intersect(candidates, descriptions.candidates(description));
+            }
+            if (predicates.isEmpty()) {
+                return null;
+            }
+            if (candidates != null) {
+                if (candidates.isEmpty()) {
+                    return criteriaBuilder.disjunction();
+                }
+                predicates.add(root.get("id").in(candidates));
+            }
+            return criteriaBuilder.and(predicates.toArray(Predicate[]::new));
+        };
+    }
+
+    @Override
+    public void index(@NotNull Task task) {
+        if (task.getId() == null) {
+            return;
+        }
+        titles.add(task.getId(), task.getTitle());
+        descriptions.add(task.getId(), task.getDescription());
+    }
+
+    @Override
+    public void remove(@NotNull Long taskId) {
+        titles.remove(taskId);
+        descriptions.remove(taskId);
+    }
+
+    private static Predicate contains(CriteriaBuilder criteriaBuilder, Root<Task> root, String attribute, String text) {
+        return criteriaBuilder.like(criteriaBuilder.lower(root.get(attribute)), TaskSearchIndex.containsPattern(text), '\\');
+    }
+
+    /**
+     * Returns the intersection of two candidate sets, where {@code null} means "not narrowed".
+     */
+    private static Set<Long> intersect(Set<Long> current, Set<Long> next) {
+        if (current == null) {
+            return next;
+        }
+        if (next == null) {
+            return current;
+        }
+        Set<Long> result = new HashSet<>(current);
+        result.retainAll(next);
+        return result;
+    }
+
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        synchronized (this) {
+            if (!loaded) {
+                taskRepository.findAll().forEach(this::index);
+                loaded = true;
+            }
+        }
+    }
+
+    static @NotNull Set<String> grams(String text) {
+        if (text == null || text.length() < GRAM_LENGTH) {
+            return Set.of();
+        }
+        String normalized = text.toLowerCase();
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM_LENGTH <= normalized.length(); i++) {
+            grams.add(normalized.substring(i, i + GRAM_LENGTH));
+        }
+        return grams;
+    }
+
+    private final class Postings {
+
+        private final Map<String, Set<Long>> idsByGram = new ConcurrentHashMap<>();
+        private final Map<Long, Set<String>> gramsById = new ConcurrentHashMap<>();
+
+        void add(Long id, String text) {
+            Set<String> grams = grams(text);
+            if (grams.isEmpty()) {
+                return;
+            }
+            gramsById.computeIfAbsent(id, key -> ConcurrentHashMap.newKeySet()).addAll(grams);
+            grams.forEach(gram -> idsByGram.computeIfAbsent(gram, key -> ConcurrentHashMap.newKeySet()).add(id));
+        }
+
+        void remove(Long id) {
+            Set<String> grams = gramsById.remove(id);
+            if (grams != null) {
+                grams.forEach(gram -> {
+                    Set<Long> ids = idsByGram.get(gram);
+                    if (ids != null) {
+                        ids.remove(id);
+                    }
+                });
+            }
+        }
+
+        /**
+         * Ids whose text contains every trigram of {@code text}, or {@code null} when the text is
+         * shorter than a trigram and cannot be narrowed by the index.
+         */
+        Set<Long> candidates(String text) {
+            Set<String> grams = grams(text);
+            if (grams.isEmpty()) {
+                return null;
+            }
+            ensureLoaded();
+            List<Set<Long>> postings = new ArrayList<>(grams.size());
+            for (String gram : grams) {
+                Set<Long> ids = idsByGram.get(gram);
+                if (ids == null || ids.isEmpty()) {
+                    return Set.of();
+                }
+                postings.add(ids);
+            }
+            postings.sort(Comparator.comparingInt(Set::size));
+            Set<Long> result = new HashSet<>(postings.get(0));
+            for (int i = 1; i < postings.size() && !result.isEmpty(); i++) {
+                result.retainAll(postings.get(i));
+            }
+            return result;
+        }
+    }
+}
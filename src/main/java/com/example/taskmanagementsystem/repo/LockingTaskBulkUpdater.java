@@ -0,0 +1,29 @@
+package com.example.taskmanagementsystem.repo;
+
+import com.example.taskmanagementsystem.dto.task.TaskFilter;
+import com.example.taskmanagementsystem.entity.Priority;
+import com.example.taskmanagementsystem.entity.Status;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Bulk update for the H2 {@code test} profile, which has no {@code UPDATE ... RETURNING}: locks the matching tasks
+ * with a separate {@code SELECT ... FOR UPDATE}, then updates them (see
+ * {@link TaskBulkUpdateRepository#updateAll}).
+ */
+@Component
+@Profile("test")
+@RequiredArgsConstructor
+public class LockingTaskBulkUpdater implements TaskBulkUpdater {
+
+    private final TaskRepository taskRepository;
+
+    @Override
+    public List<Long> updateAll(TaskFilter filter, Collection<Long> ids, Status status, Priority priority) {
+        return taskRepository.updateAll(TaskSpecification.withFilter(filter), ids, status, priority);
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.taskmanagementsystem.repo;
+
+import com.example.taskmanagementsystem.entity.OutboxEvent;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * Locks the oldest events until the end of the transaction, skipping the ones locked by another relay
+     * ({@code FOR UPDATE SKIP LOCKED}), so concurrent relays never wait for or publish the same event.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    // -2 is LockOptions.SKIP_LOCKED
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    List<OutboxEvent> findByOrderByIdAsc(Limit limit);
+}
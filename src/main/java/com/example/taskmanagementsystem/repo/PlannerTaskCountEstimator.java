@@ -0,0 +1,56 @@
+package com.example.taskmanagementsystem.repo;
+
+import com.example.taskmanagementsystem.dto.task.TaskFilter;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.StringJoiner;
+
+/**
+ * PostgreSQL estimator reading planner statistics.
+ * <p>
+ * An unfiltered estimate is {@code pg_class.reltuples} of the tasks table. A filtered estimate is the
+ * top-level {@code Plan Rows} of {@code EXPLAIN} for the same predicates as
+ * {@link TaskSpecification#withFilter(TaskFilter)}; the query is planned but never executed.
+ */
+@Component
+@Profile("!test")
+@RequiredArgsConstructor
+public class PlannerTaskCountEstimator implements TaskCountEstimator {
+
+    private static final String RELTUPLES_SQL = "SELECT reltuples::bigint FROM pg_class WHERE oid = to_regclass('tasks')";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public long estimate(TaskFilter filter) {
+        StringJoiner where = new StringJoiner(" AND ", " WHERE ", "").setEmptyValue("");
+        List<Object> args = new ArrayList<>();
+        TaskFilterConditions.add(where, args, filter);
+
+        if (args.isEmpty()) {
+            Long reltuples = jdbcTemplate.queryForObject(RELTUPLES_SQL, Long.class);
+            // -1 means the table has never been vacuumed or analyzed
+            if (reltuples != null && reltuples >= 0) {
+                return reltuples;
+            }
+        }
+        return explainRows("SELECT 1 FROM tasks" + where, args.toArray());
+    }
+
+    private long explainRows(String sql, Object[] args) {
+        String plan = jdbcTemplate.queryForObject("EXPLAIN (FORMAT JSON) " + sql, String.class, args);
+        try {
+            return objectMapper.readTree(plan).path(0).path("Plan").path("Plan Rows").asLong();
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Unreadable query plan", ex);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.taskmanagementsystem.repo;
+
+import com.example.taskmanagementsystem.dto.task.TaskFilter;
+import com.example.taskmanagementsystem.entity.Priority;
+import com.example.taskmanagementsystem.entity.Status;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.StringJoiner;
+
+/**
+ * PostgreSQL bulk update in one round trip per chunk: the matching rows are locked in id order by a
+ * {@code SELECT ... FOR NO KEY UPDATE} in a CTE, and the UPDATE of those rows returns their ids. Under READ COMMITTED
+ * the locking read rechecks the filter on rows changed by a concurrent transaction, so those are skipped.
+ */
+@Component
+@Profile("!test")
+@RequiredArgsConstructor
+public class ReturningTaskBulkUpdater implements TaskBulkUpdater {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public List<Long> updateAll(TaskFilter filter, Collection<Long> ids, Status status, Priority priority) {
+        if (ids.isEmpty() || (status == null && priority == null)) {
+            return List.of();
+        }
+        List<Object> args = new ArrayList<>(ids.size() + 10);
+        StringJoiner set = new StringJoiner(", ");
+        if (status != null) {
+            set.add("status = ?");
+            args.add(status.name());
+        }
+        if (priority != null) {
+            set.add("priority = ?");
+            args.add(priority.name());
+        }
+        // Bumped like an entity update, so a client holding the old ETag gets 412 on its next PUT
+        set.add("version = t.version + 1");
+        set.add("updated_at = ?");
+        args.add(Timestamp.from(Instant.now()));
+
+        StringJoiner in = new StringJoiner(", ", "id IN (", ")");
+        ids.forEach(id -> in.add("?"));
+        StringJoiner where = new StringJoiner(" AND ", " WHERE ", "").add(in.toString());
+        List<Object> whereArgs = new ArrayList<>(ids);
+        TaskFilterConditions.add(where, whereArgs, filter);
+        // Bound in statement order: the CTE comes first
+        whereArgs.addAll(args);
+
+        String sql = "WITH locked AS (SELECT id FROM tasks" + where + " ORDER BY id FOR NO KEY UPDATE)"
+                + " UPDATE tasks t SET " + set + " FROM locked WHERE t.id = locked.id RETURNING t.id";
+        List<Long> updatedIds = new ArrayList<>(jdbcTemplate.queryForList(sql, Long.class, whereArgs.toArray()));
+        Collections.sort(updatedIds);
+        return updatedIds;
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.taskmanagementsystem.repo;
+
+import com.example.taskmanagementsystem.entity.Task;
+
+import java.util.List;
+
+public interface TaskBatchRepository {
+
+    /**
+     * Inserts new tasks with one JDBC batch, bypassing the persistence context.
+     * Ids are drawn from the task sequence and written back to the given tasks with the creation timestamps.
+     *
+     * @param tasks the tasks to insert, their author and assignee must already exist
+     * @return the generated ids in the order of the tasks
+     */
+    List<Long> insertAll(List<Task> tasks);
+}
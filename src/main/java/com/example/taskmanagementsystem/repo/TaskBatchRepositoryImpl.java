@@ -0,0 +1,78 @@
+package com.example.taskmanagementsystem.repo;
+
+import com.example.taskmanagementsystem.entity.Task;
+import com.example.taskmanagementsystem.entity.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class TaskBatchRepositoryImpl implements TaskBatchRepository {
+
+    private static final String INSERT_SQL = "INSERT INTO tasks (id, title, description, status, priority, author_id, assignee_id, created_at, updated_at, version) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, 0)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Long> insertAll(List<Task> tasks) {
+        if (tasks.isEmpty()) {
+            return List.of();
+        }
+        // Ids come from the same generator as persisted tasks, so a batch only goes to the sequence once per block
+        SharedSessionContractImplementor session = entityManager.unwrap(SharedSessionContractImplementor.class);
+        IdentifierGenerator idGenerator = (IdentifierGenerator) session.getFactory().getMappingMetamodel()
+                .getEntityDescriptor(Task.class).getGenerator();
+        Instant createdAt = Instant.now();
+        for (Task task : tasks) {
+            task.setId((Long) idGenerator.generate(session, task));
+            task.setCreatedAt(createdAt);
+            task.setUpdatedAt(createdAt);
+            task.setVersion(0L);
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                Task task = tasks.get(i);
+                ps.setLong(1, task.getId());
+                ps.setString(2, task.getTitle());
+                ps.setString(3, task.getDescription());
+                ps.setString(4, task.getStatus() == null ? null : task.getStatus().name());
+                ps.setString(5, task.getPriority() == null ? null : task.getPriority().name());
+                setUserId(ps, 6, task.getAuthor());
+                setUserId(ps, 7, task.getAssignee());
+                ps.setTimestamp(8, Timestamp.from(createdAt));
+                ps.setTimestamp(9, Timestamp.from(createdAt));
+            }
+
+            @Override
+            public int getBatchSize() {
+                return tasks.size();
+            }
+        });
+        return tasks.stream().map(Task::getId).toList();
+    }
+
+    private static void setUserId(PreparedStatement ps, int index, User user) throws SQLException {
+        if (user == null) {
+            ps.setNull(index, Types.BIGINT);
+        } else {
+            ps.setLong(index, user.getId());
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.taskmanagementsystem.repo;
+
+import com.example.taskmanagementsystem.entity.Priority;
+import com.example.taskmanagementsystem.entity.Status;
+import com.example.taskmanagementsystem.entity.Task;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface TaskBulkUpdateRepository {
+
+    /**
+     * Returns the ids of tasks matching the specification in ascending order, starting after the given id.
+     *
+     * @param spec    the specification to match, may be null
+     * @param afterId the last id of the previous chunk, null for the first chunk
+     * @param limit   the maximum number of ids
+     * @return the ids of the next chunk
+     */
+    List<Long> findIdsAfter(Specification<Task> spec, Long afterId, int limit);
+
+    /**
+     * Sets the status and priority of the given tasks with one UPDATE statement, bypassing the persistence context.
+     * The tasks still matching the specification are locked first ({@code SELECT ... FOR UPDATE}), so tasks that
+     * stopped matching since their ids were read are skipped and the locked ones are exactly the updated ones.
+     * This costs a second round trip per call, PostgreSQL does both in one statement ({@link ReturningTaskBulkUpdater}).
+     *
+     * @param spec     the specification to match, may be null
+     * @param ids      the task ids
+     * @param status   the new status, unchanged when null
+     * @param priority the new priority, unchanged when null
+     * @return the ids of the updated tasks in ascending order
+     */
+    List<Long> updateAll(Specification<Task> spec, Collection<Long> ids, Status status, Priority priority);
+}
@@ -0,0 +1,99 @@
+package com.example.taskmanagementsystem.repo;
+
+import com.example.taskmanagementsystem.entity.Priority;
+import com.example.taskmanagementsystem.entity.Status;
+import com.example.taskmanagementsystem.entity.Task;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+public class TaskBulkUpdateRepositoryImpl implements TaskBulkUpdateRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Long> findIdsAfter(Specification<Task> spec, Long afterId, int limit) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = criteriaBuilder.createQuery(Long.class);
+        Root<Task> root = query.from(Task.class);
+        query.select(root.get("id"));
+
+        List<Predicate> predicates = new ArrayList<>();
+        if (spec != null) {
+            Predicate predicate = spec.toPredicate(root, query, criteriaBuilder);
+            if (predicate != null) {
+                predicates.add(predicate);
+            }
+        }
+        if (afterId != null) {
+            predicates.add(criteriaBuilder.greaterThan(root.get("id"), afterId));
+        }
+        query.where(predicates.toArray(Predicate[]::new));
+        query.orderBy(criteriaBuilder.asc(root.get("id")));
+
+        return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+    }
+
+    @Override
+    public List<Long> updateAll(Specification<Task> spec, Collection<Long> ids, Status status, Priority priority) {
+        if (ids.isEmpty() || (status == null && priority == null)) {
+            return List.of();
+        }
+        List<Long> lockedIds = lockMatching(spec, ids);
+        if (lockedIds.isEmpty()) {
+            return lockedIds;
+        }
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<Task> update = criteriaBuilder.createCriteriaUpdate(Task.class);
+        Root<Task> root = update.from(Task.class);
+        if (status != null) {
+            update.set(root.<Status>get("status"), status);
+        }
+        if (priority != null) {
+            update.set(root.<Priority>get("priority"), priority);
+        }
+        // Bumped like an entity update, so a client holding the old ETag gets 412 on its next PUT
+        update.set(root.<Long>get("version"), criteriaBuilder.sum(root.<Long>get("version"), 1L));
+        update.set(root.<Instant>get("updatedAt"), Instant.now());
+        update.where(root.get("id").in(lockedIds));
+
+        entityManager.createQuery(update).executeUpdate();
+        return lockedIds;
+    }
+
+    /**
+     * Reads the given tasks that match the specification and locks them until the end of the transaction, in id
+     * order so that concurrent bulk updates wait for each other instead of deadlocking.
+     */
+    private List<Long> lockMatching(Specification<Task> spec, Collection<Long> ids) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = criteriaBuilder.createQuery(Long.class);
+        Root<Task> root = query.from(Task.class);
+        query.select(root.get("id"));
+
+        List<Predicate> predicates = new ArrayList<>();
+        predicates.add(root.get("id").in(ids));
+        if (spec != null) {
+            Predicate predicate = spec.toPredicate(root, query, criteriaBuilder);
+            if (predicate != null) {
+                predicates.add(predicate);
+            }
+        }
+        query.where(predicates.toArray(Predicate[]::new));
+        query.orderBy(criteriaBuilder.asc(root.get("id")));
+
+        return entityManager.createQuery(query).setLockMode(LockModeType.PESSIMISTIC_WRITE).getResultList();
+    }
+}
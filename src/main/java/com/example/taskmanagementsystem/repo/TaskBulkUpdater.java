@@ -0,0 +1,27 @@
+package com.example.taskmanagementsystem.repo;
+
+import com.example.taskmanagementsystem.dto.task.TaskFilter;
+import com.example.taskmanagementsystem.entity.Priority;
+import com.example.taskmanagementsystem.entity.Status;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Sets the status and priority of a chunk of tasks in bulk, bypassing the persistence context.
+ */
+public interface TaskBulkUpdater {
+
+    /**
+     * Updates the given tasks that still match the filter, bumping their version and update time. Matching tasks
+     * are locked in id order, so concurrent bulk updates wait for each other instead of deadlocking, and tasks that
+     * stopped matching since their ids were read are skipped.
+     *
+     * @param filter   the filter the tasks must still match
+     * @param ids      the task ids
+     * @param status   the new status, unchanged when null
+     * @param priority the new priority, unchanged when null
+     * @return the ids of the updated tasks in ascending order
+     */
+    List<Long> updateAll(TaskFilter filter, Collection<Long> ids, Status status, Priority priority);
+}
@@ -0,0 +1,15 @@
+package com.example.taskmanagementsystem.repo;
+
+import com.example.taskmanagementsystem.dto.task.TaskFilter;
+
+/**
+ * Approximates the number of tasks matching a filter without running {@code SELECT COUNT(*)}.
+ */
+public interface TaskCountEstimator {
+
+    /**
+     * @param filter the filter to estimate, or null for all tasks
+     * @return the approximate number of matching tasks
+     */
+    long estimate(TaskFilter filter);
+}
@@ -0,0 +1,21 @@
+package com.example.taskmanagementsystem.repo;
+
+import com.example.taskmanagementsystem.dto.task.TaskRs;
+import com.example.taskmanagementsystem.entity.Task;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.stream.Stream;
+
+public interface TaskExportRepository {
+
+    /**
+     * Streams the tasks matching the specification from a forward-only cursor, newest first.
+     * Rows are projected straight into DTOs without comments, so no entity enters the persistence context
+     * however many rows are read. The stream must be consumed and closed inside a transaction.
+     *
+     * @param spec      the specification to match, may be null
+     * @param fetchSize the number of rows the driver fetches per round trip
+     * @return the stream of tasks
+     */
+    Stream<TaskRs> streamTaskRs(Specification<Task> spec, int fetchSize);
+}
@@ -0,0 +1,62 @@
+package com.example.taskmanagementsystem.repo;
+
+import com.example.taskmanagementsystem.dto.task.TaskCursor;
+import com.example.taskmanagementsystem.dto.task.TaskRs;
+import com.example.taskmanagementsystem.entity.Priority;
+import com.example.taskmanagementsystem.entity.Status;
+import com.example.taskmanagementsystem.entity.Task;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.Instant;
+import java.util.stream.Stream;
+
+import static org.springframework.data.jpa.repository.query.QueryUtils.toOrders;
+
+public class TaskExportRepositoryImpl implements TaskExportRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Stream<TaskRs> streamTaskRs(Specification<Task> spec, int fetchSize) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = criteriaBuilder.createTupleQuery();
+        Root<Task> root = query.from(Task.class);
+        query.multiselect(root.get("id"), root.get("title"), root.get("description"), root.get("status"),
+                root.get("priority"), root.get("author").get("id"), root.get("assignee").get("id"), root.get("createdAt"),
+                root.get("updatedAt"), root.get("version"));
+
+        if (spec != null) {
+            Predicate predicate = spec.toPredicate(root, query, criteriaBuilder);
+            if (predicate != null) {
+                query.where(predicate);
+            }
+        }
+        query.orderBy(toOrders(TaskCursor.SORT, root, criteriaBuilder));
+
+        return entityManager.createQuery(query)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream()
+                .map(tuple -> new TaskRs(
+                        tuple.get(0, Long.class),
+                        tuple.get(1, String.class),
+                        tuple.get(2, String.class),
+                        tuple.get(3, Status.class),
+                        tuple.get(4, Priority.class),
+                        tuple.get(5, Long.class),
+                        tuple.get(6, Long.class),
+                        tuple.get(7, Instant.class),
+                        tuple.get(8, Instant.class),
+                        tuple.get(9, Long.class),
+                        null));
+    }
+}
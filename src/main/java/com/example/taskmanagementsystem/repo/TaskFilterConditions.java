@@ -0,0 +1,43 @@
+package com.example.taskmanagementsystem.repo;
+
+import com.example.taskmanagementsystem.dto.task.TaskFilter;
+
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.StringJoiner;
+
+/**
+ * SQL conditions on the {@code tasks} table for the same predicates as {@link TaskSpecification#withFilter(TaskFilter)},
+ * for native statements that cannot take a specification.
+ */
+final class TaskFilterConditions {
+
+    private TaskFilterConditions() {
+    }
+
+    /**
+     * Adds a condition with a {@code ?} placeholder to {@code where} and its value to {@code args} for every field
+     * set in the filter.
+     *
+     * @param filter the filter, may be null
+     */
+    static void add(StringJoiner where, List<Object> args, TaskFilter filter) {
+        if (filter == null) {
+            return;
+        }
+        add(where, args, "title = ?", filter.getTitle());
+        add(where, args, "description = ?", filter.getDescription());
+        add(where, args, "status = ?", filter.getStatus() == null ? null : filter.getStatus().name());
+        add(where, args, "priority = ?", filter.getPriority() == null ? null : filter.getPriority().name());
+        add(where, args, "author_id = ?", filter.getAuthorId());
+        add(where, args, "assignee_id = ?", filter.getAssigneeId());
+        add(where, args, "created_at <= ?", filter.getCreatedAt() == null ? null : Timestamp.from(filter.getCreatedAt()));
+    }
+
+    private static void add(StringJoiner where, List<Object> args, String condition, Object value) {
+        if (value != null) {
+            where.add(condition);
+            args.add(value);
+        }
+    }
+}
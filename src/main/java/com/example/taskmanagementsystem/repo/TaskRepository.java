@@ -1,11 +1,23 @@
 package com.example.taskmanagementsystem.repo;
 
 
+import com.example.taskmanagementsystem.dto.task.TaskVersion;
 import com.example.taskmanagementsystem.entity.Task;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Optional;
+
 @Repository
-public interface TaskRepository extends JpaRepository<Task, Long>, JpaSpecificationExecutor<Task> {
+public interface TaskRepository extends JpaRepository<Task, Long>, JpaSpecificationExecutor<Task>, TaskSliceRepository,
+        TaskBatchRepository, TaskExportRepository, TaskBulkUpdateRepository {
+
+    /**
+     * Reads the version and update time of a task by primary key, without hydrating it.
+     */
+    @Query("select new com.example.taskmanagementsystem.dto.task.TaskVersion(t.version, t.updatedAt) from Task t where t.id = :id")
+    Optional<TaskVersion> findVersionById(@Param("id") Long id);
 }
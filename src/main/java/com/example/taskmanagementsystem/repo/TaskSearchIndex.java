@@ -0,0 +1,53 @@
+package com.example.taskmanagementsystem.repo;
+
+import com.example.taskmanagementsystem.entity.Task;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Substring search over task title and description.
+ * <p>
+ * Implementations narrow the candidate rows with an index instead of scanning the whole table
+ * with {@code lower(column) LIKE '%text%'}. Matches keep the case-insensitive substring semantics
+ * of the search endpoint.
+ */
+public interface TaskSearchIndex {
+
+    /**
+     * Builds a specification matching tasks whose title contains {@code title} and whose description
+     * contains {@code description}. Blank arguments are ignored. When the query is not sorted explicitly
+     * the results may be ordered by relevance.
+     *
+     * @param title       text to look for in the title, may be null
+     * @param description text to look for in the description, may be null
+     * @return the search specification
+     */
+    @NotNull Specification<Task> search(String title, String description);
+
+    /**
+     * Called after a task has been created or changed.
+     *
+     * @param task the saved task
+     */
+    default void index(@NotNull Task task) {
+    }
+
+    /**
+     * Called after a task has been deleted.
+     *
+     * @param taskId the id of the deleted task
+     */
+    default void remove(@NotNull Long taskId) {
+    }
+
+    /**
+     * Escapes LIKE wildcards and wraps the lower-cased text into a substring pattern.
+     */
+    static @NotNull String containsPattern(@NotNull String text) {
+        String escaped = text.toLowerCase()
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+        return "%" + escaped + "%";
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.taskmanagementsystem.repo;
+
+import com.example.taskmanagementsystem.entity.Task;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+
+public interface TaskSliceRepository {
+
+    /**
+     * Returns one page of tasks matching the specification without issuing a count query.
+     * Reads {@code size + 1} rows to tell whether a next page exists.
+     *
+     * @param spec     the specification to match, may be null
+     * @param pageable the page to read
+     * @return the slice of tasks
+     */
+    Slice<Task> findSlice(Specification<Task> spec, Pageable pageable);
+}
@@ -1,6 +1,7 @@
 package com.example.taskmanagementsystem.repo;
 
 
+import com.example.taskmanagementsystem.dto.task.TaskCursor;
 import com.example.taskmanagementsystem.dto.task.TaskFilter;
 import com.example.taskmanagementsystem.entity.Priority;
 import com.example.taskmanagementsystem.entity.Status;
@@ -50,6 +51,25 @@ public interface TaskSpecification {
         };
     }
 
+    /**
+     * Keyset predicate {@code (created_at, id) < (cursor.createdAt, cursor.id)} for {@link TaskCursor#SORT}.
+     * The leading {@code created_at <= ?} conjunct gives the planner a plain range condition to seek on.
+     */
+    static @NotNull Specification<Task> afterCursor(TaskCursor cursor) {
+        return (root, query, criteriaBuilder) -> {
+            if (cursor == null) {
+                return null;
+            }
+            return criteriaBuilder.and(
+                    criteriaBuilder.lessThanOrEqualTo(root.get("createdAt"), cursor.createdAt()),
+                    criteriaBuilder.or(
+                            criteriaBuilder.lessThan(root.get("createdAt"), cursor.createdAt()),
+                            criteriaBuilder.and(
+                                    criteriaBuilder.equal(root.get("createdAt"), cursor.createdAt()),
+                                    criteriaBuilder.lessThan(root.get("id"), cursor.id()))));
+        };
+    }
+
     static @NotNull Specification<Task> byTitle(String title) {
         return (root, query, cb) -> {
             if (title == null){
@@ -14,16 +14,6 @@ public class TaskSpecs {
                 criteriaBuilder.equal(root.get("id"),providedId);
         }
 
-    public static Specification<Task> containsTitle(String providedTitle){
-        return (root, query, criteriaBuilder) ->
-                criteriaBuilder.like(criteriaBuilder.lower(root.get("title")), "%" + providedTitle.toLowerCase() + "%");
-    }
-
-    public static Specification<Task> containsDescription(String providedDescription){
-        return (root, query, criteriaBuilder) ->
-                criteriaBuilder.like(criteriaBuilder.lower(root.get("description")), "%" + providedDescription.toLowerCase() + "%");
-    }
-
     public static Specification<Task> hasStatus(Status providedStatus){
         return (root, query, criteriaBuilder) ->
                 criteriaBuilder.equal(root.get("status"), providedStatus);
@@ -0,0 +1,60 @@
+package com.example.taskmanagementsystem.repo;
+
+import com.example.taskmanagementsystem.entity.Task;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * PostgreSQL search backed by the {@code pg_trgm} GIN indexes on {@code lower(title)} and
+ * {@code lower(description)} (see changelog {@code v.1.1.0}). The LIKE predicates are answered
+ * from the trigram index, and results are ranked by trigram {@code similarity} to the search text.
+ */
+@Component
+@Profile("!test")
+public class TrigramTaskSearchIndex implements TaskSearchIndex {
+
+    @Override
+    public @NotNull Specification<Task> search(String title, String description) {
+        return (root, query, criteriaBuilder) -> {
+            List<Predicate> predicates = new ArrayList<>(2);
+            Expression<Double> rank = null;
+
+            if (StringUtils.hasLength(title)) {
+                predicates.add(contains(criteriaBuilder, root, "title", title));
+                rank = similarity(criteriaBuilder, root, "title", title);
+            }
+            if (StringUtils.hasLength(description)) {
+                predicates.add(contains(criteriaBuilder, root, "description", description));
+                Expression<Double> descriptionRank = similarity(criteriaBuilder, root, "description", description);
+                rank = rank == null ? descriptionRank : criteriaBuilder.sum(rank, descriptionRank);
+            }
+            if (predicates.isEmpty()) {
+                return null;
+            }
+            // Count queries share this specification and must stay unordered.
+            if (rank != null && query != null && !Long.class.equals(query.getResultType())) {
+                query.orderBy(criteriaBuilder.desc(rank), criteriaBuilder.desc(root.get("id")));
+            }
+            return criteriaBuilder.and(predicates.toArray(Predicate[]::new));
+        };
+    }
+
+    private static Predicate contains(CriteriaBuilder criteriaBuilder, Root<Task> root, String attribute, String text) {
+        return criteriaBuilder.like(criteriaBuilder.lower(root.get(attribute)), TaskSearchIndex.containsPattern(text), '\\');
+    }
+
+    private static Expression<Double> similarity(CriteriaBuilder criteriaBuilder, Root<Task> root, String attribute, String text) {
+        return criteriaBuilder.function("similarity", Double.class,
+                criteriaBuilder.lower(root.get(attribute)), criteriaBuilder.literal(text.toLowerCase()));
+    }
+}
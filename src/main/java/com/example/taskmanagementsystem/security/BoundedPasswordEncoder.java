@@ -0,0 +1,90 @@
+package com.example.taskmanagementsystem.security;
+
+import com.example.taskmanagementsystem.exception.AuthenticationThrottledException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.security.authentication.AuthenticationServiceException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.time.Duration;
+import java.util.concurrent.*;
+import java.util.function.Supplier;
+
+/**
+ * Runs the hashing of a {@link PasswordEncoder} on a dedicated, fixed-size pool instead of the calling
+ * request thread.
+ * <p>
+ * BCrypt burns a core for hundreds of milliseconds per check, so a login storm used to occupy every Tomcat
+ * worker. Here at most {@code threads} checks run at once and at most {@code queueCapacity} wait; any further
+ * check is refused with {@link AuthenticationThrottledException} (429) without hashing. Callers still wait for
+ * their own result, but the CPU left to the rest of the API is bounded.
+ * <p>
+ * The pool is published as the {@code executor.*} meters tagged {@code name=password.encoder}, refusals as
+ * {@code password.encoder.rejected}.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder, AutoCloseable {
+
+    static final Duration RETRY_AFTER = Duration.ofSeconds(1);
+
+    private final PasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+    private final Counter rejected;
+
+    public BoundedPasswordEncoder(@NotNull PasswordEncoder delegate, @NotNull MeterRegistry meterRegistry,
+                                  int threads, int queueCapacity) {
+        this.delegate = delegate;
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("password-encoder-"),
+                new ThreadPoolExecutor.AbortPolicy());
+        new ExecutorServiceMetrics(executor, "password.encoder", Tags.empty()).bindTo(meterRegistry);
+        this.rejected = Counter.builder("password.encoder.rejected")
+                .description("Password checks refused because the encoder queue was full")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return call(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return call(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+
+    private <T> T call(Supplier<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(task::get);
+        } catch (RejectedExecutionException ex) {
+            rejected.increment();
+            throw new AuthenticationThrottledException("Too many password checks in progress", RETRY_AFTER);
+        }
+        try {
+            return future.get();
+        } catch (InterruptedException ex) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new AuthenticationServiceException("Password check interrupted", ex);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new AuthenticationServiceException("Password check failed", ex.getCause());
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.taskmanagementsystem.security;
+
+import org.jetbrains.annotations.NotNull;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * {@link DaoAuthenticationProvider} for username and password logins, HTTP Basic included, backed by
+ * {@link UserAuthenticationCache}.
+ * <p>
+ * Credentials verified within the time to live are accepted without a query or a password check; the account
+ * status checks still run on the cached user. Otherwise the user is read from the cache or the database and
+ * the password is checked as usual. When a password does not match a cached user, the user is read again, and
+ * the password is checked once more only if the stored hash changed on another node and the eviction was lost.
+ */
+public class CachingDaoAuthenticationProvider extends DaoAuthenticationProvider {
+
+    private final UserDetailsService userDetailsService;
+    private final UserAuthenticationCache userAuthenticationCache;
+
+    public CachingDaoAuthenticationProvider(@NotNull PasswordEncoder passwordEncoder,
+                                            @NotNull UserDetailsService userDetailsService,
+                                            @NotNull UserDetailsPasswordService userDetailsPasswordService,
+                                            @NotNull UserAuthenticationCache userAuthenticationCache) {
+        super(passwordEncoder);
+        this.userDetailsService = userDetailsService;
+        this.userAuthenticationCache = userAuthenticationCache;
+        setUserDetailsService(this::loadUser);
+        setUserDetailsPasswordService(userDetailsPasswordService);
+    }
+
+    @Override
+    public Authentication authenticate(Authentication authentication) throws AuthenticationException {
+        if (!(authentication.getCredentials() instanceof String password)) {
+            return super.authenticate(authentication);
+        }
+        String username = authentication.getName();
+        UserDetails verified = userAuthenticationCache.getVerified(username, password);
+        if (verified != null) {
+            getPreAuthenticationChecks().check(verified);
+            getPostAuthenticationChecks().check(verified);
+            return createSuccessAuthentication(verified, authentication, verified);
+        }
+        long seenInvalidations = userAuthenticationCache.invalidations();
+        UserDetails cached = userAuthenticationCache.getUserFromCache(username);
+        Authentication result;
+        try {
+            result = super.authenticate(authentication);
+        } catch (BadCredentialsException ex) {
+            if (cached == null) {
+                throw ex;
+            }
+            if (!isStale(cached)) {
+                throw ex;
+            }
+            result = super.authenticate(authentication);
+        }
+        userAuthenticationCache.putVerified(username, password, (UserDetails) result.getPrincipal(), seenInvalidations);
+        return result;
+    }
+
+    private boolean isStale(UserDetails cached) {
+        userAuthenticationCache.removeUserFromCache(cached.getUsername());
+        try {
+            return !cached.getPassword().equals(loadUser(cached.getUsername()).getPassword());
+        } catch (UsernameNotFoundException ex) {
+            return false;
+        }
+    }
+
+    private UserDetails loadUser(String username) {
+        UserDetails user = userAuthenticationCache.getUserFromCache(username);
+        if (user == null) {
+            long seenInvalidations = userAuthenticationCache.invalidations();
+            user = userDetailsService.loadUserByUsername(username);
+            userAuthenticationCache.putUserInCache(user, seenInvalidations);
+        }
+        return user;
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.taskmanagementsystem.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * {@link JwtDecoder} that remembers tokens the delegate has already verified, so a client reusing its token
+ * pays for the signature check once instead of on every request.
+ * <p>
+ * Entries are keyed by the SHA-256 digest of the encoded token and live in a bounded in-heap cache until the
+ * {@code exp} of the token; tokens without an expiry are never cached. A hit is only served if the cached
+ * token value equals the decoded one, so a digest collision falls back to the delegate. Rejected tokens are
+ * not cached. Revocation is not this decoder's concern, it is checked per request by {@link JwtInterceptor}.
+ * <p>
+ * Lookups are published as the {@code cache.gets} meter tagged {@code cache=jwt}.
+ */
+public class CachingJwtDecoder implements JwtDecoder {
+
+    private static final Duration MAX_EXPIRY = Duration.ofDays(365);
+
+    private final JwtDecoder delegate;
+    private final Clock clock;
+    private final Cache<String, Jwt> cache;
+
+    public CachingJwtDecoder(@NotNull JwtDecoder delegate, @NotNull MeterRegistry meterRegistry, long maxSize) {
+        this(delegate, meterRegistry, maxSize, Clock.systemUTC());
+    }
+
+    CachingJwtDecoder(@NotNull JwtDecoder delegate, @NotNull MeterRegistry meterRegistry, long maxSize,
+                      @NotNull Clock clock) {
+        this.delegate = delegate;
+        this.clock = clock;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new UntilExpiresAt())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "jwt");
+    }
+
+    @Override
+    public Jwt decode(String token) throws JwtException {
+        String key = digest(token);
+        Jwt jwt = cache.getIfPresent(key);
+        if (jwt != null && jwt.getTokenValue().equals(token) && isUnexpired(jwt)) {
+            return jwt;
+        }
+        jwt = delegate.decode(token);
+        if (isUnexpired(jwt)) {
+            cache.put(key, jwt);
+        }
+        return jwt;
+    }
+
+    private boolean isUnexpired(Jwt jwt) {
+        Instant expiresAt = jwt.getExpiresAt();
+        return expiresAt != null && expiresAt.isAfter(clock.instant());
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not supported", ex);
+        }
+    }
+
+    private class UntilExpiresAt implements Expiry<String, Jwt> {
+
+        @Override
+        public long expireAfterCreate(@NotNull String key, @NotNull Jwt jwt, long currentTime) {
+            Duration remaining = Duration.between(clock.instant(), jwt.getExpiresAt());
+            if (remaining.isNegative()) {
+                return 0;
+            }
+            return remaining.compareTo(MAX_EXPIRY) > 0 ? MAX_EXPIRY.toNanos() : remaining.toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(@NotNull String key, @NotNull Jwt jwt, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, jwt, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(@NotNull String key, @NotNull Jwt jwt, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
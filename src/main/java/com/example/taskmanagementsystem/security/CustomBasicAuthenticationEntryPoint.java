@@ -1,6 +1,6 @@
 package com.example.taskmanagementsystem.security;
 
-
+import com.example.taskmanagementsystem.exception.AuthenticationThrottledException;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
@@ -23,7 +23,9 @@ public class CustomBasicAuthenticationEntryPoint implements AuthenticationEntryP
 
     @Override
     public void commence(HttpServletRequest request, HttpServletResponse response, AuthenticationException authException) throws IOException, ServletException {
-        response.addHeader("WWW-Authenticate", "Basic realm=\"Realm\"");
+        if (!(authException instanceof AuthenticationThrottledException)) {
+            response.addHeader("WWW-Authenticate", "Basic realm=\"Realm\"");
+        }
         resolver.resolveException(request, response, null, authException);
     }
 }
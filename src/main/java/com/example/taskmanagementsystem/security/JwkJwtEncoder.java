@@ -0,0 +1,67 @@
+package com.example.taskmanagementsystem.security;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.JWSSigner;
+import com.nimbusds.jose.crypto.factories.DefaultJWSSignerFactory;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.security.oauth2.jwt.*;
+
+import java.net.URL;
+import java.time.Instant;
+import java.util.Date;
+import java.util.Map;
+
+/**
+ * Signs tokens with a single private {@link JWK} using its {@link JwtSigningAlgorithm}.
+ * <p>
+ * {@code NimbusJwtEncoder} only selects RSA, EC and HMAC keys, so it cannot sign with Ed25519. This encoder
+ * produces the same tokens for RS256 and ES256: the header carries {@code alg} and the {@code kid} of the key.
+ * A {@link JwsHeader} in the parameters is only checked against the algorithm of the key.
+ */
+public class JwkJwtEncoder implements JwtEncoder {
+
+    private final JwtSigningAlgorithm algorithm;
+    private final JWSHeader header;
+    private final JWSSigner signer;
+
+    public JwkJwtEncoder(@NotNull JWK jwk, @NotNull JwtSigningAlgorithm algorithm) throws JOSEException {
+        this.algorithm = algorithm;
+        this.header = new JWSHeader.Builder(algorithm.getJwsAlgorithm()).keyID(jwk.getKeyID()).build();
+        this.signer = new DefaultJWSSignerFactory().createJWSSigner(jwk, algorithm.getJwsAlgorithm());
+    }
+
+    @Override
+    public Jwt encode(JwtEncoderParameters parameters) throws JwtEncodingException {
+        JwsHeader jwsHeader = parameters.getJwsHeader();
+        if (jwsHeader != null && !algorithm.getName().equals(jwsHeader.getAlgorithm().getName())) {
+            throw new JwtEncodingException("Unsupported algorithm " + jwsHeader.getAlgorithm().getName());
+        }
+        JwtClaimsSet claims = parameters.getClaims();
+        SignedJWT signedJwt = new SignedJWT(header, convert(claims));
+        try {
+            signedJwt.sign(signer);
+        } catch (JOSEException ex) {
+            throw new JwtEncodingException("Failed to sign the JWT -> " + ex.getMessage(), ex);
+        }
+        return new Jwt(signedJwt.serialize(), claims.getIssuedAt(), claims.getExpiresAt(),
+                header.toJSONObject(), claims.getClaims());
+    }
+
+    private static JWTClaimsSet convert(JwtClaimsSet claims) {
+        JWTClaimsSet.Builder builder = new JWTClaimsSet.Builder();
+        for (Map.Entry<String, Object> claim : claims.getClaims().entrySet()) {
+            Object value = claim.getValue();
+            if (value instanceof Instant instant) {
+                value = Date.from(instant);
+            } else if (value instanceof URL url) {
+                value = url.toExternalForm();
+            }
+            builder.claim(claim.getKey(), value);
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.taskmanagementsystem.security;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSVerifier;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.proc.BadJOSEException;
+import com.nimbusds.jose.proc.BadJWSException;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.*;
+import com.nimbusds.jwt.proc.BadJWTException;
+import com.nimbusds.jwt.proc.JWTProcessor;
+import org.jetbrains.annotations.NotNull;
+
+import java.text.ParseException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Verifies signed tokens against the public keys of a {@link JWKSet}.
+ * <p>
+ * Nimbus' {@code DefaultJWTProcessor} resolves keys to {@code java.security} keys, which excludes Ed25519,
+ * so tokens are verified here with a verifier per key, created once. The key is picked by the {@code kid}
+ * header, or is the only key of the set when the header has none, and the {@code alg} header must be the
+ * algorithm of that key. Keys of different algorithms may be mixed, so the algorithm can change with a key
+ * rotation. Only the signature is checked, claims are validated by {@code NimbusJwtDecoder}.
+ */
+public class JwkSetJwtProcessor implements JWTProcessor<SecurityContext> {
+
+    private final Map<String, KeyVerifier> verifiers = new HashMap<>();
+    private final KeyVerifier singleVerifier;
+
+    private record KeyVerifier(JwtSigningAlgorithm algorithm, JWSVerifier verifier) {
+    }
+
+    public JwkSetJwtProcessor(@NotNull JWKSet jwkSet) throws JOSEException {
+        for (JWK jwk : jwkSet.getKeys()) {
+            JwtSigningAlgorithm algorithm = JwtSigningAlgorithm.of(jwk);
+            verifiers.put(jwk.getKeyID(), new KeyVerifier(algorithm, algorithm.verifier(jwk)));
+        }
+        this.singleVerifier = verifiers.size() == 1 ? verifiers.values().iterator().next() : null;
+    }
+
+    @Override
+    public JWTClaimsSet process(String token, SecurityContext context) throws ParseException, BadJOSEException, JOSEException {
+        return process(JWTParser.parse(token), context);
+    }
+
+    @Override
+    public JWTClaimsSet process(JWT jwt, SecurityContext context) throws BadJOSEException, JOSEException {
+        if (jwt instanceof SignedJWT signedJwt) {
+            return process(signedJwt, context);
+        }
+        if (jwt instanceof EncryptedJWT encryptedJwt) {
+            return process(encryptedJwt, context);
+        }
+        if (jwt instanceof PlainJWT plainJwt) {
+            return process(plainJwt, context);
+        }
+        throw new JOSEException("Unexpected JWT object type: " + jwt.getClass());
+    }
+
+    @Override
+    public JWTClaimsSet process(PlainJWT plainJwt, SecurityContext context) throws BadJOSEException {
+        throw new BadJOSEException("Unsecured (plain) JWTs are rejected");
+    }
+
+    @Override
+    public JWTClaimsSet process(SignedJWT signedJwt, SecurityContext context) throws BadJOSEException, JOSEException {
+        String keyId = signedJwt.getHeader().getKeyID();
+        KeyVerifier keyVerifier = keyId != null ? verifiers.get(keyId) : singleVerifier;
+        if (keyVerifier == null) {
+            throw new BadJOSEException("Signed JWT rejected: Another key expected");
+        }
+        if (!keyVerifier.algorithm().getJwsAlgorithm().equals(signedJwt.getHeader().getAlgorithm())) {
+            throw new BadJOSEException("Signed JWT rejected: Another algorithm expected");
+        }
+        if (!signedJwt.verify(keyVerifier.verifier())) {
+            throw new BadJWSException("Signed JWT rejected: Invalid signature");
+        }
+        try {
+            return signedJwt.getJWTClaimsSet();
+        } catch (ParseException ex) {
+            throw new BadJWTException(ex.getMessage(), ex);
+        }
+    }
+
+    @Override
+    public JWTClaimsSet process(EncryptedJWT encryptedJwt, SecurityContext context) throws BadJOSEException {
+        throw new BadJOSEException("Encrypted JWT rejected: No JWE key selector is configured");
+    }
+}
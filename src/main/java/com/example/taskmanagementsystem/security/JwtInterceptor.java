@@ -1,6 +1,6 @@
 package com.example.taskmanagementsystem.security;
 
-import com.example.taskmanagementsystem.client.rediscache.RedisCacheClient;
+import com.example.taskmanagementsystem.client.rediscache.TokenWhitelistCache;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
@@ -15,7 +15,7 @@ import org.springframework.web.servlet.HandlerInterceptor;
 @RequiredArgsConstructor
 public class JwtInterceptor implements HandlerInterceptor {
 
-    private final RedisCacheClient redisCacheClient;
+    private final TokenWhitelistCache tokenWhitelistCache;
 
     @Override
     public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
@@ -24,8 +24,9 @@ public class JwtInterceptor implements HandlerInterceptor {
             Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
             Jwt jwt = (Jwt)authentication.getPrincipal();
             String userId = jwt.getClaim("userId").toString();
+            String tokenId = jwt.getId();
 
-            if (!redisCacheClient.isUserTokenInWhiteList(userId, jwt.getTokenValue())) {
+            if (tokenId == null || !tokenWhitelistCache.isWhitelisted(userId, tokenId)) {
                 throw new BadCredentialsException("invalid token");
             }
         }
@@ -0,0 +1,152 @@
+package com.example.taskmanagementsystem.security;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.helpers.MessageFormatter;
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyStore;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.cert.Certificate;
+import java.security.interfaces.ECPublicKey;
+import java.security.interfaces.RSAPublicKey;
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * The key tokens are signed with and the keys they are verified against.
+ * <p>
+ * All nodes load the same set, from a JWKS file or a keystore, so a token issued by one node is accepted by
+ * every other node and survives restarts. To rotate, add the new key to the set, deploy, then switch
+ * {@code security.jwt.key-id} to it; keep the old key in the set until the tokens it signed have expired.
+ * Each key signs with its own algorithm, so rotation can also move to another algorithm.
+ * <p>
+ * Without a configured set a key is generated at startup, and its tokens are only valid on this node until
+ * it restarts.
+ */
+@Slf4j
+@Getter
+public class JwtKeySet {
+
+    private final JWK signingKey;
+    private final JwtSigningAlgorithm signingAlgorithm;
+    private final JWKSet verificationKeys;
+
+    /**
+     * @param jwkSet       the keys, at least the signing key must be private
+     * @param signingKeyId the {@code kid} of the signing key, may be omitted if the set has a single private key
+     */
+    public JwtKeySet(@NotNull JWKSet jwkSet, @Nullable String signingKeyId) {
+        List<JWK> keys = jwkSet.getKeys();
+        if (keys.size() > 1 && keys.stream().anyMatch(key -> key.getKeyID() == null)) {
+            throw new IllegalArgumentException("Every key of a set with several keys must have a kid");
+        }
+        this.signingKey = signingKeyId != null ? signingKey(jwkSet, signingKeyId) : singlePrivateKey(keys);
+        this.signingAlgorithm = JwtSigningAlgorithm.of(signingKey);
+        this.verificationKeys = jwkSet.toPublicJWKSet();
+    }
+
+    /**
+     * Generates a single signing key, for development and single node deployments.
+     *
+     * @param algorithm the algorithm of the key
+     * @return the key set
+     * @throws JOSEException if the key could not be generated
+     */
+    public static @NotNull JwtKeySet generate(@NotNull JwtSigningAlgorithm algorithm) throws JOSEException {
+        log.warn("No JWT signing key configured, generated an {} key: tokens are only valid on this node until it restarts",
+                algorithm.getName());
+        return new JwtKeySet(new JWKSet(algorithm.generateKey(UUID.randomUUID().toString())), null);
+    }
+
+    /**
+     * Loads the keys from a JWKS document.
+     *
+     * @param jwks         the JSON document with a {@code keys} array
+     * @param signingKeyId the {@code kid} of the signing key
+     * @return the key set
+     */
+    public static @NotNull JwtKeySet loadJwks(@NotNull Resource jwks, @Nullable String signingKeyId)
+            throws IOException, ParseException {
+        try (InputStream inputStream = jwks.getInputStream()) {
+            return new JwtKeySet(JWKSet.load(inputStream), signingKeyId);
+        }
+    }
+
+    /**
+     * Loads the RSA and EC keys from a keystore, the alias of a key is its {@code kid}.
+     *
+     * @param keyStore     the keystore
+     * @param type         the keystore type, e.g. {@code PKCS12}
+     * @param password     the password of the keystore and its keys
+     * @param signingKeyId the alias of the signing key
+     * @return the key set
+     */
+    public static @NotNull JwtKeySet loadKeyStore(@NotNull Resource keyStore, @NotNull String type,
+                                                  char @NotNull [] password, @Nullable String signingKeyId)
+            throws IOException, GeneralSecurityException {
+        KeyStore store = KeyStore.getInstance(type);
+        try (InputStream inputStream = keyStore.getInputStream()) {
+            store.load(inputStream, password);
+        }
+        List<JWK> keys = new ArrayList<>();
+        for (String alias : Collections.list(store.aliases())) {
+            Certificate certificate = store.getCertificate(alias);
+            if (certificate == null) {
+                continue;
+            }
+            Key privateKey = store.isKeyEntry(alias) ? store.getKey(alias, password) : null;
+            keys.add(toJwk(alias, certificate.getPublicKey(), (PrivateKey) privateKey));
+        }
+        return new JwtKeySet(new JWKSet(keys), signingKeyId);
+    }
+
+    // JWKSet.load(KeyStore) needs BouncyCastle to parse the certificates, the JDK types are enough here.
+    private static JWK toJwk(String alias, PublicKey publicKey, @Nullable PrivateKey privateKey) {
+        if (publicKey instanceof RSAPublicKey rsaPublicKey) {
+            RSAKey.Builder builder = new RSAKey.Builder(rsaPublicKey).keyID(alias);
+            return (privateKey != null ? builder.privateKey(privateKey) : builder).build();
+        }
+        if (publicKey instanceof ECPublicKey ecPublicKey) {
+            ECKey.Builder builder = new ECKey.Builder(Curve.forECParameterSpec(ecPublicKey.getParams()), ecPublicKey).keyID(alias);
+            return (privateKey != null ? builder.privateKey(privateKey) : builder).build();
+        }
+        throw new IllegalArgumentException(MessageFormatter.format("Unsupported {} key {}", publicKey.getAlgorithm(), alias).getMessage());
+    }
+
+    private static JWK signingKey(JWKSet jwkSet, String signingKeyId) {
+        JWK key = jwkSet.getKeyByKeyId(signingKeyId);
+        if (key == null) {
+            throw new IllegalArgumentException(MessageFormatter.format("Signing key {} not found", signingKeyId).getMessage());
+        }
+        if (!key.isPrivate()) {
+            throw new IllegalArgumentException(MessageFormatter.format("Signing key {} has no private key", signingKeyId).getMessage());
+        }
+        return key;
+    }
+
+    private static JWK singlePrivateKey(List<JWK> keys) {
+        List<JWK> privateKeys = keys.stream().filter(JWK::isPrivate).toList();
+        if (privateKeys.size() != 1) {
+            throw new IllegalArgumentException(MessageFormatter.format(
+                    "Expected a single private key but found {}, set security.jwt.key-id", privateKeys.size()).getMessage());
+        }
+        return privateKeys.get(0);
+    }
+}
@@ -3,6 +3,7 @@ package com.example.taskmanagementsystem.security;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.security.oauth2.jwt.JwtClaimsSet;
 import org.springframework.security.oauth2.jwt.JwtEncoder;
 import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
@@ -10,6 +11,7 @@ import org.springframework.stereotype.Component;
 
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
 @Component
@@ -18,7 +20,14 @@ public class JwtProvider {
 
     private final JwtEncoder jwtEncoder;
 
-    public String createToken(Authentication authentication) {
+    /**
+     * Issues an access token for the authenticated user. Every token gets a unique {@code jti} claim,
+     * which is what the whitelist stores instead of the encoded token.
+     *
+     * @param authentication the authenticated user
+     * @return the encoded token with its claims
+     */
+    public Jwt createToken(Authentication authentication) {
         Instant now = Instant.now();
         long expiresIn = 2;
 
@@ -29,6 +38,7 @@ public class JwtProvider {
                 .getUser().getId();
 
         JwtClaimsSet claims = JwtClaimsSet.builder()
+                .id(UUID.randomUUID().toString())
                 .issuer("self")
                 .issuedAt(now)
                 .expiresAt(now.plus(expiresIn, ChronoUnit.HOURS))
@@ -37,6 +47,6 @@ public class JwtProvider {
                 .claim("authorities", authorities)
                 .build();
 
-        return jwtEncoder.encode(JwtEncoderParameters.from(claims)).getTokenValue();
+        return jwtEncoder.encode(JwtEncoderParameters.from(claims));
     }
 }
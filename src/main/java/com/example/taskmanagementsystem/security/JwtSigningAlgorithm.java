@@ -0,0 +1,133 @@
+package com.example.taskmanagementsystem.security;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSVerifier;
+import com.nimbusds.jose.crypto.ECDSAVerifier;
+import com.nimbusds.jose.crypto.Ed25519Verifier;
+import com.nimbusds.jose.crypto.RSASSAVerifier;
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.KeyUse;
+import com.nimbusds.jose.jwk.OctetKeyPair;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.ECKeyGenerator;
+import com.nimbusds.jose.jwk.gen.JWKGenerator;
+import com.nimbusds.jose.jwk.gen.OctetKeyPairGenerator;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.helpers.MessageFormatter;
+import org.springframework.security.oauth2.jose.jws.JwsAlgorithm;
+
+/**
+ * Algorithms access tokens can be signed with, selected by {@code security.jwt.algorithm}.
+ * <p>
+ * RS256 keeps tokens verifiable by clients that only support RSA. ES256 (P-256) and EdDSA (Ed25519) use
+ * much smaller keys and signatures and sign considerably faster; see {@code JwtSigningBenchmark}.
+ */
+public enum JwtSigningAlgorithm implements JwsAlgorithm {
+
+    RS256(JWSAlgorithm.RS256) {
+        @Override
+        JWKGenerator<?> keyGenerator() {
+            return new RSAKeyGenerator(2048);
+        }
+
+        @Override
+        public @NotNull JWSVerifier verifier(@NotNull JWK jwk) throws JOSEException {
+            return new RSASSAVerifier(jwk.toRSAKey());
+        }
+    },
+    ES256(JWSAlgorithm.ES256) {
+        @Override
+        JWKGenerator<?> keyGenerator() {
+            return new ECKeyGenerator(Curve.P_256);
+        }
+
+        @Override
+        public @NotNull JWSVerifier verifier(@NotNull JWK jwk) throws JOSEException {
+            return new ECDSAVerifier(jwk.toECKey());
+        }
+    },
+    EdDSA(JWSAlgorithm.EdDSA) {
+        @Override
+        JWKGenerator<?> keyGenerator() {
+            return new OctetKeyPairGenerator(Curve.Ed25519);
+        }
+
+        @Override
+        public @NotNull JWSVerifier verifier(@NotNull JWK jwk) throws JOSEException {
+            return new Ed25519Verifier(jwk.toOctetKeyPair().toPublicJWK());
+        }
+    };
+
+    private final JWSAlgorithm jwsAlgorithm;
+
+    JwtSigningAlgorithm(JWSAlgorithm jwsAlgorithm) {
+        this.jwsAlgorithm = jwsAlgorithm;
+    }
+
+    @Override
+    public String getName() {
+        return jwsAlgorithm.getName();
+    }
+
+    public @NotNull JWSAlgorithm getJwsAlgorithm() {
+        return jwsAlgorithm;
+    }
+
+    /**
+     * Returns the algorithm a key signs with: its {@code alg} parameter if present, otherwise the algorithm
+     * of its key type and curve, as for keys loaded from a keystore.
+     *
+     * @param jwk the key
+     * @return the algorithm
+     * @throws IllegalArgumentException if the key cannot sign tokens with any supported algorithm
+     */
+    public static @NotNull JwtSigningAlgorithm of(@NotNull JWK jwk) {
+        for (JwtSigningAlgorithm algorithm : values()) {
+            if (algorithm.jwsAlgorithm.equals(jwk.getAlgorithm())) {
+                return algorithm;
+            }
+        }
+        if (jwk.getAlgorithm() == null) {
+            if (jwk instanceof RSAKey) {
+                return RS256;
+            }
+            if (jwk instanceof ECKey ecKey && Curve.P_256.equals(ecKey.getCurve())) {
+                return ES256;
+            }
+            if (jwk instanceof OctetKeyPair octetKeyPair && Curve.Ed25519.equals(octetKeyPair.getCurve())) {
+                return EdDSA;
+            }
+        }
+        throw new IllegalArgumentException(MessageFormatter.format("Unsupported signing key {}", jwk.getKeyID()).getMessage());
+    }
+
+    /**
+     * Generates a new signing key for this algorithm.
+     *
+     * @param keyId the {@code kid} of the key
+     * @return the private key
+     * @throws JOSEException if the key could not be generated
+     */
+    public @NotNull JWK generateKey(@NotNull String keyId) throws JOSEException {
+        return keyGenerator()
+                .keyUse(KeyUse.SIGNATURE)
+                .algorithm(jwsAlgorithm)
+                .keyID(keyId)
+                .generate();
+    }
+
+    /**
+     * Creates a verifier of signatures made with the key.
+     *
+     * @param jwk the key, only its public part is used
+     * @return the verifier
+     * @throws JOSEException if the key does not belong to this algorithm
+     */
+    public abstract @NotNull JWSVerifier verifier(@NotNull JWK jwk) throws JOSEException;
+
+    abstract JWKGenerator<?> keyGenerator();
+}
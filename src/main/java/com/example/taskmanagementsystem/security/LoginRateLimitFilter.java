@@ -0,0 +1,48 @@
+package com.example.taskmanagementsystem.security;
+
+import com.example.taskmanagementsystem.exception.AuthenticationThrottledException;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.web.AuthenticationEntryPoint;
+import org.springframework.security.web.authentication.www.BasicAuthenticationConverter;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Refuses HTTP Basic attempts of a user from an address, or of an address, blocked by {@link LoginRateLimiter} before
+ * {@code BasicAuthenticationFilter} checks the password. Malformed headers are left to that filter.
+ */
+public class LoginRateLimitFilter extends OncePerRequestFilter {
+
+    private final LoginRateLimiter loginRateLimiter;
+    private final AuthenticationEntryPoint authenticationEntryPoint;
+    private final BasicAuthenticationConverter basicAuthenticationConverter = new BasicAuthenticationConverter();
+
+    public LoginRateLimitFilter(LoginRateLimiter loginRateLimiter, AuthenticationEntryPoint authenticationEntryPoint) {
+        this.loginRateLimiter = loginRateLimiter;
+        this.authenticationEntryPoint = authenticationEntryPoint;
+    }
+
+    @Override
+    protected void doFilterInternal(@NotNull HttpServletRequest request, @NotNull HttpServletResponse response,
+                                    @NotNull FilterChain filterChain) throws ServletException, IOException {
+        UsernamePasswordAuthenticationToken attempt;
+        try {
+            attempt = basicAuthenticationConverter.convert(request);
+        } catch (AuthenticationException ex) {
+            attempt = null;
+        }
+        if (attempt != null && loginRateLimiter.isBlocked(attempt.getName(), request.getRemoteAddr())) {
+            authenticationEntryPoint.commence(request, response, new AuthenticationThrottledException(
+                    "Too many failed login attempts", loginRateLimiter.getWindow()));
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+}
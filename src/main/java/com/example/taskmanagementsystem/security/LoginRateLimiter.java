@@ -0,0 +1,113 @@
+package com.example.taskmanagementsystem.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.Getter;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.event.AuthenticationFailureBadCredentialsEvent;
+import org.springframework.security.authentication.event.AuthenticationSuccessEvent;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.web.authentication.WebAuthenticationDetails;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Counts failed password logins per username and client address, and per client address alone, and blocks
+ * further attempts once either limit is reached, so a brute-force run stops costing a BCrypt check per request.
+ * <p>
+ * The per-user limit counts the failures of a username from one address only: failures from elsewhere never
+ * lock a user out, so nobody can keep the owner of an account from logging in by failing its password on purpose.
+ * Guessing one password from many addresses is bounded by the per-address limit of each of them.
+ * <p>
+ * A counter starts with the first failure and is dropped a {@code window} later; a successful login resets
+ * the counter of the user at that address, not that of the address. Counters are node-local and bounded in number.
+ */
+@Component
+public class LoginRateLimiter {
+
+    private static final String USER_PREFIX = "user:";
+    private static final String USER_ADDRESS_SEPARATOR = "@";
+    private static final String ADDRESS_PREFIX = "address:";
+
+    @Getter
+    private final Duration window;
+    private final int maxFailuresPerUser;
+    private final int maxFailuresPerAddress;
+    private final Cache<String, AtomicInteger> failures;
+
+    public LoginRateLimiter(@Value("${security.login.rate-limit.window:15m}") Duration window,
+                            @Value("${security.login.rate-limit.max-failures-per-user:5}") int maxFailuresPerUser,
+                            @Value("${security.login.rate-limit.max-failures-per-address:20}") int maxFailuresPerAddress,
+                            @Value("${security.login.rate-limit.max-size:100000}") long maxSize) {
+        this.window = window;
+        this.maxFailuresPerUser = maxFailuresPerUser;
+        this.maxFailuresPerAddress = maxFailuresPerAddress;
+        this.failures = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(window)
+                .build();
+    }
+
+    /**
+     * Checks whether a login attempt must be refused without checking the password.
+     *
+     * @param username the presented username
+     * @param address  the client address
+     * @return {@code true} if the user ran out of attempts from this address, or the address ran out of attempts
+     */
+    public boolean isBlocked(@NotNull String username, @NotNull String address) {
+        return count(userKey(username, address)) >= maxFailuresPerUser
+                || count(ADDRESS_PREFIX + address) >= maxFailuresPerAddress;
+    }
+
+    public void recordFailure(@NotNull String username, String address) {
+        increment(userKey(username, address));
+        if (address != null) {
+            increment(ADDRESS_PREFIX + address);
+        }
+    }
+
+    public void recordSuccess(@NotNull String username, String address) {
+        failures.invalidate(userKey(username, address));
+    }
+
+    @EventListener
+    public void onFailure(AuthenticationFailureBadCredentialsEvent event) {
+        Authentication authentication = event.getAuthentication();
+        if (authentication instanceof UsernamePasswordAuthenticationToken) {
+            recordFailure(authentication.getName(), address(authentication));
+        }
+    }
+
+    @EventListener
+    public void onSuccess(AuthenticationSuccessEvent event) {
+        if (event.getAuthentication() instanceof UsernamePasswordAuthenticationToken authentication) {
+            recordSuccess(authentication.getName(), address(authentication));
+        }
+    }
+
+    // The address goes first: it never contains the separator, a username may
+    private static String userKey(String username, String address) {
+        return USER_PREFIX + address + USER_ADDRESS_SEPARATOR + username;
+    }
+
+    private int count(String key) {
+        AtomicInteger count = failures.getIfPresent(key);
+        return count == null ? 0 : count.get();
+    }
+
+    private void increment(String key) {
+        failures.get(key, k -> new AtomicInteger()).incrementAndGet();
+    }
+
+    private static String address(Authentication authentication) {
+        return authentication.getDetails() instanceof WebAuthenticationDetails details
+                ? details.getRemoteAddress()
+                : null;
+    }
+}
@@ -0,0 +1,193 @@
+package com.example.taskmanagementsystem.security;
+
+import com.example.taskmanagementsystem.client.rediscache.CacheInvalidationBus;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserCache;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Node-local caches in front of HTTP Basic authentication, so a machine client repeating its credentials
+ * neither queries the user nor pays for a BCrypt check on every call.
+ * <ul>
+ *     <li>Verified credentials: the HMAC-SHA256 of username and password, under a random key of this process,
+ *     mapped to the user they were verified for. Passwords are never kept, and a digest is useless outside
+ *     this process.</li>
+ *     <li>Users by username, which saves the query when the credentials are new, the password is still
+ *     checked against the cached hash.</li>
+ * </ul>
+ * Changing a user evicts both through {@link CacheInvalidationBus} once the change is committed, so every node
+ * drops the user before the next request; a lost message is bounded by the time to live. Entries loaded while
+ * an eviction raced with the load are not cached, so a replaced password cannot be remembered as valid.
+ * <p>
+ * Lookups are published as the {@code cache.gets} meter tagged {@code cache=credentials} and {@code cache=user}.
+ */
+@Component
+public class UserAuthenticationCache implements UserCache, CacheInvalidationBus.Listener {
+
+    static final String KEY_PREFIX = "user:";
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+
+    private final CacheInvalidationBus cacheInvalidationBus;
+    private final SecretKeySpec credentialsKey;
+    private final Cache<String, UserDetails> credentials;
+    private final Cache<String, UserDetails> users;
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public UserAuthenticationCache(CacheInvalidationBus cacheInvalidationBus,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${cache.credentials.max-size:10000}") long credentialsMaxSize,
+                                   @Value("${cache.credentials.ttl:1m}") Duration credentialsTtl,
+                                   @Value("${cache.user.max-size:10000}") long usersMaxSize,
+                                   @Value("${cache.user.ttl:5m}") Duration usersTtl) {
+        this.cacheInvalidationBus = cacheInvalidationBus;
+        byte[] key = new byte[32];
+        new SecureRandom().nextBytes(key);
+        this.credentialsKey = new SecretKeySpec(key, HMAC_ALGORITHM);
+        this.credentials = Caffeine.newBuilder()
+                .maximumSize(credentialsMaxSize)
+                .expireAfterWrite(credentialsTtl)
+                .recordStats()
+                .build();
+        this.users = Caffeine.newBuilder()
+                .maximumSize(usersMaxSize)
+                .expireAfterWrite(usersTtl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, credentials, "credentials");
+        CaffeineCacheMetrics.monitor(meterRegistry, users, "user");
+        cacheInvalidationBus.subscribe(this);
+    }
+
+    /**
+     * Returns the user the credentials were recently verified for.
+     *
+     * @param username the presented username
+     * @param password the presented password
+     * @return the user, or {@code null} if the credentials have not been verified recently
+     */
+    public UserDetails getVerified(@NotNull String username, @NotNull String password) {
+        UserDetails user = credentials.getIfPresent(digest(username, password));
+        return user != null && user.getUsername().equals(username) ? user : null;
+    }
+
+    /**
+     * Remembers verified credentials, unless an eviction happened since the user was read.
+     *
+     * @param username           the presented username
+     * @param password           the presented password
+     * @param user               the user the credentials were verified for
+     * @param seenInvalidations  {@link #invalidations()} before the user was read
+     */
+    public void putVerified(@NotNull String username, @NotNull String password, @NotNull UserDetails user,
+                            long seenInvalidations) {
+        if (invalidations.get() == seenInvalidations) {
+            credentials.put(digest(username, password), user);
+        }
+    }
+
+    /**
+     * Caches the user, unless an eviction happened since it was read.
+     *
+     * @param user              the user
+     * @param seenInvalidations {@link #invalidations()} before the user was read
+     */
+    public void putUserInCache(@NotNull UserDetails user, long seenInvalidations) {
+        if (invalidations.get() == seenInvalidations) {
+            users.put(user.getUsername(), user);
+        }
+    }
+
+    /**
+     * @return the number of evictions so far, to detect an eviction racing with a read
+     */
+    public long invalidations() {
+        return invalidations.get();
+    }
+
+    /**
+     * Evicts the user and its verified credentials on every node once the current transaction commits,
+     * e.g. after its password, roles or username changed.
+     *
+     * @param username the username before the change
+     */
+    public void evict(@NotNull String username) {
+        List<String> keys = List.of(KEY_PREFIX + username);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cacheInvalidationBus.publish(keys);
+                }
+            });
+        } else {
+            cacheInvalidationBus.publish(keys);
+        }
+    }
+
+    @Override
+    public UserDetails getUserFromCache(String username) {
+        return users.getIfPresent(username);
+    }
+
+    @Override
+    public void putUserInCache(UserDetails user) {
+        users.put(user.getUsername(), user);
+    }
+
+    @Override
+    public void removeUserFromCache(String username) {
+        users.invalidate(username);
+    }
+
+    @Override
+    public void invalidate(@NotNull Collection<String> keys) {
+        for (String key : keys) {
+            if (key.startsWith(KEY_PREFIX)) {
+                invalidations.incrementAndGet();
+                String username = key.substring(KEY_PREFIX.length());
+                users.invalidate(username);
+                // Rare enough to scan, the digests cannot be derived without the password.
+                credentials.asMap().values().removeIf(user -> user.getUsername().equals(username));
+            }
+        }
+    }
+
+    @Override
+    public void invalidateAll() {
+        invalidations.incrementAndGet();
+        users.invalidateAll();
+        credentials.invalidateAll();
+    }
+
+    private String digest(String username, String password) {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(credentialsKey);
+            mac.update(username.getBytes(StandardCharsets.UTF_8));
+            mac.update((byte) 0);
+            byte[] hash = mac.doFinal(password.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().withoutPadding().encodeToString(hash);
+        } catch (GeneralSecurityException ex) {
+            throw new IllegalStateException("HmacSHA256 is not supported", ex);
+        }
+    }
+}
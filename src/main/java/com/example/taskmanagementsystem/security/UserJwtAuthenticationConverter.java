@@ -0,0 +1,30 @@
+package com.example.taskmanagementsystem.security;
+
+import org.jetbrains.annotations.NotNull;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtGrantedAuthoritiesConverter;
+
+import java.util.Collection;
+
+/**
+ * Converts a verified token into a {@link UserJwtAuthenticationToken}, with the authorities taken from the
+ * space separated {@code authorities} claim as issued by {@link JwtProvider}.
+ */
+public class UserJwtAuthenticationConverter implements Converter<Jwt, AbstractAuthenticationToken> {
+
+    private final JwtGrantedAuthoritiesConverter jwtGrantedAuthoritiesConverter = new JwtGrantedAuthoritiesConverter();
+
+    public UserJwtAuthenticationConverter() {
+        jwtGrantedAuthoritiesConverter.setAuthoritiesClaimName("authorities");
+        jwtGrantedAuthoritiesConverter.setAuthorityPrefix("");
+    }
+
+    @Override
+    public AbstractAuthenticationToken convert(@NotNull Jwt jwt) {
+        Collection<GrantedAuthority> authorities = jwtGrantedAuthoritiesConverter.convert(jwt);
+        return new UserJwtAuthenticationToken(jwt, authorities);
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.taskmanagementsystem.security;
+
+import com.example.taskmanagementsystem.entity.RoleType;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+
+import java.util.Collection;
+
+/**
+ * {@link JwtAuthenticationToken} that also carries the {@code userId} claim and the roles of the user as a
+ * bitmask, both derived once when the token is authenticated, so authorization checks read two fields
+ * instead of converting the claim and searching the authorities on every check.
+ */
+public class UserJwtAuthenticationToken extends JwtAuthenticationToken {
+
+    private static final RoleType[] ROLE_TYPES = RoleType.values();
+
+    private final Long userId;
+    private final int roles;
+
+    public UserJwtAuthenticationToken(@NotNull Jwt jwt, @NotNull Collection<? extends GrantedAuthority> authorities) {
+        super(jwt, authorities);
+        this.userId = userId(jwt);
+        this.roles = roles(authorities);
+    }
+
+    /**
+     * @return the {@code userId} claim, or {@code null} if the token has none
+     */
+    public Long getUserId() {
+        return userId;
+    }
+
+    /**
+     * @return the roles of the user, one bit per {@link RoleType} ordinal
+     */
+    public int getRoles() {
+        return roles;
+    }
+
+    public boolean hasRole(@NotNull RoleType roleType) {
+        return hasRole(roles, roleType);
+    }
+
+    static boolean hasRole(int roles, RoleType roleType) {
+        return (roles & bit(roleType)) != 0;
+    }
+
+    static Long userId(Jwt jwt) {
+        Object userId = jwt.getClaim("userId");
+        return userId instanceof Number number ? number.longValue() : null;
+    }
+
+    static int roles(Collection<? extends GrantedAuthority> authorities) {
+        int roles = 0;
+        for (GrantedAuthority authority : authorities) {
+            for (RoleType roleType : ROLE_TYPES) {
+                if (roleType.name().equals(authority.getAuthority())) {
+                    roles |= bit(roleType);
+                }
+            }
+        }
+        return roles;
+    }
+
+    static int bit(RoleType roleType) {
+        return 1 << roleType.ordinal();
+    }
+}
@@ -1,38 +1,86 @@
 package com.example.taskmanagementsystem.security;
 
+import com.example.taskmanagementsystem.entity.RoleType;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authorization.AuthorizationDecision;
 import org.springframework.security.authorization.AuthorizationManager;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
 import org.springframework.stereotype.Component;
-import org.springframework.web.util.UriTemplate;
 
-import java.util.Map;
 import java.util.function.Supplier;
 
+/**
+ * Grants {@code /user/{id}/**} requests to admins and to users accessing their own id.
+ * <p>
+ * This runs on every user request, so it does not allocate: the id is scanned from the path segment after
+ * {@code /user/} and compared with the {@code userId} claim as a number, and the roles come from the bitmask
+ * of {@link UserJwtAuthenticationToken}. Other authentications holding a {@link Jwt} are checked the same way
+ * from their claims and authorities.
+ */
 @Component
 public class UserRequestAuthorizationManager implements AuthorizationManager<RequestAuthorizationContext> {
 
-    private static final UriTemplate USER_URI_TEMPLATE = new UriTemplate("/user/{id}");
+    private static final AuthorizationDecision GRANTED = new AuthorizationDecision(true);
+    private static final AuthorizationDecision DENIED = new AuthorizationDecision(false);
+    // Ids with more digits would overflow a long and cannot exist.
+    private static final int MAX_ID_DIGITS = 18;
+
+    private final String userPath;
+
+    public UserRequestAuthorizationManager(@Value("${api.endpoint.base-url}") String baseUrl) {
+        this.userPath = baseUrl + "/user/";
+    }
 
     @Override
     public AuthorizationDecision check(Supplier<Authentication> authenticationSupplier, RequestAuthorizationContext context) {
-//        Extract userId from request URI
-        Map<String, String> uriVariables = USER_URI_TEMPLATE.match(context.getRequest().getRequestURI());
-        String uriUserId = uriVariables.get("id");
-//        Extract userId from JWT token
         Authentication authentication = authenticationSupplier.get();
-        String jwtUserId = ((Jwt) (authentication.getPrincipal())).getClaim("userId").toString();
-//        Check has user role "ROLE_USER"
-        boolean hasUserRole = authentication.getAuthorities().stream()
-                .anyMatch(grantedAuthority -> grantedAuthority.getAuthority().equals("ROLE_USER"));
-//        Check has user role "ROLE_ADMIN"
-        boolean hasAdminRole = authentication.getAuthorities().stream()
-                .anyMatch(grantedAuthority -> grantedAuthority.getAuthority().equals("ROLE_ADMIN"));
-//        Compare two userIds
-        boolean userIdsMatch = uriUserId != null && uriUserId.equals(jwtUserId);
-
-        return new AuthorizationDecision(hasAdminRole || (hasUserRole && userIdsMatch));
+        int roles;
+        Long userId;
+        if (authentication instanceof UserJwtAuthenticationToken userJwtAuthenticationToken) {
+            roles = userJwtAuthenticationToken.getRoles();
+            userId = userJwtAuthenticationToken.getUserId();
+        } else if (authentication != null && authentication.getPrincipal() instanceof Jwt jwt) {
+            roles = UserJwtAuthenticationToken.roles(authentication.getAuthorities());
+            userId = UserJwtAuthenticationToken.userId(jwt);
+        } else {
+            return DENIED;
+        }
+        if (UserJwtAuthenticationToken.hasRole(roles, RoleType.ROLE_ADMIN)) {
+            return GRANTED;
+        }
+        boolean userIdsMatch = userId != null && userId == pathUserId(context.getRequest());
+        return UserJwtAuthenticationToken.hasRole(roles, RoleType.ROLE_USER) && userIdsMatch ? GRANTED : DENIED;
+    }
+
+    /**
+     * @return the id in the segment after {@code /user/}, or {@code -1} if the path has no numeric id there
+     */
+    long pathUserId(HttpServletRequest request) {
+        String uri = request.getRequestURI();
+        String contextPath = request.getContextPath();
+        int start = contextPath.length();
+        if (!uri.startsWith(contextPath) || !uri.startsWith(userPath, start)) {
+            return -1;
+        }
+        start += userPath.length();
+        int end = uri.indexOf('/', start);
+        if (end < 0) {
+            end = uri.length();
+        }
+        if (end == start || end - start > MAX_ID_DIGITS) {
+            return -1;
+        }
+        long id = 0;
+        for (int i = start; i < end; i++) {
+            char c = uri.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            id = id * 10 + (c - '0');
+        }
+        return id;
     }
 }
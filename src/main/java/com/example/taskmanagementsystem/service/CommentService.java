@@ -1,10 +1,12 @@
 package com.example.taskmanagementsystem.service;
 
+import com.example.taskmanagementsystem.client.rediscache.TaskRsCache;
 import com.example.taskmanagementsystem.dto.comment.CommentRq;
 import com.example.taskmanagementsystem.dto.comment.CommentRqToCommentConverter;
 import com.example.taskmanagementsystem.dto.comment.CommentRs;
 import com.example.taskmanagementsystem.dto.comment.CommentToCommentRsConverter;
 import com.example.taskmanagementsystem.entity.Comment;
+import com.example.taskmanagementsystem.entity.EventType;
 import com.example.taskmanagementsystem.repo.CommentRepository;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.transaction.Transactional;
@@ -21,6 +23,8 @@ public class CommentService {
     private final CommentRepository commentRepository;
     private final CommentToCommentRsConverter commentToCommentRsConverter;
     private final CommentRqToCommentConverter commentRqToCommentConverter;
+    private final TaskRsCache taskRsCache;
+    private final OutboxService outboxService;
 
     public Comment findById(Long id) {
         return commentRepository.findById(id).orElseThrow(
@@ -38,12 +42,22 @@ public class CommentService {
                 .orElseThrow(() -> new IllegalArgumentException(
                         MessageFormatter.format("Conversion failed comment {}", rq.comment()).getMessage()));
         Comment comment = commentRepository.save(newComment);
+        outboxService.recordComment(comment, EventType.CREATED);
+        evictTask(comment);
         return commentToCommentRsConverter.convert(comment);
     }
 
     @Transactional
     public void deleteById(Long id) {
-        findById(id);
+        Comment comment = findById(id);
         commentRepository.deleteById(id);
+        outboxService.recordComment(comment, EventType.DELETED);
+        evictTask(comment);
+    }
+
+    private void evictTask(Comment comment) {
+        if (comment.getTask() != null) {
+            taskRsCache.evictComments(comment.getTask().getId());
+        }
     }
 }
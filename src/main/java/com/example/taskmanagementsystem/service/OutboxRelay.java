@@ -0,0 +1,183 @@
+package com.example.taskmanagementsystem.service;
+
+import com.example.taskmanagementsystem.client.rediscache.CacheClient;
+import com.example.taskmanagementsystem.entity.OutboxEvent;
+import com.example.taskmanagementsystem.repo.OutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes the events recorded by {@link OutboxService} once their transaction has committed.
+ * <p>
+ * Every {@code outbox.relay.poll-interval} the relay drains the outbox in batches of {@code outbox.relay.batch-size},
+ * one transaction each: the oldest events are locked with {@code FOR UPDATE SKIP LOCKED}, appended to the
+ * {@link #STREAM} Redis stream, handed to the in-process {@link Listener}s and deleted. Relays on other nodes skip
+ * the locked events and take the next ones, so nodes relay side by side without waiting for each other.
+ * <p>
+ * Delivery is at least once: when Redis or a listener fails, the batch is rolled back and published again on the
+ * next poll, to the stream and to every listener. Events are published in id order within a batch, but batches
+ * relayed by different nodes may interleave, so consumers must tolerate reordering, and drop duplicates by the
+ * {@code id} of the event. With {@code EmbeddedCacheClient} there is no stream and only the listeners are called.
+ * <p>
+ * Relayed events are counted by the {@code outbox.events.relayed} counter.
+ */
+@Slf4j
+@Service
+public class OutboxRelay implements SmartLifecycle {
+
+    public static final String STREAM = "outbox:events";
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final CacheClient cacheClient;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final Duration pollInterval;
+    private final long streamMaxLength;
+    private final boolean enabled;
+    private final ScheduledExecutorService relayExecutor;
+    private final Counter relayed;
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    private volatile boolean running;
+
+    /**
+     * Reacts to committed changes on the node relaying them, e.g. to notify users or update an index.
+     */
+    public interface Listener {
+
+        /**
+         * Called with every batch, before its events are deleted; throwing publishes the batch again later.
+         *
+         * @param events the committed events in id order
+         */
+        void onEvents(@NotNull List<OutboxEvent> events);
+    }
+
+    @Autowired
+    public OutboxRelay(OutboxEventRepository outboxEventRepository,
+                       CacheClient cacheClient,
+                       PlatformTransactionManager transactionManager,
+                       MeterRegistry meterRegistry,
+                       @Value("${outbox.relay.batch-size:100}") int batchSize,
+                       @Value("${outbox.relay.poll-interval:500ms}") Duration pollInterval,
+                       @Value("${outbox.stream.max-length:100000}") long streamMaxLength,
+                       @Value("${outbox.relay.enabled:true}") boolean enabled) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.cacheClient = cacheClient;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.pollInterval = pollInterval;
+        this.streamMaxLength = streamMaxLength;
+        this.enabled = enabled;
+        this.relayExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "outbox-relay");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.relayed = Counter.builder("outbox.events.relayed")
+                .description("Outbox events published to the stream and the listeners")
+                .register(meterRegistry);
+    }
+
+    public void subscribe(@NotNull Listener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Starts polling once every bean is created, so listeners subscribed at startup miss nothing.
+     */
+    @Override
+    public void start() {
+        if (enabled) {
+            relayExecutor.scheduleWithFixedDelay(this::relay, 0, pollInterval.toNanos(), TimeUnit.NANOSECONDS);
+        }
+        running = true;
+    }
+
+    /**
+     * Lets the batch in flight finish rather than interrupt it half published. Being in the last phase,
+     * the relay stops before the Redis connection factory.
+     */
+    @Override
+    public void stop() {
+        running = false;
+        relayExecutor.shutdown();
+        try {
+            if (!relayExecutor.awaitTermination(10, TimeUnit.SECONDS)) {
+                relayExecutor.shutdownNow();
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            relayExecutor.shutdownNow();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Publishes batches until one comes back short, i.e. the outbox is drained as far as this relay can see.
+     */
+    void relay() {
+        try {
+            while (relayBatch() == batchSize && !relayExecutor.isShutdown()) {
+                log.debug("Outbox batch of {} relayed, more events are waiting", batchSize);
+            }
+        } catch (RuntimeException ex) {
+            log.warn("Outbox events were not relayed, retrying in {}", pollInterval, ex);
+        }
+    }
+
+    /**
+     * Publishes and deletes the oldest unlocked events in one transaction.
+     *
+     * @return the number of events relayed
+     */
+    int relayBatch() {
+        Integer count = transactionTemplate.execute(status -> {
+            List<OutboxEvent> events = outboxEventRepository.findByOrderByIdAsc(Limit.of(batchSize));
+            if (events.isEmpty()) {
+                return 0;
+            }
+            cacheClient.appendToStream(STREAM, events.stream().map(OutboxRelay::streamEntry).toList(), streamMaxLength);
+            listeners.forEach(listener -> listener.onEvents(events));
+            outboxEventRepository.deleteAllByIdInBatch(events.stream().map(OutboxEvent::getId).toList());
+            return events.size();
+        });
+        int relayedCount = count == null ? 0 : count;
+        relayed.increment(relayedCount);
+        return relayedCount;
+    }
+
+    private static Map<String, String> streamEntry(OutboxEvent event) {
+        Map<String, String> entry = new LinkedHashMap<>();
+        entry.put("id", event.getId().toString());
+        entry.put("aggregateType", event.getAggregateType().name());
+        entry.put("aggregateId", event.getAggregateId().toString());
+        entry.put("eventType", event.getEventType().name());
+        if (event.getTaskId() != null) {
+            entry.put("taskId", event.getTaskId().toString());
+        }
+        entry.put("createdAt", String.valueOf(event.getCreatedAt()));
+        return entry;
+    }
+}
@@ -1,12 +1,28 @@
 package com.example.taskmanagementsystem.service;
 
+import com.example.taskmanagementsystem.client.rediscache.TaskRsCache;
+import com.example.taskmanagementsystem.dto.CursorPage;
+import com.example.taskmanagementsystem.dto.PageMode;
+import com.example.taskmanagementsystem.dto.ResourceVersion;
+import com.example.taskmanagementsystem.dto.SlicePage;
+import com.example.taskmanagementsystem.dto.comment.CommentRs;
+import com.example.taskmanagementsystem.dto.comment.CommentStats;
 import com.example.taskmanagementsystem.dto.task.*;
+import com.example.taskmanagementsystem.entity.EventType;
 import com.example.taskmanagementsystem.entity.Priority;
 import com.example.taskmanagementsystem.entity.Status;
 import com.example.taskmanagementsystem.entity.Task;
+import com.example.taskmanagementsystem.entity.User;
+import com.example.taskmanagementsystem.exception.PreconditionFailedException;
+import com.example.taskmanagementsystem.repo.CommentRepository;
+import com.example.taskmanagementsystem.repo.TaskBulkUpdater;
+import com.example.taskmanagementsystem.repo.TaskCountEstimator;
 import com.example.taskmanagementsystem.repo.TaskRepository;
+import com.example.taskmanagementsystem.repo.TaskSearchIndex;
 import com.example.taskmanagementsystem.repo.TaskSpecification;
 import com.example.taskmanagementsystem.repo.TaskSpecs;
+import com.example.taskmanagementsystem.util.VersionETags;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
@@ -15,38 +31,152 @@ import org.slf4j.helpers.MessageFormatter;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.stereotype.Service;
+import org.springframework.util.Assert;
 import org.springframework.util.StringUtils;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.BiPredicate;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class TaskService {
 
+    private static final int EXPORT_FETCH_SIZE = 500;
+    private static final int BULK_UPDATE_CHUNK_SIZE = 1000;
+    private static final Predicate<String> ALWAYS_MODIFIED = eTag -> false;
+
     private final TaskRepository taskRepository;
     private final TaskToTaskRsConvertor taskToTaskRsConvertor;
     private final TaskRqToTaskConvertor taskRqToTaskConvertor;
+    private final CommentRepository commentRepository;
+    private final TaskSearchIndex taskSearchIndex;
+    private final TaskRsCache taskRsCache;
+    private final TaskCountEstimator taskCountEstimator;
+    private final TaskBulkUpdater taskBulkUpdater;
+    private final UserService userService;
+    private final ObjectMapper objectMapper;
+    private final OutboxService outboxService;
 
     public Task findById(Long id) {
         return taskRepository.findById(id).orElseThrow(() -> new EntityNotFoundException(
                 MessageFormatter.format("Task with id {} not found", id).getMessage()));
     }
 
-    public TaskRs findByIdReturnTaskRs(Long id) {
-        Task task = findById(id);
-        return taskToTaskRsConvertor.convert(task);
+    /**
+     * Returns a reference to the task without loading it or checking that it exists.
+     *
+     * @param id the task id
+     * @return the task reference
+     */
+    public Task getReferenceById(Long id) {
+        return taskRepository.getReferenceById(id);
+    }
+
+    /**
+     * Reads what the ETag and Last-Modified of a task depend on, without loading the task or its comments, so
+     * that a conditional request missing the cache is answered before the task is read from the database.
+     *
+     * @param id              the task id
+     * @param includeComments whether the representation embeds the comments
+     * @return the strong version ETag and update time, or a weak ETag without a time when comments are embedded,
+     * as deleting a comment does not move any timestamp
+     */
+    public ResourceVersion findVersionById(Long id, boolean includeComments) {
+        TaskVersion taskVersion = taskRepository.findVersionById(id).orElseThrow(() -> new EntityNotFoundException(
+                MessageFormatter.format("Task with id {} not found", id).getMessage()));
+        if (!includeComments) {
+            return new ResourceVersion(VersionETags.eTag(taskVersion.version()), taskVersion.updatedAt());
+        }
+        CommentStats stats = commentRepository.findStatsByTaskIds(List.of(id));
+        return new ResourceVersion(commentsETag(taskVersion.version(), stats.count(), stats.lastId()), null);
+    }
+
+    /**
+     * Fetches a task, see {@link #findAll(Pageable, boolean, Predicate)} for {@code notModified}, which is tested
+     * with the ETag and Last-Modified time of the task, or -1 when the time is unknown.
+     * <p>
+     * A cached task answers from its own version, kept current by the after-commit eviction of every write, so
+     * neither a 200 nor a 304 reads the database. Only on a miss are the validators read with
+     * {@link #findVersionById} before the task is loaded.
+     *
+     * @return the task, or null when {@code notModified} accepted the validators
+     */
+    public TaskRs findByIdReturnTaskRs(Long id, boolean includeComments, @NotNull BiPredicate<String, Long> notModified) {
+        TaskRs cached = taskRsCache.getIfPresent(id, includeComments);
+        ResourceVersion version = cached != null ? versionOf(cached, includeComments) : findVersionById(id, includeComments);
+        if (notModified.test(version.eTag(), version.lastModified() == null ? -1 : version.lastModified().toEpochMilli())) {
+            return null;
+        }
+        if (cached != null) {
+            return cached;
+        }
+        return taskRsCache.load(id, includeComments, () -> {
+            Task task = findById(id);
+            return converter(List.of(task), includeComments).apply(task);
+        });
     }
 
-    public Page<TaskRs> findAll(Pageable pageable) {
+    /**
+     * Computes the validators {@link #findVersionById} would read from a task that is already built.
+     */
+    private static ResourceVersion versionOf(@NotNull TaskRs taskRs, boolean includeComments) {
+        if (!includeComments) {
+            return new ResourceVersion(VersionETags.eTag(taskRs.version()), taskRs.updatedAt());
+        }
+        List<CommentRs> commentsRs = taskRs.commentsRs() == null ? List.of() : taskRs.commentsRs();
+        Long lastId = commentsRs.stream().map(CommentRs::id).max(Long::compare).orElse(null);
+        return new ResourceVersion(commentsETag(taskRs.version(), commentsRs.size(), lastId), null);
+    }
+
+    private static String commentsETag(Long version, long commentCount, Long lastCommentId) {
+        return VersionETags.weakETag(version + ";" + commentCount + ":" + lastCommentId);
+    }
+
+    /**
+     * Fetches a page of tasks. The page is converted only if {@code notModified} rejects its ETag, computed from
+     * the ids and versions of the tasks read, so an unchanged page is never converted nor are its comments loaded.
+     *
+     * @param notModified tests the ETag of the page against the request, e.g. {@code WebRequest::checkNotModified}
+     * @return the page, or null when {@code notModified} accepted the ETag
+     */
+    public Page<TaskRs> findAll(Pageable pageable, boolean includeComments, @NotNull Predicate<String> notModified) {
         Page<Task> tasksPage = taskRepository.findAll(pageable);
-        return tasksPage.map(taskToTaskRsConvertor::convert);
+        if (notModified.test(pageETag(tasksPage.getContent(), tasksPage.getTotalElements(), includeComments))) {
+            return null;
+        }
+        return tasksPage.map(converter(tasksPage.getContent(), includeComments));
+    }
+
+    /**
+     * Fetches a keyset page of tasks, see {@link #findAll(Pageable, boolean, Predicate)} for {@code notModified}.
+     */
+    public CursorPage<TaskRs> findAllByCursor(String cursor, int size, boolean includeComments, @NotNull Predicate<String> notModified) {
+        return findByCursor(Specification.where(null), cursor, size, includeComments, notModified);
+    }
+
+    /**
+     * Fetches a slice of tasks, see {@link #findAll(Pageable, boolean, Predicate)} for {@code notModified}.
+     */
+    public SlicePage<TaskRs> findAllSlice(Pageable pageable, boolean estimateTotal, boolean includeComments,
+                                          @NotNull Predicate<String> notModified) {
+        Slice<Task> slice = taskRepository.findSlice(null, pageable);
+        return toSlicePage(slice, estimateTotal ? taskCountEstimator.estimate(null) : null, includeComments, notModified);
     }
 
     @Transactional
@@ -55,16 +185,76 @@ public class TaskService {
                 .orElseThrow(() -> new IllegalArgumentException(
                         MessageFormatter.format("Conversion failed task {}", rq.title()).getMessage()));
         Task task = taskRepository.save(newTask);
+        outboxService.recordTask(task.getId(), EventType.CREATED);
+        taskSearchIndex.index(task);
         return taskToTaskRsConvertor.convert(task);
     }
 
+    /**
+     * Creates many tasks in one transaction.
+     * The referenced users are checked with one query and the tasks are written with one JDBC batch.
+     *
+     * @param rqs the tasks to create
+     * @return the ids of the created tasks in request order
+     */
+    @Transactional
+    public List<Long> createAll(List<TaskRq> rqs) {
+        Set<Long> userIds = rqs.stream()
+                .flatMap(rq -> Stream.of(rq.authorId(), rq.assigneeId()))
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, User> users = userService.getReferencesById(userIds);
+
+        List<Task> tasks = rqs.stream().map(rq -> taskRqToTaskConvertor.convert(rq, users)).toList();
+        List<Long> ids = taskRepository.insertAll(tasks);
+        outboxService.recordTasks(ids, EventType.CREATED);
+        tasks.forEach(taskSearchIndex::index);
+        return ids;
+    }
+
+    /**
+     * Sets the status and/or priority of every task matching the filter without loading the tasks.
+     * Ids are read in chunks of {@value #BULK_UPDATE_CHUNK_SIZE} and each chunk is changed with one UPDATE statement,
+     * all in one transaction, with an outbox event per changed task. Cached copies of the changed tasks are evicted
+     * after commit.
+     *
+     * @param rq the filter and the changes
+     * @return the number of updated tasks
+     */
+    @Transactional
+    public long updateAll(TaskBulkUpdateRq rq) {
+        Specification<Task> spec = TaskSpecification.withFilter(rq.filter());
+        long updated = 0;
+        List<Long> ids = taskRepository.findIdsAfter(spec, null, BULK_UPDATE_CHUNK_SIZE);
+        while (!ids.isEmpty()) {
+            List<Long> updatedIds = taskBulkUpdater.updateAll(rq.filter(), ids, rq.status(), rq.priority());
+            updated += updatedIds.size();
+            outboxService.recordTasks(updatedIds, EventType.UPDATED);
+            taskRsCache.evict(updatedIds);
+            ids = ids.size() < BULK_UPDATE_CHUNK_SIZE
+                    ? List.of()
+                    : taskRepository.findIdsAfter(spec, ids.get(ids.size() - 1), BULK_UPDATE_CHUNK_SIZE);
+        }
+        return updated;
+    }
+
+    /**
+     * Updates a task without locking its row: the version read here guards the UPDATE, so a concurrent update
+     * fails with {@link org.springframework.dao.OptimisticLockingFailureException} instead of being overwritten.
+     *
+     * @param id              the id of the task
+     * @param rq              the new details
+     * @param expectedVersion the version the client read, or null to update whatever is current
+     * @return the updated task with its new version
+     */
     @Transactional
-    public TaskRs update(Long id, TaskRq rq) {
+    public TaskRs update(Long id, TaskRq rq, Long expectedVersion) {
 
         Task convertedTask = Optional.ofNullable(taskRqToTaskConvertor.convert(rq))
                 .orElseThrow(() -> new IllegalArgumentException(
                         MessageFormatter.format("Conversion failed task {}", rq.title()).getMessage()));
         Task existingTask = findById(id);
+        checkVersion(existingTask, expectedVersion);
 
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         Jwt jwt = (Jwt) authentication.getPrincipal();
@@ -85,7 +275,11 @@ public class TaskService {
             }
         }
 
-        Task task = taskRepository.save(existingTask);
+        // Flushed so the response carries the incremented version
+        Task task = taskRepository.saveAndFlush(existingTask);
+        outboxService.recordTask(id, EventType.UPDATED);
+        taskSearchIndex.index(task);
+        taskRsCache.evict(id);
 
         return taskToTaskRsConvertor.convert(task);
     }
@@ -94,30 +288,151 @@ public class TaskService {
     public void deleteById(Long id) {
         findById(id);
         taskRepository.deleteById(id);
+        outboxService.recordTask(id, EventType.DELETED);
+        taskSearchIndex.remove(id);
+        taskRsCache.evict(id);
     }
 
     @Transactional
-    public Page<TaskRs> filterBy(TaskFilter filter) {
+    public Page<TaskRs> filterBy(TaskFilter filter, boolean includeComments) {
+        Assert.notNull(filter, "Task filter must not be null");
         Specification<Task> spec = TaskSpecification.withFilter(filter);
         PageRequest pageable = PageRequest.of(filter.getPageNumber(), filter.getPageSize());
 
         Page<Task> taskPage = taskRepository.findAll(spec, pageable);
 
-        return taskPage.map(taskToTaskRsConvertor::convert);
+        return taskPage.map(converter(taskPage.getContent(), includeComments));
     }
 
     @Transactional
-    public Page<TaskRs> findByCriteria(@NotNull Map<String, String> searchCriteria, Pageable pageable) throws IllegalAccessException {
+    public SlicePage<TaskRs> filterBySlice(TaskFilter filter, boolean includeComments) {
+        Assert.notNull(filter, "Task filter must not be null");
+        PageRequest pageable = PageRequest.of(filter.getPageNumber(), filter.getPageSize());
+
+        Slice<Task> slice = taskRepository.findSlice(TaskSpecification.withFilter(filter), pageable);
+
+        Long estimatedTotal = filter.getMode() == PageMode.ESTIMATE ? taskCountEstimator.estimate(filter) : null;
+        return toSlicePage(slice, estimatedTotal, includeComments, ALWAYS_MODIFIED);
+    }
+
+    @Transactional
+    public CursorPage<TaskRs> filterByCursor(TaskFilter filter, boolean includeComments) {
+        Assert.notNull(filter, "Task filter must not be null");
+        return findByCursor(TaskSpecification.withFilter(filter), filter.getCursor(), filter.getPageSize(), includeComments,
+                ALWAYS_MODIFIED);
+    }
+
+    /**
+     * Writes every task matching the filter to the stream, newest first.
+     * Pagination fields of the filter are ignored. Rows are read from a forward-only cursor and written as they
+     * arrive, so memory use does not depend on the number of tasks. Comments are not exported.
+     *
+     * @param filter the task filter
+     * @param format the file format
+     * @param out    the stream to write to, left open
+     */
+    @Transactional
+    public void export(TaskFilter filter, TaskExportFormat format, OutputStream out) throws IOException {
+        Assert.notNull(filter, "Task filter must not be null");
+        try (Stream<TaskRs> rows = taskRepository.streamTaskRs(TaskSpecification.withFilter(filter), EXPORT_FETCH_SIZE)) {
+            format.write(rows.iterator(), out, objectMapper);
+        }
+    }
+
+    private static void checkVersion(@NotNull Task task, Long expectedVersion) {
+        if (expectedVersion != null && !expectedVersion.equals(task.getVersion())) {
+            throw new PreconditionFailedException(MessageFormatter.format("Task with id {} is not at version {}",
+                    task.getId(), expectedVersion).getMessage());
+        }
+    }
+
+    /**
+     * Fetches one keyset page ordered by {@link TaskCursor#SORT}.
+     * Reads {@code size + 1} rows to detect the next page instead of running a count query.
+     */
+    private CursorPage<TaskRs> findByCursor(Specification<Task> spec, String cursor, int size, boolean includeComments,
+                                            @NotNull Predicate<String> notModified) {
+        Specification<Task> seek = spec.and(TaskSpecification.afterCursor(TaskCursor.decode(cursor)));
+        List<Task> tasks = taskRepository.findBy(seek, query -> query.sortBy(TaskCursor.SORT).limit(size + 1).all());
+
+        boolean hasNext = tasks.size() > size;
+        List<Task> content = hasNext ? tasks.subList(0, size) : tasks;
+        if (notModified.test(pageETag(content, hasNext, includeComments))) {
+            return null;
+        }
+        String nextCursor = hasNext ? TaskCursor.of(content.get(size - 1)).encode() : null;
+
+        return new CursorPage<>(content.stream().map(converter(content, includeComments)).toList(), size, hasNext, nextCursor);
+    }
+
+    private SlicePage<TaskRs> toSlicePage(@NotNull Slice<Task> slice, Long estimatedTotal, boolean includeComments,
+                                          @NotNull Predicate<String> notModified) {
+        // The planner may underestimate, but never report fewer rows than the pages already seen
+        Long total = estimatedTotal == null
+                ? null
+                : Math.max(estimatedTotal, slice.getPageable().isPaged() ? slice.getPageable().getOffset() + slice.getNumberOfElements() : slice.getNumberOfElements());
+        if (notModified.test(pageETag(slice.getContent(), slice.hasNext() + "/" + total, includeComments))) {
+            return null;
+        }
+        List<TaskRs> content = slice.getContent().stream().map(converter(slice.getContent(), includeComments)).toList();
+        return new SlicePage<>(content, slice.getNumber(), slice.getSize(), slice.hasNext(), total);
+    }
+
+    /**
+     * Computes the ETag of a page from the id and version of its tasks and the page metadata, before any of them
+     * is converted. With comments, their count and highest id over the page are added.
+     */
+    private String pageETag(@NotNull List<Task> tasks, Object pageState, boolean includeComments) {
+        StringBuilder validator = new StringBuilder().append(pageState);
+        tasks.forEach(task -> validator.append(',').append(task.getId()).append(':').append(task.getVersion()));
+        if (includeComments && !tasks.isEmpty()) {
+            CommentStats stats = commentRepository.findStatsByTaskIds(tasks.stream().map(Task::getId).toList());
+            validator.append(';').append(stats.count()).append(':').append(stats.lastId());
+        }
+        return VersionETags.weakETag(validator);
+    }
+
+    /**
+     * Returns the task to DTO conversion for one page of tasks. Comments are never read through the
+     * lazy collection: when requested they are loaded for the whole page in a single projected query.
+     */
+    private @NotNull Function<Task, TaskRs> converter(@NotNull List<Task> tasks, boolean includeComments) {
+        if (!includeComments) {
+            return taskToTaskRsConvertor::convert;
+        }
+        Map<Long, List<CommentRs>> commentsByTaskId = tasks.isEmpty()
+                ? Map.of()
+                : commentRepository.findCommentsRsByTaskIds(tasks.stream().map(Task::getId).toList()).stream()
+                .collect(Collectors.groupingBy(CommentRs::taskId));
+        return task -> taskToTaskRsConvertor.convert(task, commentsByTaskId.getOrDefault(task.getId(), List.of()));
+    }
+
+    @Transactional
+    public Page<TaskRs> findByCriteria(@NotNull Map<String, String> searchCriteria, Pageable pageable, boolean includeComments) throws IllegalAccessException {
+        Specification<Task> spec = criteriaSpecification(searchCriteria);
+
+        Page<Task> taskPage = taskRepository.findAll(spec, pageable);
+
+        return taskPage.map(converter(taskPage.getContent(), includeComments));
+    }
+
+    @Transactional
+    public SlicePage<TaskRs> findByCriteriaSlice(@NotNull Map<String, String> searchCriteria, Pageable pageable, boolean includeComments) throws IllegalAccessException {
+        Specification<Task> spec = criteriaSpecification(searchCriteria);
+
+        Slice<Task> slice = taskRepository.findSlice(spec, pageable);
+
+        return toSlicePage(slice, null, includeComments, ALWAYS_MODIFIED);
+    }
+
+    private @NotNull Specification<Task> criteriaSpecification(@NotNull Map<String, String> searchCriteria) throws IllegalAccessException {
         Specification<Task> spec = Specification.where(null);
 
         if (StringUtils.hasLength(searchCriteria.get("id"))) {
             spec = spec.and(TaskSpecs.hasId(Long.valueOf(searchCriteria.get("id"))));
         }
-        if (StringUtils.hasLength(searchCriteria.get("title"))) {
-            spec = spec.and(TaskSpecs.containsTitle(searchCriteria.get("title")));
-        }
-        if (StringUtils.hasLength(searchCriteria.get("description"))) {
-            spec = spec.and(TaskSpecs.containsDescription(searchCriteria.get("description")));
+        if (StringUtils.hasLength(searchCriteria.get("title")) || StringUtils.hasLength(searchCriteria.get("description"))) {
+            spec = spec.and(taskSearchIndex.search(searchCriteria.get("title"), searchCriteria.get("description")));
         }
         if (StringUtils.hasLength(searchCriteria.get("status"))) {
             try {
@@ -142,8 +457,6 @@ public class TaskService {
             spec = spec.and(TaskSpecs.hasAssigneeUsername(searchCriteria.get("assigneeUsername")));
         }
 
-        Page<Task> taskPage = taskRepository.findAll(spec, pageable);
-
-        return taskPage.map(taskToTaskRsConvertor::convert);
+        return spec;
     }
 }
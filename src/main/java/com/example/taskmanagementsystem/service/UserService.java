@@ -1,14 +1,20 @@
 package com.example.taskmanagementsystem.service;
 
-import com.example.taskmanagementsystem.client.rediscache.RedisCacheClient;
+import com.example.taskmanagementsystem.client.rediscache.TaskRsCache;
+import com.example.taskmanagementsystem.client.rediscache.TokenWhitelistCache;
 import com.example.taskmanagementsystem.dto.user.*;
+import com.example.taskmanagementsystem.entity.Comment;
+import com.example.taskmanagementsystem.entity.EventType;
+import com.example.taskmanagementsystem.entity.Task;
 import com.example.taskmanagementsystem.entity.User;
 import com.example.taskmanagementsystem.exception.EmailAlreadyInUseException;
 import com.example.taskmanagementsystem.exception.PasswordChangeIllegalArgumentException;
+import com.example.taskmanagementsystem.exception.PreconditionFailedException;
 import com.example.taskmanagementsystem.exception.UsernameAlreadyTakenException;
 import com.example.taskmanagementsystem.repo.UserRepository;
 import com.example.taskmanagementsystem.security.AppUserDetails;
 import com.example.taskmanagementsystem.security.JwtProvider;
+import com.example.taskmanagementsystem.security.UserAuthenticationCache;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
@@ -18,37 +24,48 @@ import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.stereotype.Service;
 
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
-public class UserService implements UserDetailsService {
+public class UserService implements UserDetailsService, UserDetailsPasswordService {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
-    private final RedisCacheClient redisCacheClient;
+    private final TokenWhitelistCache tokenWhitelistCache;
     private final JwtProvider jwtProvider;
     private final UserToUserRsConverter userToUserRsConverter;
     private final UserRqToUserConverter userRqToUserConverter;
+    private final TaskRsCache taskRsCache;
+    private final UserAuthenticationCache userAuthenticationCache;
+    private final OutboxService outboxService;
 
     public Map<String, Object> createLoginInfo(@NotNull Authentication authentication) {
         AppUserDetails principal = (AppUserDetails) authentication.getPrincipal();
         UserRs userRs = Optional.ofNullable(userToUserRsConverter.convert(principal.getUser()))
                 .orElseThrow(() -> new IllegalArgumentException("Conversion failed"));
-        String token = jwtProvider.createToken(authentication);
-        redisCacheClient.set("whitelist:" + userRs.id(), token, 2, TimeUnit.HOURS);
+        Jwt token = jwtProvider.createToken(authentication);
+        tokenWhitelistCache.put(userRs.id(), token.getId(), 2, TimeUnit.HOURS);
         Map<String, Object> loginInfo = new HashMap<>();
         loginInfo.put("userInfo", userRs);
-        loginInfo.put("token", token);
+        loginInfo.put("token", token.getTokenValue());
         return loginInfo;
     }
 
@@ -57,6 +74,41 @@ public class UserService implements UserDetailsService {
                 MessageFormatter.format("User with id {} not found", id).getMessage()));
     }
 
+    /**
+     * Returns a reference to the user without loading it or checking that it exists.
+     *
+     * @param id the user id
+     * @return the user reference
+     */
+    public User getReferenceById(Long id) {
+        return userRepository.getReferenceById(id);
+    }
+
+    /**
+     * Returns references to several users without loading them, after checking with one query that
+     * all of them exist. A reference only knows its id, enough to be set as a foreign key.
+     *
+     * @param ids the user ids, duplicates and {@code null} are allowed
+     * @return the user references keyed by id
+     * @throws EntityNotFoundException if any of the ids does not exist
+     */
+    public Map<Long, User> getReferencesById(Collection<Long> ids) {
+        Map<Long, User> users = new HashMap<>();
+        Set<Long> distinctIds = ids.stream().filter(Objects::nonNull).collect(Collectors.toSet());
+        if (distinctIds.isEmpty()) {
+            return users;
+        }
+        Set<Long> existingIds = new HashSet<>(userRepository.findExistingIds(distinctIds));
+        ids.stream()
+                .filter(id -> id != null && !existingIds.contains(id))
+                .findFirst()
+                .ifPresent(id -> {
+                    throw new EntityNotFoundException(MessageFormatter.format("User with id {} not found", id).getMessage());
+                });
+        distinctIds.forEach(id -> users.put(id, userRepository.getReferenceById(id)));
+        return users;
+    }
+
     public UserRs findByIdReturnUserRs(Long id) {
         User user = findById(id);
         return userToUserRsConverter.convert(user);
@@ -74,6 +126,7 @@ public class UserService implements UserDetailsService {
                 .orElseThrow(() -> new IllegalArgumentException(
                         MessageFormatter.format("Conversion failed user {}", rq.username()).getMessage()));
         User savedUser = userRepository.save(newUser);
+        outboxService.recordUser(savedUser.getId(), EventType.CREATED);
         return userToUserRsConverter.convert(savedUser);
     }
 
@@ -88,12 +141,22 @@ public class UserService implements UserDetailsService {
         }
     }
 
+    /**
+     * Updates a user without locking its row, see {@link TaskService#update}.
+     *
+     * @param userId          the id of the user
+     * @param rq              the new details
+     * @param expectedVersion the version the client read, or null to update whatever is current
+     * @return the updated user with its new version
+     */
     @Transactional
-    public UserRs update(Long userId, UserRq rq) {
+    public UserRs update(Long userId, UserRq rq, Long expectedVersion) {
         User updateUser = Optional.ofNullable(userRqToUserConverter.convert(rq))
                 .orElseThrow(() -> new IllegalArgumentException(
                         MessageFormatter.format("Conversion failed user {}", rq.username()).getMessage()));
         User existingUser = findById(userId);
+        checkVersion(existingUser, expectedVersion);
+        String previousUsername = existingUser.getUsername();
 
         validateUsernameAndEmailForUpdate(existingUser, updateUser);
 
@@ -110,10 +173,19 @@ public class UserService implements UserDetailsService {
             existingUser.setRoles(updateUser.getRoles());
         }
 
-        User savedUser = userRepository.save(existingUser);
+        User savedUser = userRepository.saveAndFlush(existingUser);
+        outboxService.recordUser(userId, EventType.UPDATED);
+        userAuthenticationCache.evict(previousUsername);
         return userToUserRsConverter.convert(savedUser);
     }
 
+    private static void checkVersion(@NotNull User user, Long expectedVersion) {
+        if (expectedVersion != null && !expectedVersion.equals(user.getVersion())) {
+            throw new PreconditionFailedException(MessageFormatter.format("User with id {} is not at version {}",
+                    user.getId(), expectedVersion).getMessage());
+        }
+    }
+
     private void validateUsernameAndEmailForUpdate(@NotNull User existingUser, @NotNull User updateUser) {
         if (!existingUser.getUsername().equals(updateUser.getUsername()) &&
                 userRepository.existsByUsername(updateUser.getUsername())) {
@@ -129,8 +201,28 @@ public class UserService implements UserDetailsService {
 
     @Transactional
     public void deleteById(Long id) {
-        findById(id);
+        User user = findById(id);
+        // Tasks and comments of the user are removed by cascade, so their cached tasks go stale
+        List<Task> tasks = Stream.concat(user.getTasksAuthor().stream(), user.getTasksAssignee().stream())
+                .distinct()
+                .toList();
+        List<Long> taskIds = tasks.stream().map(Task::getId).toList();
+        List<Long> commentedTaskIds = user.getComments().stream()
+                .map(comment -> comment.getTask().getId())
+                .distinct()
+                .toList();
+        // The cascade also removes the comments of other users on those tasks, it loads them anyway
+        List<Comment> comments = Stream.concat(user.getComments().stream(),
+                        tasks.stream().flatMap(task -> task.getComments().stream()))
+                .distinct()
+                .toList();
+        outboxService.recordComments(comments, EventType.DELETED);
         userRepository.deleteById(id);
+        outboxService.recordUser(id, EventType.DELETED);
+        outboxService.recordTasks(taskIds, EventType.DELETED);
+        userAuthenticationCache.evict(user.getUsername());
+        taskRsCache.evict(taskIds);
+        taskRsCache.evictComments(commentedTaskIds);
     }
 
     @Override
@@ -142,6 +234,22 @@ public class UserService implements UserDetailsService {
                 ));
     }
 
+    /**
+     * Replaces the stored hash after a successful login when the encoder asks for a rehash,
+     * e.g. because the BCrypt cost factor was changed.
+     */
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails userDetails, String newPassword) {
+        User user = userRepository.findByUsername(userDetails.getUsername())
+                .orElseThrow(() -> new UsernameNotFoundException(
+                        MessageFormatter.format("User with userName {} not found", userDetails.getUsername()).getMessage()
+                ));
+        user.setPassword(newPassword);
+        userAuthenticationCache.evict(user.getUsername());
+        return new AppUserDetails(userRepository.save(user));
+    }
+
     @Transactional
     public void changePassword(Long userId, @NotNull PasswordRq rq) {
         User user = findById(userId);
@@ -157,7 +265,9 @@ public class UserService implements UserDetailsService {
             throw new PasswordChangeIllegalArgumentException("New password does not conform to password policy");
         }
         user.setPassword(passwordEncoder.encode(rq.newPassword()));
-        redisCacheClient.delete("whitelist:" + userId);
+        tokenWhitelistCache.revoke(userId);
+        userAuthenticationCache.evict(user.getUsername());
         userRepository.save(user);
+        outboxService.recordUser(userId, EventType.UPDATED);
     }
 }
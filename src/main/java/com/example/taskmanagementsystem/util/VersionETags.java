@@ -0,0 +1,86 @@
+package com.example.taskmanagementsystem.util;
+
+import com.example.taskmanagementsystem.dto.Result;
+import com.example.taskmanagementsystem.exception.PreconditionFailedException;
+import lombok.experimental.UtilityClass;
+import org.slf4j.helpers.MessageFormatter;
+import org.springframework.http.ETag;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Writes the {@code ETag} of a read and reads the {@code If-Match} header of a conditional update. The ETag of a
+ * task or user is its {@code @Version} as a strong tag, e.g. {@code "3"}. Representations that depend on more than
+ * one row get a weak tag hashed from the versions they are built from.
+ */
+@UtilityClass
+public class VersionETags {
+
+    /**
+     * Formats a version as a strong ETag.
+     *
+     * @param version the version of the entity
+     * @return the quoted version
+     */
+    public String eTag(Long version) {
+        return "\"" + version + "\"";
+    }
+
+    /**
+     * Hashes the state a representation is built from into a weak ETag.
+     *
+     * @param validator ids, versions and counts that change whenever the representation does
+     * @return the weak ETag
+     */
+    public String weakETag(CharSequence validator) {
+        return "W/\"" + DigestUtils.md5DigestAsHex(validator.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
+    /**
+     * Wraps a result in a 200 response carrying the version as its ETag.
+     *
+     * @param version the version of the returned entity, the header is omitted when null
+     * @param result  the body
+     * @return the response
+     */
+    public ResponseEntity<Result> ok(Long version, Result result) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok();
+        if (version != null) {
+            builder.eTag(version.toString());
+        }
+        return builder.body(result);
+    }
+
+    /**
+     * Parses the version a client expects to overwrite.
+     *
+     * @param ifMatch the {@code If-Match} header, may be null
+     * @return the expected version, or null when the header is missing or {@code *}
+     * @throws PreconditionFailedException if the header is not a single strong ETag holding a version, as it can
+     *                                     never match the current one
+     */
+    public Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank()) {
+            return null;
+        }
+        List<ETag> eTags = ETag.parse(ifMatch);
+        if (eTags.size() == 1) {
+            ETag eTag = eTags.get(0);
+            if (eTag.isWildcard()) {
+                return null;
+            }
+            if (!eTag.weak()) {
+                try {
+                    return Long.valueOf(eTag.tag());
+                } catch (NumberFormatException ignored) {
+                    // Not an ETag issued by this API, falls through to the failed precondition
+                }
+            }
+        }
+        throw new PreconditionFailedException(
+                MessageFormatter.format("If-Match {} does not match the current version", ifMatch).getMessage());
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.taskmanagementsystem.validation;
 
+import com.example.taskmanagementsystem.dto.PageMode;
 import com.example.taskmanagementsystem.dto.task.TaskFilter;
 import jakarta.validation.ConstraintValidator;
 import jakarta.validation.ConstraintValidatorContext;
@@ -8,6 +9,9 @@ public class TaskFilterValidValidator implements ConstraintValidator<TaskFilterV
     @Override
     public boolean isValid(TaskFilter value, ConstraintValidatorContext context) {
 
+        if (value.getMode() == PageMode.CURSOR) {
+            return value.getPageSize() != null;
+        }
         return value.getPageNumber() != null && value.getPageSize() != null;
     }
 }
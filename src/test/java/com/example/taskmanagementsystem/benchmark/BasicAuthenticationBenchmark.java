@@ -0,0 +1,72 @@
+package com.example.taskmanagementsystem.benchmark;
+
+import com.example.taskmanagementsystem.client.rediscache.CacheInvalidationBus;
+import com.example.taskmanagementsystem.entity.RoleType;
+import com.example.taskmanagementsystem.entity.User;
+import com.example.taskmanagementsystem.security.AppUserDetails;
+import com.example.taskmanagementsystem.security.CachingDaoAuthenticationProvider;
+import com.example.taskmanagementsystem.security.TunableBCryptPasswordEncoder;
+import com.example.taskmanagementsystem.security.UserAuthenticationCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of authenticating a repeated HTTP Basic request with {@link CachingDaoAuthenticationProvider} against
+ * a plain {@link DaoAuthenticationProvider}, both at the default BCrypt cost of 12. The user is loaded from
+ * memory, so the database query saved by the cache is not part of the numbers. Run with
+ * {@code mvn test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test
+ * -Dexec.args="-cp %classpath org.openjdk.jmh.Main BasicAuthenticationBenchmark"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BasicAuthenticationBenchmark {
+
+    private DaoAuthenticationProvider daoProvider;
+    private CachingDaoAuthenticationProvider cachingProvider;
+    private UsernamePasswordAuthenticationToken credentials;
+
+    @Setup
+    public void setUp() {
+        PasswordEncoder passwordEncoder = new TunableBCryptPasswordEncoder(12);
+        AppUserDetails user = new AppUserDetails(User.builder()
+                .id(2L)
+                .username("user1")
+                .password(passwordEncoder.encode("Password123"))
+                .roles(Set.of(RoleType.ROLE_USER))
+                .enabled(true)
+                .build());
+        UserDetailsService userDetailsService = username -> user;
+
+        daoProvider = new DaoAuthenticationProvider(passwordEncoder);
+        daoProvider.setUserDetailsService(userDetailsService);
+        UserAuthenticationCache userAuthenticationCache = new UserAuthenticationCache(new CacheInvalidationBus(null),
+                new SimpleMeterRegistry(), 1000, Duration.ofMinutes(1), 1000, Duration.ofMinutes(5));
+        cachingProvider = new CachingDaoAuthenticationProvider(passwordEncoder, userDetailsService,
+                (userDetails, newPassword) -> userDetails, userAuthenticationCache);
+        credentials = UsernamePasswordAuthenticationToken.unauthenticated("user1", "Password123");
+        cachingProvider.authenticate(credentials);
+    }
+
+    @Benchmark
+    public Authentication dao() {
+        return daoProvider.authenticate(credentials);
+    }
+
+    @Benchmark
+    public Authentication cached() {
+        return cachingProvider.authenticate(credentials);
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.taskmanagementsystem.benchmark;
+
+import jakarta.persistence.*;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Configuration;
+import org.openjdk.jmh.annotations.*;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.utility.DockerImageName;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rows per second inserted by Hibernate into PostgreSQL, {@value #ROWS} tasks per transaction, with the id
+ * mapping the entities used to have ({@code identity}: every insert is its own round trip, since the id is
+ * read back from it) against the current one ({@code sequence}: ids from a pooled-lo sequence, one
+ * {@code nextval} per 50 rows and the inserts sent in JDBC batches of 50). Both run with the batching settings
+ * of {@code application.yml} and {@code reWriteBatchedInserts} of the PostgreSQL profiles. Needs Docker for
+ * the PostgreSQL container. Run with {@code mvn test-compile exec:exec -Dexec.executable=java
+ * -Dexec.classpathScope=test -Dexec.args="-cp %classpath org.openjdk.jmh.Main BulkInsertBenchmark"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BulkInsertBenchmark {
+
+    private static final int ROWS = 1_000;
+
+    @Param({"identity", "sequence"})
+    public String idGeneration;
+
+    private PostgreSQLContainer<?> postgresContainer;
+    private SessionFactory sessionFactory;
+
+    @Setup
+    public void setUp() {
+        postgresContainer = new PostgreSQLContainer<>(DockerImageName.parse("postgres:16-alpine"));
+        postgresContainer.start();
+        sessionFactory = new Configuration()
+                .addAnnotatedClass(IdentityTask.class)
+                .addAnnotatedClass(SequenceTask.class)
+                .setProperty(AvailableSettings.JAKARTA_JDBC_URL, postgresContainer.getJdbcUrl() + "&reWriteBatchedInserts=true")
+                .setProperty(AvailableSettings.JAKARTA_JDBC_USER, postgresContainer.getUsername())
+                .setProperty(AvailableSettings.JAKARTA_JDBC_PASSWORD, postgresContainer.getPassword())
+                .setProperty(AvailableSettings.HBM2DDL_AUTO, "create")
+                .setProperty(AvailableSettings.PREFERRED_POOLED_OPTIMIZER, "pooled-lo")
+                .setProperty(AvailableSettings.STATEMENT_BATCH_SIZE, "50")
+                .setProperty(AvailableSettings.ORDER_INSERTS, "true")
+                .buildSessionFactory();
+    }
+
+    @TearDown
+    public void tearDown() {
+        sessionFactory.close();
+        postgresContainer.stop();
+    }
+
+    @TearDown(Level.Iteration)
+    public void truncate() {
+        sessionFactory.inTransaction(session -> session.createNativeMutationQuery(
+                "TRUNCATE bench_tasks_identity, bench_tasks_sequence").executeUpdate());
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void insert() {
+        boolean identity = idGeneration.equals("identity");
+        sessionFactory.inTransaction(session -> {
+            for (int i = 0; i < ROWS; i++) {
+                BenchTask task = identity ? new IdentityTask() : new SequenceTask();
+                task.title = "task " + i;
+                task.description = "description of task " + i;
+                task.status = "WAITING";
+                task.priority = "MEDIUM";
+                task.createdAt = Instant.now();
+                session.persist(task);
+            }
+        });
+    }
+
+    @MappedSuperclass
+    public abstract static class BenchTask {
+
+        @Version
+        Long version;
+
+        String title;
+
+        String description;
+
+        String status;
+
+        String priority;
+
+        Instant createdAt;
+    }
+
+    @Entity
+    @Table(name = "bench_tasks_identity")
+    public static class IdentityTask extends BenchTask {
+
+        @Id
+        @GeneratedValue(strategy = GenerationType.IDENTITY)
+        Long id;
+    }
+
+    @Entity
+    @Table(name = "bench_tasks_sequence")
+    public static class SequenceTask extends BenchTask {
+
+        @Id
+        @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bench_tasks_seq")
+        @SequenceGenerator(name = "bench_tasks_seq", sequenceName = "bench_tasks_seq", allocationSize = 50)
+        Long id;
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.taskmanagementsystem.benchmark;
+
+import com.example.taskmanagementsystem.client.rediscache.CacheClient;
+import com.example.taskmanagementsystem.client.rediscache.EmbeddedCacheClient;
+import com.example.taskmanagementsystem.client.rediscache.RedisCacheClient;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.util.unit.DataSize;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of the token whitelist operations of {@code UserService} on each {@link CacheClient}: {@code set} on
+ * login, {@code get} on every request missing the local copy and {@code delete} on a password change, over
+ * 10,000 users. At the start of each fork the footprint of the whitelist is logged: the {@code cache.embedded.weight}
+ * estimate and the retained heap growth for {@code embedded}, the {@code used_memory} growth reported by
+ * {@code INFO memory} for {@code redis}. The {@code redis} backend needs a Redis server on {@code localhost:6379}.
+ * Run with
+ * {@code mvn test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test
+ * -Dexec.args="-cp %classpath org.openjdk.jmh.Main CacheClientBenchmark -prof gc"}.
+ */
+@Slf4j
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CacheClientBenchmark {
+
+    private static final int USERS = 10_000;
+
+    @Param({"embedded", "redis"})
+    public String backend;
+
+    private CacheClient cacheClient;
+    private SimpleMeterRegistry meterRegistry;
+    private LettuceConnectionFactory connectionFactory;
+    private String tokenId;
+
+    @Setup
+    public void setUp() throws InterruptedException {
+        meterRegistry = new SimpleMeterRegistry();
+        if (backend.equals("redis")) {
+            connectionFactory = new LettuceConnectionFactory(new RedisStandaloneConfiguration("localhost", 6379));
+            connectionFactory.afterPropertiesSet();
+            cacheClient = new RedisCacheClient(connectionFactory, meterRegistry, Duration.ofSeconds(1),
+                    5, Duration.ofSeconds(5));
+            awaitConnection();
+        } else {
+            cacheClient = new EmbeddedCacheClient(meterRegistry, DataSize.ofMegabytes(64),
+                    Duration.ofMillis(100));
+        }
+        tokenId = UUID.randomUUID().toString();
+        List<String> keys = new ArrayList<>(USERS);
+        for (int i = 0; i < USERS; i++) {
+            keys.add(key(i));
+        }
+        cacheClient.delete(keys);
+
+        long footprint = footprint();
+        for (int i = 0; i < USERS; i++) {
+            cacheClient.set(key(i), tokenId, 2, TimeUnit.HOURS);
+        }
+        footprint = footprint() - footprint;
+        if (backend.equals("redis")) {
+            log.info("Whitelisting {} users takes {} bytes of Redis used_memory, {} per user", USERS, footprint,
+                    footprint / USERS);
+        } else {
+            double weight = meterRegistry.get("cache.embedded.weight").gauge().value();
+            log.info("Whitelisting {} users takes {} bytes of retained heap, {} per user, cache.embedded.weight is {}",
+                    USERS, footprint, footprint / USERS, (long) weight);
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        ((DisposableBean) cacheClient).destroy();
+        if (connectionFactory != null) {
+            connectionFactory.destroy();
+        }
+    }
+
+    @Benchmark
+    public void set() {
+        cacheClient.set(key(ThreadLocalRandom.current().nextInt(USERS)), tokenId, 2, TimeUnit.HOURS);
+    }
+
+    @Benchmark
+    public String get() {
+        return cacheClient.get(key(ThreadLocalRandom.current().nextInt(USERS)));
+    }
+
+    @Benchmark
+    public void delete() {
+        cacheClient.delete(key(USERS + ThreadLocalRandom.current().nextInt(USERS)));
+    }
+
+    /**
+     * Memory taken on the backend: Redis {@code used_memory}, or the heap used after a full collection.
+     */
+    private long footprint() {
+        if (backend.equals("redis")) {
+            try (RedisConnection connection = connectionFactory.getConnection()) {
+                return Long.parseLong(connection.serverCommands().info("memory").getProperty("used_memory"));
+            }
+        }
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    private void awaitConnection() throws InterruptedException {
+        for (int i = 0; i < 200; i++) {
+            try {
+                cacheClient.get(key(0));
+                return;
+            } catch (RuntimeException ex) {
+                Thread.sleep(50);
+            }
+        }
+        throw new IllegalStateException("Redis is not reachable on localhost:6379");
+    }
+
+    private static String key(int userId) {
+        return "whitelist:" + userId;
+    }
+}
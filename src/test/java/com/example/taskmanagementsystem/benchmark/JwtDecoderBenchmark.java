@@ -0,0 +1,91 @@
+package com.example.taskmanagementsystem.benchmark;
+
+import com.example.taskmanagementsystem.security.CachingJwtDecoder;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.source.ImmutableJWKSet;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.oauth2.jwt.*;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.NoSuchAlgorithmException;
+import java.security.interfaces.RSAPrivateKey;
+import java.security.interfaces.RSAPublicKey;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decode throughput of an RS256 access token with and without {@link CachingJwtDecoder}.
+ * <p>
+ * Requests cycle through {@code tokens} distinct tokens, as issued by {@code JwtProvider}, so the cached
+ * decoder is measured with a warm cache of that size. Run with
+ * {@code mvn test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test
+ * -Dexec.args="-cp %classpath org.openjdk.jmh.Main JwtDecoderBenchmark"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtDecoderBenchmark {
+
+    @Param({"1000"})
+    int tokens;
+
+    private JwtDecoder nimbusDecoder;
+    private JwtDecoder cachingDecoder;
+    private String[] encodedTokens;
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next;
+    }
+
+    @Setup
+    public void setUp() throws NoSuchAlgorithmException {
+        KeyPairGenerator keyPairGenerator = KeyPairGenerator.getInstance("RSA");
+        keyPairGenerator.initialize(2048);
+        KeyPair keyPair = keyPairGenerator.generateKeyPair();
+        RSAPublicKey publicKey = (RSAPublicKey) keyPair.getPublic();
+        RSAKey jwk = new RSAKey.Builder(publicKey).privateKey((RSAPrivateKey) keyPair.getPrivate()).build();
+        JwtEncoder encoder = new NimbusJwtEncoder(new ImmutableJWKSet<>(new JWKSet(jwk)));
+
+        nimbusDecoder = NimbusJwtDecoder.withPublicKey(publicKey).build();
+        cachingDecoder = new CachingJwtDecoder(NimbusJwtDecoder.withPublicKey(publicKey).build(),
+                new SimpleMeterRegistry(), tokens);
+        encodedTokens = new String[tokens];
+        Instant now = Instant.now();
+        for (int i = 0; i < tokens; i++) {
+            JwtClaimsSet claims = JwtClaimsSet.builder()
+                    .id(UUID.randomUUID().toString())
+                    .issuer("self")
+                    .issuedAt(now)
+                    .expiresAt(now.plus(2, ChronoUnit.HOURS))
+                    .subject("user" + i)
+                    .claim("userId", (long) i)
+                    .claim("authorities", "ROLE_USER")
+                    .build();
+            encodedTokens[i] = encoder.encode(JwtEncoderParameters.from(claims)).getTokenValue();
+        }
+    }
+
+    @Benchmark
+    public Jwt nimbus(Cursor cursor) {
+        return nimbusDecoder.decode(nextToken(cursor));
+    }
+
+    @Benchmark
+    public Jwt cached(Cursor cursor) {
+        return cachingDecoder.decode(nextToken(cursor));
+    }
+
+    private String nextToken(Cursor cursor) {
+        cursor.next = (cursor.next + 1) % encodedTokens.length;
+        return encodedTokens[cursor.next];
+    }
+}
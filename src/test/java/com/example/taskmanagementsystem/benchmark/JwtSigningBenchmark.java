@@ -0,0 +1,67 @@
+package com.example.taskmanagementsystem.benchmark;
+
+import com.example.taskmanagementsystem.security.JwkJwtEncoder;
+import com.example.taskmanagementsystem.security.JwkSetJwtProcessor;
+import com.example.taskmanagementsystem.security.JwtSigningAlgorithm;
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSet;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.oauth2.jwt.*;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sign (login) and verify (every authenticated request) throughput of an access token per
+ * {@link JwtSigningAlgorithm}. Verification goes through {@code NimbusJwtDecoder} without the token cache,
+ * so it includes parsing and claim validation. Run with
+ * {@code mvn test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test
+ * -Dexec.args="-cp %classpath org.openjdk.jmh.Main JwtSigningBenchmark"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtSigningBenchmark {
+
+    @Param({"RS256", "ES256", "EdDSA"})
+    JwtSigningAlgorithm algorithm;
+
+    private JwtEncoder encoder;
+    private JwtDecoder decoder;
+    private JwtEncoderParameters parameters;
+    private String token;
+
+    @Setup
+    public void setUp() throws JOSEException {
+        JWK key = algorithm.generateKey(UUID.randomUUID().toString());
+        encoder = new JwkJwtEncoder(key, algorithm);
+        decoder = new NimbusJwtDecoder(new JwkSetJwtProcessor(new JWKSet(key.toPublicJWK())));
+        Instant now = Instant.now();
+        parameters = JwtEncoderParameters.from(JwtClaimsSet.builder()
+                .id(UUID.randomUUID().toString())
+                .issuer("self")
+                .issuedAt(now)
+                .expiresAt(now.plus(2, ChronoUnit.HOURS))
+                .subject("user1")
+                .claim("userId", 2L)
+                .claim("authorities", "ROLE_USER")
+                .build());
+        token = encoder.encode(parameters).getTokenValue();
+    }
+
+    @Benchmark
+    public Jwt sign() {
+        return encoder.encode(parameters);
+    }
+
+    @Benchmark
+    public Jwt verify() {
+        return decoder.decode(token);
+    }
+}
@@ -0,0 +1,171 @@
+package com.example.taskmanagementsystem.benchmark;
+
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.source.ImmutableJWKSet;
+import lombok.extern.slf4j.Slf4j;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.NoSuchAlgorithmException;
+import java.security.interfaces.RSAPrivateKey;
+import java.security.interfaces.RSAPublicKey;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of whitelisting the encoded RS256 access token versus only its {@code jti} claim in Redis, over
+ * {@code users} logged-in users: {@code set} on login and {@code get} on every request missing the local copy of
+ * {@code TokenWhitelistCache}. At the start of each fork two sizes are logged: the Redis memory taken per
+ * whitelisted user, i.e. the {@code used_memory} growth of filling the whitelist, and the bytes Redis sends back
+ * per whitelist {@code GET}, i.e. the {@code total_net_output_bytes} growth of {@value #SAMPLED_GETS} lookups.
+ * Needs a Redis server on {@code localhost:6379} with about 800 MB to spare at 1M users, the whitelist keys are
+ * removed afterwards. Run with
+ * {@code mvn test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test
+ * -Dexec.args="-cp %classpath org.openjdk.jmh.Main TokenWhitelistBenchmark"}, add {@code -p users=100000}
+ * for a quicker run.
+ */
+@Slf4j
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TokenWhitelistBenchmark {
+
+    private static final int CHUNK_SIZE = 1000;
+    private static final int SAMPLED_GETS = 10_000;
+
+    @Param({"token", "jti"})
+    public String stored;
+
+    @Param({"1000000"})
+    public int users;
+
+    private LettuceConnectionFactory connectionFactory;
+    private StringRedisTemplate redisTemplate;
+    private String value;
+
+    @Setup
+    public void setUp() throws NoSuchAlgorithmException {
+        connectionFactory = new LettuceConnectionFactory(new RedisStandaloneConfiguration("localhost", 6379));
+        connectionFactory.afterPropertiesSet();
+        redisTemplate = new StringRedisTemplate(connectionFactory);
+
+        Jwt token = issueToken();
+        value = stored.equals("jti") ? token.getId() : token.getTokenValue();
+
+        deleteWhitelist();
+        long usedMemory = usedMemory();
+        long ttl = TimeUnit.HOURS.toSeconds(2);
+        for (int from = 0; from < users; from += CHUNK_SIZE) {
+            int to = Math.min(from + CHUNK_SIZE, users);
+            int first = from;
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                StringRedisConnection stringConnection = (StringRedisConnection) connection;
+                for (int userId = first; userId < to; userId++) {
+                    stringConnection.setEx(key(userId), ttl, value);
+                }
+                return null;
+            });
+        }
+        log.info("Whitelisting the {} ({} chars) of {} users takes {} bytes of Redis memory per user", stored,
+                value.length(), users, (usedMemory() - usedMemory) / users);
+        log.info("A whitelist GET of the {} gets {} bytes back from Redis", stored, replyBytesPerGet());
+    }
+
+    @TearDown
+    public void tearDown() {
+        deleteWhitelist();
+        connectionFactory.destroy();
+    }
+
+    @Benchmark
+    public void set() {
+        redisTemplate.opsForValue().set(key(ThreadLocalRandom.current().nextInt(users)), value, 2, TimeUnit.HOURS);
+    }
+
+    @Benchmark
+    public boolean get() {
+        return value.equals(redisTemplate.opsForValue().get(key(ThreadLocalRandom.current().nextInt(users))));
+    }
+
+    private static Jwt issueToken() throws NoSuchAlgorithmException {
+        KeyPairGenerator keyPairGenerator = KeyPairGenerator.getInstance("RSA");
+        keyPairGenerator.initialize(2048);
+        KeyPair keyPair = keyPairGenerator.generateKeyPair();
+        RSAKey jwk = new RSAKey.Builder((RSAPublicKey) keyPair.getPublic())
+                .privateKey((RSAPrivateKey) keyPair.getPrivate())
+                .build();
+        NimbusJwtEncoder encoder = new NimbusJwtEncoder(new ImmutableJWKSet<>(new JWKSet(jwk)));
+        Instant now = Instant.now();
+        return encoder.encode(JwtEncoderParameters.from(JwtClaimsSet.builder()
+                .id(UUID.randomUUID().toString())
+                .issuer("self")
+                .issuedAt(now)
+                .expiresAt(now.plus(2, ChronoUnit.HOURS))
+                .subject("user1")
+                .claim("userId", 2L)
+                .claim("authorities", "ROLE_USER")
+                .build()));
+    }
+
+    private void deleteWhitelist() {
+        for (int from = 0; from < users; from += CHUNK_SIZE) {
+            List<String> keys = new ArrayList<>(CHUNK_SIZE);
+            for (int userId = from; userId < Math.min(from + CHUNK_SIZE, users); userId++) {
+                keys.add(key(userId));
+            }
+            redisTemplate.delete(keys);
+        }
+    }
+
+    /**
+     * Output bytes counted by Redis for {@value #SAMPLED_GETS} lookups, less those of the {@code INFO} replies
+     * reading the counter.
+     */
+    private long replyBytesPerGet() {
+        long before = netOutputBytes();
+        long infoBytes = netOutputBytes() - before;
+        long netOutputBytes = netOutputBytes();
+        for (int i = 0; i < SAMPLED_GETS; i++) {
+            redisTemplate.opsForValue().get(key(ThreadLocalRandom.current().nextInt(users)));
+        }
+        return (netOutputBytes() - netOutputBytes - infoBytes) / SAMPLED_GETS;
+    }
+
+    private long usedMemory() {
+        return Long.parseLong(info("memory", "used_memory"));
+    }
+
+    private long netOutputBytes() {
+        return Long.parseLong(info("stats", "total_net_output_bytes"));
+    }
+
+    private String info(String section, String property) {
+        try (RedisConnection connection = connectionFactory.getConnection()) {
+            return connection.serverCommands().info(section).getProperty(property);
+        }
+    }
+
+    private static String key(int userId) {
+        return "whitelist:" + userId;
+    }
+}
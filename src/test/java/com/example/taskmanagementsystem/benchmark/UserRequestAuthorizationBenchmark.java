@@ -0,0 +1,81 @@
+package com.example.taskmanagementsystem.benchmark;
+
+import com.example.taskmanagementsystem.security.UserJwtAuthenticationConverter;
+import com.example.taskmanagementsystem.security.UserRequestAuthorizationManager;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
+import org.springframework.security.oauth2.server.resource.authentication.JwtGrantedAuthoritiesConverter;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
+import org.springframework.web.util.UriTemplate;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Cost of authorizing a user reading their own profile with {@link UserRequestAuthorizationManager},
+ * against the previous {@code UriTemplate} and authority stream implementation. Run with {@code -prof gc}
+ * for the allocation rate:
+ * {@code mvn test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test
+ * -Dexec.args="-cp %classpath org.openjdk.jmh.Main UserRequestAuthorizationBenchmark -prof gc"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserRequestAuthorizationBenchmark {
+
+    private static final UriTemplate USER_URI_TEMPLATE = new UriTemplate("/user/{id}");
+
+    private UserRequestAuthorizationManager manager;
+    private RequestAuthorizationContext context;
+    private Supplier<Authentication> userAuthentication;
+    private Supplier<Authentication> previousUserAuthentication;
+
+    @Setup
+    public void setUp() {
+        manager = new UserRequestAuthorizationManager("/api/v1");
+        context = new RequestAuthorizationContext(new MockHttpServletRequest("GET", "/api/v1/user/2"));
+        Jwt jwt = Jwt.withTokenValue("token")
+                .header("alg", "RS256")
+                .subject("user1")
+                .claim("userId", 2L)
+                .claim("authorities", "ROLE_USER")
+                .build();
+        Authentication authentication = new UserJwtAuthenticationConverter().convert(jwt);
+        userAuthentication = () -> authentication;
+
+        JwtGrantedAuthoritiesConverter jwtGrantedAuthoritiesConverter = new JwtGrantedAuthoritiesConverter();
+        jwtGrantedAuthoritiesConverter.setAuthoritiesClaimName("authorities");
+        jwtGrantedAuthoritiesConverter.setAuthorityPrefix("");
+        JwtAuthenticationConverter jwtAuthenticationConverter = new JwtAuthenticationConverter();
+        jwtAuthenticationConverter.setJwtGrantedAuthoritiesConverter(jwtGrantedAuthoritiesConverter);
+        Authentication previousAuthentication = jwtAuthenticationConverter.convert(jwt);
+        previousUserAuthentication = () -> previousAuthentication;
+    }
+
+    @Benchmark
+    public AuthorizationDecision current() {
+        return manager.check(userAuthentication, context);
+    }
+
+    @Benchmark
+    public AuthorizationDecision previous() {
+        Map<String, String> uriVariables = USER_URI_TEMPLATE.match(context.getRequest().getRequestURI());
+        String uriUserId = uriVariables.get("id");
+        Authentication authentication = previousUserAuthentication.get();
+        String jwtUserId = ((Jwt) (authentication.getPrincipal())).getClaim("userId").toString();
+        boolean hasUserRole = authentication.getAuthorities().stream()
+                .anyMatch(grantedAuthority -> grantedAuthority.getAuthority().equals("ROLE_USER"));
+        boolean hasAdminRole = authentication.getAuthorities().stream()
+                .anyMatch(grantedAuthority -> grantedAuthority.getAuthority().equals("ROLE_ADMIN"));
+        boolean userIdsMatch = uriUserId != null && uriUserId.equals(jwtUserId);
+        return new AuthorizationDecision(hasAdminRole || (hasUserRole && userIdsMatch));
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.taskmanagementsystem.client.rediscache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EmbeddedCacheClientTest {
+
+    private final AtomicLong clock = new AtomicLong();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final EmbeddedCacheClient cacheClient = new EmbeddedCacheClient(meterRegistry, DataSize.ofKilobytes(64),
+            Duration.ofMillis(100), clock::get);
+
+    @AfterEach
+    void tearDown() {
+        cacheClient.destroy();
+    }
+
+    @Test
+    void get_ShouldReturnValue_UntilTimeToLivePassed() {
+        cacheClient.set("whitelist:2", "jti-1", 2, TimeUnit.SECONDS);
+
+        advance(Duration.ofMillis(1999));
+        assertEquals("jti-1", cacheClient.get("whitelist:2"));
+
+        advance(Duration.ofMillis(1));
+        assertNull(cacheClient.get("whitelist:2"));
+    }
+
+    @Test
+    void expire_ShouldDropExpiredEntries() {
+        cacheClient.set("whitelist:2", "jti-1", 2, TimeUnit.HOURS);
+        cacheClient.set("whitelist:3", "jti-2", 10, TimeUnit.SECONDS);
+        long weight = cacheClient.weight();
+
+        advance(Duration.ofSeconds(10));
+
+        assertEquals(1.0, meterRegistry.get("cache.size").gauge().value());
+        assertTrue(cacheClient.weight() < weight);
+        assertEquals("jti-1", cacheClient.get("whitelist:2"));
+    }
+
+    @Test
+    void set_ShouldReplaceValueAndTimeToLive() {
+        cacheClient.set("whitelist:2", "jti-1", 1, TimeUnit.SECONDS);
+        cacheClient.set("whitelist:2", "jti-2", 1, TimeUnit.MINUTES);
+        long weight = cacheClient.weight();
+
+        advance(Duration.ofSeconds(5));
+
+        assertEquals("jti-2", cacheClient.get("whitelist:2"));
+        assertEquals(weight, cacheClient.weight());
+    }
+
+    @Test
+    void delete_ShouldRemoveEntries() {
+        cacheClient.multiSet(Map.of("task:1", "a", "task:1:comments", "b", "task:2", "c"), 10, TimeUnit.MINUTES);
+
+        cacheClient.delete("task:2");
+        cacheClient.delete(List.of("task:1", "task:1:comments"));
+
+        assertEquals(Arrays.asList(null, null, null), cacheClient.multiGet(List.of("task:1", "task:1:comments", "task:2")));
+        assertEquals(0, cacheClient.weight());
+    }
+
+    @Test
+    void set_ShouldEvictEntriesClosestToExpiry_WhenMaxSizeIsExceeded() {
+        String value = "x".repeat(1000);
+        Map<String, String> entries = new LinkedHashMap<>();
+        for (int i = 0; i < 30; i++) {
+            entries.put("task:" + i, value);
+        }
+        cacheClient.set("whitelist:2", "jti-1", 1, TimeUnit.MINUTES);
+        cacheClient.set("whitelist:3", "jti-2", 2, TimeUnit.HOURS);
+
+        cacheClient.multiSet(entries, 10, TimeUnit.MINUTES);
+
+        assertTrue(cacheClient.weight() <= DataSize.ofKilobytes(64).toBytes());
+        assertNull(cacheClient.get("whitelist:2"));
+        assertEquals("jti-2", cacheClient.get("whitelist:3"));
+        assertEquals(value, cacheClient.get("task:29"));
+        assertTrue(meterRegistry.get("cache.evictions").counter().count() > 0);
+    }
+
+    private void advance(Duration duration) {
+        clock.addAndGet(duration.toNanos());
+        cacheClient.expire();
+    }
+}
@@ -0,0 +1,208 @@
+package com.example.taskmanagementsystem.client.rediscache;
+
+import io.lettuce.core.KeyValue;
+import io.lettuce.core.RedisCommandExecutionException;
+import io.lettuce.core.RedisException;
+import io.lettuce.core.RedisFuture;
+import io.lettuce.core.SetArgs;
+import io.lettuce.core.XAddArgs;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.api.async.RedisAsyncCommands;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.redis.RedisConnectionFailureException;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class RedisCacheClientTest {
+
+    private static final Duration TIMEOUT = Duration.ofMillis(50);
+
+    @Mock
+    private StatefulRedisConnection<String, String> connection;
+    @Mock
+    private RedisAsyncCommands<String, String> commands;
+
+    private RedisCacheClient redisCacheClient;
+
+    @BeforeEach
+    void setUp() throws InterruptedException {
+        when(connection.async()).thenReturn(commands);
+        redisCacheClient = new RedisCacheClient(() -> connection, new RedisCircuitBreaker(2, Duration.ofMinutes(1)),
+                new SimpleMeterRegistry(), TIMEOUT);
+        for (int i = 0; i < 100 && !redisCacheClient.isConnected(); i++) {
+            Thread.sleep(10);
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        redisCacheClient.destroy();
+    }
+
+    @Test
+    void get_ShouldReturnValue_WhenRedisReplies() {
+        when(commands.get("key")).thenReturn(completed("value"));
+
+        assertEquals("value", redisCacheClient.get("key"));
+    }
+
+    @Test
+    void get_ShouldThrowQueryTimeoutException_WhenDeadlinePasses() {
+        TestRedisFuture<String> pending = new TestRedisFuture<>();
+        when(commands.get("key")).thenReturn(pending);
+
+        long start = System.nanoTime();
+        assertThrows(QueryTimeoutException.class, () -> redisCacheClient.get("key"));
+
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(1));
+        assertTrue(pending.isCancelled());
+    }
+
+    @Test
+    void get_ShouldTranslateCommandFailure() {
+        TestRedisFuture<String> failed = new TestRedisFuture<>();
+        failed.completeExceptionally(new RedisCommandExecutionException("WRONGTYPE"));
+        when(commands.get("key")).thenReturn(failed);
+
+        assertThrows(DataAccessException.class, () -> redisCacheClient.get("key"));
+    }
+
+    @Test
+    void get_ShouldRejectWithoutCallingRedis_WhenCircuitIsOpen() {
+        when(commands.get("key")).thenAnswer(invocation -> new TestRedisFuture<>());
+        assertThrows(QueryTimeoutException.class, () -> redisCacheClient.get("key"));
+        assertThrows(QueryTimeoutException.class, () -> redisCacheClient.get("key"));
+
+        assertThrows(RedisConnectionFailureException.class, () -> redisCacheClient.get("key"));
+        verify(commands, times(2)).get("key");
+    }
+
+    @Test
+    void multiGet_ShouldReadAllKeysWithSingleCommand() {
+        when(commands.mget("a", "b", "c")).thenReturn(completed(List.of(
+                KeyValue.just("a", "1"), KeyValue.empty("b"), KeyValue.just("c", "3"))));
+
+        assertEquals(Arrays.asList("1", null, "3"), redisCacheClient.multiGet(List.of("a", "b", "c")));
+    }
+
+    @Test
+    void multiSet_ShouldSendAllCommandsBeforeWaiting() {
+        Map<String, String> entries = new LinkedHashMap<>();
+        entries.put("a", "1");
+        entries.put("b", "2");
+        TestRedisFuture<String> first = new TestRedisFuture<>();
+        when(commands.set(anyString(), anyString(), any(SetArgs.class))).thenAnswer(invocation -> {
+            if (invocation.getArgument(0).equals("a")) {
+                return first;
+            }
+            // The reply to the first command arrives only after the second one was sent.
+            first.complete("OK");
+            return completed("OK");
+        });
+
+        redisCacheClient.multiSet(entries, 1, TimeUnit.MINUTES);
+
+        verify(commands, times(2)).set(anyString(), anyString(), any(SetArgs.class));
+    }
+
+    @Test
+    void appendToStream_ShouldSendOneTrimmedXaddPerEntry() {
+        when(commands.xadd(eq("stream"), any(XAddArgs.class), anyMap())).thenReturn(completed("1-0"));
+
+        redisCacheClient.appendToStream("stream", List.of(Map.of("id", "1"), Map.of("id", "2")), 1000);
+
+        verify(commands).xadd(eq("stream"), any(XAddArgs.class), eq(Map.of("id", "1")));
+        verify(commands).xadd(eq("stream"), any(XAddArgs.class), eq(Map.of("id", "2")));
+    }
+
+    @Test
+    void multiSet_ShouldCancelSentCommands_WhenSendingThrows() {
+        Map<String, String> entries = new LinkedHashMap<>();
+        entries.put("a", "1");
+        entries.put("b", "2");
+        TestRedisFuture<String> first = new TestRedisFuture<>();
+        when(commands.set(anyString(), anyString(), any(SetArgs.class))).thenAnswer(invocation -> {
+            if (invocation.getArgument(0).equals("a")) {
+                return first;
+            }
+            throw new RedisException("Connection is closed");
+        });
+
+        assertThrows(DataAccessException.class, () -> redisCacheClient.multiSet(entries, 1, TimeUnit.MINUTES));
+
+        assertTrue(first.isCancelled());
+    }
+
+    @Test
+    void call_ShouldReopenCircuit_WhenHalfOpenProbeThrowsWhileSending() throws InterruptedException {
+        RedisCircuitBreaker circuitBreaker = new RedisCircuitBreaker(1, Duration.ofMillis(20));
+        RedisCacheClient client = new RedisCacheClient(() -> connection, circuitBreaker, new SimpleMeterRegistry(), TIMEOUT);
+        for (int i = 0; i < 100 && !client.isConnected(); i++) {
+            Thread.sleep(10);
+        }
+        when(commands.get("key")).thenThrow(new RedisException("Connection is closed"));
+        assertThrows(DataAccessException.class, () -> client.get("key"));
+        assertEquals(RedisCircuitBreaker.State.OPEN, circuitBreaker.getState());
+
+        Thread.sleep(30);
+        assertThrows(DataAccessException.class, () -> client.get("key"));
+        assertEquals(RedisCircuitBreaker.State.OPEN, circuitBreaker.getState());
+
+        doReturn(completed("value")).when(commands).get("key");
+        Thread.sleep(30);
+        assertEquals("value", client.get("key"));
+        assertEquals(RedisCircuitBreaker.State.CLOSED, circuitBreaker.getState());
+        client.destroy();
+    }
+
+    @Test
+    void call_ShouldFailFast_WhenNotConnected() {
+        RedisCacheClient disconnected = new RedisCacheClient(() -> {
+            throw new IllegalStateException("Connection refused");
+        }, new RedisCircuitBreaker(5, Duration.ofMinutes(1)), new SimpleMeterRegistry(), TIMEOUT);
+
+        assertThrows(RedisConnectionFailureException.class, () -> disconnected.get("key"));
+        disconnected.destroy();
+    }
+
+    private static <T> RedisFuture<T> completed(T value) {
+        TestRedisFuture<T> future = new TestRedisFuture<>();
+        future.complete(value);
+        return future;
+    }
+
+    private static class TestRedisFuture<T> extends CompletableFuture<T> implements RedisFuture<T> {
+
+        @Override
+        public String getError() {
+            return null;
+        }
+
+        @Override
+        public boolean await(long timeout, TimeUnit unit) {
+            return isDone();
+        }
+    }
+}
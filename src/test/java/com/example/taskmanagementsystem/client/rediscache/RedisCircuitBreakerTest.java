@@ -0,0 +1,71 @@
+package com.example.taskmanagementsystem.client.rediscache;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RedisCircuitBreakerTest {
+
+    private final AtomicLong clock = new AtomicLong();
+    private final RedisCircuitBreaker circuitBreaker = new RedisCircuitBreaker(3, Duration.ofSeconds(5), clock::get);
+
+    @Test
+    void tryAcquire_ShouldRejectCalls_WhenFailuresReachThreshold() {
+        failTimes(2);
+        assertTrue(circuitBreaker.tryAcquire());
+
+        failTimes(1);
+
+        assertEquals(RedisCircuitBreaker.State.OPEN, circuitBreaker.getState());
+        assertFalse(circuitBreaker.tryAcquire());
+    }
+
+    @Test
+    void onSuccess_ShouldResetFailures() {
+        failTimes(2);
+        circuitBreaker.onSuccess();
+        failTimes(2);
+
+        assertEquals(RedisCircuitBreaker.State.CLOSED, circuitBreaker.getState());
+    }
+
+    @Test
+    void tryAcquire_ShouldLetSingleProbeThrough_WhenOpenDurationPassed() {
+        failTimes(3);
+        clock.addAndGet(Duration.ofSeconds(5).toNanos());
+
+        assertTrue(circuitBreaker.tryAcquire());
+        assertFalse(circuitBreaker.tryAcquire());
+        assertEquals(RedisCircuitBreaker.State.HALF_OPEN, circuitBreaker.getState());
+
+        circuitBreaker.onSuccess();
+
+        assertEquals(RedisCircuitBreaker.State.CLOSED, circuitBreaker.getState());
+        assertTrue(circuitBreaker.tryAcquire());
+    }
+
+    @Test
+    void onFailure_ShouldOpenAgain_WhenProbeFails() {
+        failTimes(3);
+        clock.addAndGet(Duration.ofSeconds(5).toNanos());
+        assertTrue(circuitBreaker.tryAcquire());
+
+        circuitBreaker.onFailure();
+
+        assertEquals(RedisCircuitBreaker.State.OPEN, circuitBreaker.getState());
+        clock.addAndGet(Duration.ofSeconds(4).toNanos());
+        assertFalse(circuitBreaker.tryAcquire());
+        clock.addAndGet(Duration.ofSeconds(1).toNanos());
+        assertTrue(circuitBreaker.tryAcquire());
+    }
+
+    private void failTimes(int times) {
+        for (int i = 0; i < times; i++) {
+            assertTrue(circuitBreaker.tryAcquire());
+            circuitBreaker.onFailure();
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.taskmanagementsystem.client.rediscache;
+
+import com.example.taskmanagementsystem.dto.task.TaskRs;
+import com.example.taskmanagementsystem.entity.Priority;
+import com.example.taskmanagementsystem.entity.Status;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TaskRsCacheTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @Mock
+    private CacheClient cacheClient;
+
+    private TaskRsCache taskRsCache;
+
+    @BeforeEach
+    void setUp() {
+        taskRsCache = new TaskRsCache(cacheClient, new CacheInvalidationBus(cacheClient), objectMapper,
+                new SimpleMeterRegistry(), Duration.ofMinutes(10), 100, Duration.ofSeconds(30));
+    }
+
+    @Test
+    void getIfPresent_ShouldReturnNull_WhenNotCached() {
+        when(cacheClient.get("task:1")).thenReturn(null);
+
+        assertNull(taskRsCache.getIfPresent(1L, false));
+    }
+
+    @Test
+    void getIfPresent_ShouldKeepRedisEntryLocally() throws Exception {
+        when(cacheClient.get("task:1")).thenReturn(objectMapper.writeValueAsString(taskRs(3L)));
+
+        assertEquals(3L, taskRsCache.getIfPresent(1L, false).version());
+        assertEquals(3L, taskRsCache.getIfPresent(1L, false).version());
+
+        verify(cacheClient, times(1)).get("task:1");
+    }
+
+    @Test
+    void load_ShouldCacheLoadedTask() {
+        TaskRs result = taskRsCache.load(1L, false, () -> taskRs(4L));
+
+        assertEquals(4L, result.version());
+        verify(cacheClient).set(eq("task:1"), contains("\"version\":4"), anyLong(), eq(TimeUnit.MILLISECONDS));
+        assertEquals(4L, taskRsCache.get(1L, false, () -> fail("Loader must not be called")).version());
+        verify(cacheClient, never()).get(anyString());
+    }
+
+    private static TaskRs taskRs(Long version) {
+        return new TaskRs(1L, "Task", "Description task", Status.WAITING, Priority.LOW, 1L, 1L,
+                Instant.parse("2024-01-01T10:00:00Z"), Instant.parse("2024-01-01T10:00:00Z"), version, null);
+    }
+}
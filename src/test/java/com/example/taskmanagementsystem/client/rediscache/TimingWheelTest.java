@@ -0,0 +1,82 @@
+package com.example.taskmanagementsystem.client.rediscache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TimingWheelTest {
+
+    @Test
+    void advance_ShouldFireEveryNodeOnItsExpiryTick_OnEveryLevel() {
+        TimingWheel timingWheel = new TimingWheel(1000);
+        Random random = new Random(42);
+        Map<TimingWheel.Node, Long> scheduled = new HashMap<>();
+        for (int i = 0; i < 5000; i++) {
+            TimingWheel.Node node = new TimingWheel.Node();
+            long expiryTick = 1001 + random.nextInt(i % 2 == 0 ? 64 * 64 : 64 * 64 * 64);
+            timingWheel.schedule(node, expiryTick);
+            scheduled.put(node, expiryTick);
+        }
+
+        List<TimingWheel.Node> fired = new ArrayList<>();
+        for (long tick = 1001; tick <= 1000 + 64 * 64 * 64; tick++) {
+            long current = tick;
+            timingWheel.advance(tick, node -> {
+                assertEquals(scheduled.get(node), current);
+                fired.add(node);
+            });
+        }
+
+        assertEquals(scheduled.size(), fired.size());
+        assertNull(timingWheel.nextToExpire());
+    }
+
+    @Test
+    void advance_ShouldRescheduleNodes_BeyondTheWheel() {
+        TimingWheel timingWheel = new TimingWheel(0);
+        TimingWheel.Node node = new TimingWheel.Node();
+        long expiryTick = 64L * 64 * 64 * 64 + 100;
+        timingWheel.schedule(node, expiryTick);
+
+        List<Long> fired = new ArrayList<>();
+        timingWheel.advance(expiryTick - 1, ignored -> fired.add(-1L));
+        assertTrue(fired.isEmpty());
+        assertTrue(node.isScheduled());
+
+        timingWheel.advance(expiryTick, ignored -> fired.add(timingWheel.currentTick()));
+        assertEquals(List.of(expiryTick), fired);
+    }
+
+    @Test
+    void cancel_ShouldKeepNodeFromFiring() {
+        TimingWheel timingWheel = new TimingWheel(0);
+        TimingWheel.Node kept = new TimingWheel.Node();
+        TimingWheel.Node cancelled = new TimingWheel.Node();
+        timingWheel.schedule(kept, 200);
+        timingWheel.schedule(cancelled, 200);
+
+        timingWheel.cancel(cancelled);
+
+        List<TimingWheel.Node> fired = new ArrayList<>();
+        timingWheel.advance(200, fired::add);
+        assertEquals(List.of(kept), fired);
+        assertFalse(cancelled.isScheduled());
+    }
+
+    @Test
+    void nextToExpire_ShouldPreferLowerLevels() {
+        TimingWheel timingWheel = new TimingWheel(0);
+        TimingWheel.Node late = new TimingWheel.Node();
+        TimingWheel.Node soon = new TimingWheel.Node();
+        timingWheel.schedule(late, 10_000);
+        timingWheel.schedule(soon, 10);
+
+        assertSame(soon, timingWheel.nextToExpire());
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.taskmanagementsystem.client.rediscache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.redis.RedisConnectionFailureException;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class TokenWhitelistCacheTest {
+
+    @Mock
+    private CacheClient cacheClient;
+
+    @Test
+    void isWhitelisted_ShouldCacheToken_WhenRedisReplies() {
+        TokenWhitelistCache tokenWhitelistCache = whitelist(false);
+        when(cacheClient.get("whitelist:2")).thenReturn("jti-1");
+
+        assertTrue(tokenWhitelistCache.isWhitelisted("2", "jti-1"));
+        assertTrue(tokenWhitelistCache.isWhitelisted("2", "jti-1"));
+        assertFalse(tokenWhitelistCache.isWhitelisted("2", "jti-0"));
+
+        verify(cacheClient, times(2)).get("whitelist:2");
+    }
+
+    @Test
+    void isWhitelisted_ShouldThrow_WhenRedisIsUnavailableAndFailClosed() {
+        TokenWhitelistCache tokenWhitelistCache = whitelist(false);
+        when(cacheClient.get("whitelist:2")).thenThrow(new QueryTimeoutException("timeout"));
+
+        assertThrows(QueryTimeoutException.class, () -> tokenWhitelistCache.isWhitelisted("2", "jti-1"));
+    }
+
+    @Test
+    void isWhitelisted_ShouldAcceptToken_WhenRedisIsUnavailableAndFailOpen() {
+        TokenWhitelistCache tokenWhitelistCache = whitelist(true);
+        when(cacheClient.get("whitelist:2")).thenThrow(new RedisConnectionFailureException("circuit is open"));
+
+        assertTrue(tokenWhitelistCache.isWhitelisted("2", "jti-1"));
+    }
+
+    @Test
+    void revoke_ShouldThrow_WhenRedisIsUnavailableAndFailOpen() {
+        TokenWhitelistCache tokenWhitelistCache = whitelist(true);
+        doThrow(new RedisConnectionFailureException("circuit is open")).when(cacheClient).delete("whitelist:2");
+
+        assertThrows(RedisConnectionFailureException.class, () -> tokenWhitelistCache.revoke(2L));
+    }
+
+    private TokenWhitelistCache whitelist(boolean failOpen) {
+        return new TokenWhitelistCache(cacheClient, new CacheInvalidationBus(cacheClient),
+                new SimpleMeterRegistry(), 100, Duration.ofSeconds(30), failOpen);
+    }
+}
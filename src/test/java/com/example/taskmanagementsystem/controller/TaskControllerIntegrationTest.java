@@ -1,11 +1,14 @@
 package com.example.taskmanagementsystem.controller;
 
+import com.example.taskmanagementsystem.client.rediscache.CacheInvalidationBus;
 import com.example.taskmanagementsystem.dto.StatusCode;
+import com.example.taskmanagementsystem.dto.comment.CommentRq;
 import com.example.taskmanagementsystem.dto.task.TaskRq;
 import com.example.taskmanagementsystem.entity.Priority;
 import com.example.taskmanagementsystem.entity.Status;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.redis.testcontainers.RedisContainer;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.hamcrest.Matchers;
 import org.json.JSONObject;
 import org.junit.jupiter.api.BeforeEach;
@@ -15,6 +18,8 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.ActiveProfiles;
@@ -28,12 +33,17 @@ import org.testcontainers.junit.jupiter.Testcontainers;
 import org.testcontainers.utility.DockerImageName;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest
 @Testcontainers
@@ -44,6 +54,10 @@ public class TaskControllerIntegrationTest {
     MockMvc mockMvc;
     @Autowired
     ObjectMapper objectMapper;
+    @Autowired
+    StringRedisTemplate redisTemplate;
+    @Autowired
+    MeterRegistry meterRegistry;
     @Value("${api.endpoint.base-url}")
     String baseUrl;
 
@@ -56,6 +70,9 @@ public class TaskControllerIntegrationTest {
 
     @BeforeEach
     void setUp() throws Exception {
+        // The Redis container outlives the per-test application contexts, so drop cached tasks of previous tests
+        redisTemplate.delete(redisTemplate.keys("task:*"));
+
         ResultActions resultActionsAdmin = mockMvc.perform(post(baseUrl + "/user/login")
                 .with(httpBasic("admin", "Password123")));
         MvcResult mvcResultAdmin = resultActionsAdmin.andDo(print()).andReturn();
@@ -75,7 +92,7 @@ public class TaskControllerIntegrationTest {
     @DirtiesContext(methodMode = DirtiesContext.MethodMode.BEFORE_METHOD)
     void testFindByIdSuccess() throws Exception {
 
-        this.mockMvc.perform(get(baseUrl + "/task/1")
+        this.mockMvc.perform(get(baseUrl + "/task/1?include=comments")
                         .accept(MediaType.APPLICATION_JSON)
                         .header("Authorization", tokenAdmin))
                 .andExpect(jsonPath("$.flag").value(true))
@@ -103,7 +120,7 @@ public class TaskControllerIntegrationTest {
     @DirtiesContext(methodMode = DirtiesContext.MethodMode.BEFORE_METHOD)
     void testFindAllSuccess() throws Exception {
 
-        mockMvc.perform(get(baseUrl + "/task")
+        mockMvc.perform(get(baseUrl + "/task?include=comments")
                         .accept(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$.flag").value(true))
                 .andExpect(jsonPath("$.code").value(StatusCode.SUCCESS))
@@ -115,6 +132,48 @@ public class TaskControllerIntegrationTest {
                 .andExpect(jsonPath("$.data.content", Matchers.hasSize(2)));
     }
 
+    @Test
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.BEFORE_METHOD)
+    void testFindAllInCursorModeSuccess() throws Exception {
+
+        MvcResult firstPage = mockMvc.perform(get(baseUrl + "/task?mode=CURSOR&size=1")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.flag").value(true))
+                .andExpect(jsonPath("$.data.content", Matchers.hasSize(1)))
+                .andExpect(jsonPath("$.data.content[0].title").value("Task2"))
+                .andExpect(jsonPath("$.data.hasNext").value(true))
+                .andReturn();
+        String nextCursor = new JSONObject(firstPage.getResponse().getContentAsString())
+                .getJSONObject("data").getString("nextCursor");
+
+        mockMvc.perform(get(baseUrl + "/task?mode=CURSOR&size=1")
+                        .param("cursor", nextCursor)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.data.content", Matchers.hasSize(1)))
+                .andExpect(jsonPath("$.data.content[0].title").value("Task1"))
+                .andExpect(jsonPath("$.data.hasNext").value(false))
+                .andExpect(jsonPath("$.data.nextCursor").doesNotExist());
+    }
+
+    @Test
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.BEFORE_METHOD)
+    void testFindAllInSliceAndEstimateModeSuccess() throws Exception {
+
+        mockMvc.perform(get(baseUrl + "/task?mode=SLICE&size=1&page=0")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.flag").value(true))
+                .andExpect(jsonPath("$.data.content", Matchers.hasSize(1)))
+                .andExpect(jsonPath("$.data.hasNext").value(true))
+                .andExpect(jsonPath("$.data.estimatedTotal").doesNotExist());
+
+        mockMvc.perform(get(baseUrl + "/task?mode=ESTIMATE&size=1&page=1")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.data.content", Matchers.hasSize(1)))
+                .andExpect(jsonPath("$.data.number").value(1))
+                .andExpect(jsonPath("$.data.hasNext").value(false))
+                .andExpect(jsonPath("$.data.estimatedTotal").value(2));
+    }
+
     @Test
     public void testCreateByAdminSuccess() throws Exception {
 
@@ -154,6 +213,143 @@ public class TaskControllerIntegrationTest {
                 .andExpect(jsonPath("$.data.content", Matchers.hasSize(3)));
     }
 
+    @Test
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.BEFORE_METHOD)
+    public void testCreateBatchSuccess() throws Exception {
+
+        List<TaskRq> rqs = List.of(
+                new TaskRq("Task3", "Create Task3", Status.WAITING, Priority.LOW, 1L, 2L),
+                new TaskRq("Task4", "Create Task4", Status.RUNNING, Priority.HIGH, 2L, 2L));
+
+        MvcResult result = this.mockMvc.perform(post(baseUrl + "/task/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(rqs))
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header("Authorization", tokenUser))
+                .andExpect(jsonPath("$.flag").value(true))
+                .andExpect(jsonPath("$.code").value(StatusCode.SUCCESS))
+                .andExpect(jsonPath("$.message").value("Tasks created"))
+                .andExpect(jsonPath("$.data", Matchers.hasSize(2)))
+                .andReturn();
+        long id = new JSONObject(result.getResponse().getContentAsString()).getJSONArray("data").getLong(1);
+
+        mockMvc.perform(get(baseUrl + "/task/" + id)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.data.title").value("Task4"))
+                .andExpect(jsonPath("$.data.status").value("RUNNING"))
+                .andExpect(jsonPath("$.data.authorId").value(2))
+                .andExpect(jsonPath("$.data.createdAt").exists());
+        mockMvc.perform(get(baseUrl + "/task")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.data.content", Matchers.hasSize(4)));
+    }
+
+    @Test
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.BEFORE_METHOD)
+    public void testCreateBatchWithMissingUserCreatesNothing() throws Exception {
+
+        List<TaskRq> rqs = List.of(
+                new TaskRq("Task3", "Create Task3", Status.WAITING, Priority.LOW, 1L, 2L),
+                new TaskRq("Task4", "Create Task4", Status.RUNNING, Priority.HIGH, 1L, 99L));
+
+        this.mockMvc.perform(post(baseUrl + "/task/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(rqs))
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header("Authorization", tokenAdmin))
+                .andExpect(jsonPath("$.flag").value(false))
+                .andExpect(jsonPath("$.code").value(StatusCode.NOT_FOUND))
+                .andExpect(jsonPath("$.message").value("User with id 99 not found"));
+        mockMvc.perform(get(baseUrl + "/task")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.data.content", Matchers.hasSize(2)));
+    }
+
+    @Test
+    void testExportWithoutTokenFail() throws Exception {
+
+        mockMvc.perform(get(baseUrl + "/task/export?format=csv"))
+                .andExpect(jsonPath("$.flag").value(false))
+                .andExpect(jsonPath("$.code").value(StatusCode.FORBIDDEN))
+                .andExpect(request().asyncNotStarted());
+    }
+
+    @Test
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.BEFORE_METHOD)
+    void testExportNdjsonSuccess() throws Exception {
+
+        MvcResult mvcResult = mockMvc.perform(get(baseUrl + "/task/export?format=ndjson")
+                        .header("Authorization", tokenUser))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String body = mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, "application/x-ndjson;charset=UTF-8"))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.split("\n");
+        assertThat(lines).hasSize(2);
+        assertThat(new JSONObject(lines[0]).getString("title")).isEqualTo("Task2");
+        assertThat(new JSONObject(lines[1]).getString("title")).isEqualTo("Task1");
+        assertThat(new JSONObject(lines[1]).has("commentsRs")).isFalse();
+    }
+
+    @Test
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.BEFORE_METHOD)
+    void testExportCsvByFilterSuccess() throws Exception {
+
+        MvcResult mvcResult = mockMvc.perform(get(baseUrl + "/task/export?format=csv&authorId=1")
+                        .header("Authorization", tokenUser))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String body = mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.split("\r\n");
+        assertThat(lines).hasSize(2);
+        assertThat(lines[0]).isEqualTo("id,title,description,status,priority,authorId,assigneeId,createdAt");
+        assertThat(lines[1]).startsWith("1,Task1,Description task 1,WAITING,LOW,1,2,");
+    }
+
+    @Test
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.BEFORE_METHOD)
+    void testUpdateAllByAdminSuccess() throws Exception {
+        // Warm the cache so the bulk update has something to evict
+        mockMvc.perform(get(baseUrl + "/task/1").accept(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.data.status").value("WAITING"));
+        Map<String, Object> rq = Map.of("filter", Map.of("authorId", 1), "status", "FINISHED", "priority", "HIGH");
+
+        mockMvc.perform(patch(baseUrl + "/task/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(rq))
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header("Authorization", tokenAdmin))
+                .andExpect(jsonPath("$.flag").value(true))
+                .andExpect(jsonPath("$.message").value("Tasks updated"))
+                .andExpect(jsonPath("$.data").value(1));
+
+        mockMvc.perform(get(baseUrl + "/task/1").accept(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.data.status").value("FINISHED"))
+                .andExpect(jsonPath("$.data.priority").value("HIGH"));
+        mockMvc.perform(get(baseUrl + "/task/2").accept(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.data.status").value("WAITING"));
+    }
+
+    @Test
+    void testUpdateAllByUserFail() throws Exception {
+        Map<String, Object> rq = Map.of("filter", Map.of(), "status", "FINISHED");
+
+        mockMvc.perform(patch(baseUrl + "/task/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(rq))
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header("Authorization", tokenUser))
+                .andExpect(jsonPath("$.flag").value(false))
+                .andExpect(jsonPath("$.code").value(StatusCode.FORBIDDEN))
+                .andExpect(jsonPath("$.message").value("No permission"));
+    }
+
     @Test
     void testCreateFail() throws Exception {
         TaskRq rq = new TaskRq("", "", null, null, null, null);
@@ -221,7 +417,7 @@ public class TaskControllerIntegrationTest {
     @DirtiesContext(methodMode = DirtiesContext.MethodMode.BEFORE_METHOD)
     void testFilterTasksByAuthorSuccess() throws Exception {
 
-        this.mockMvc.perform(get(baseUrl + "/task/filter?pageNumber=0&pageSize=10&authorId=1")
+        this.mockMvc.perform(get(baseUrl + "/task/filter?include=comments&pageNumber=0&pageSize=10&authorId=1")
                         .contentType(MediaType.APPLICATION_JSON)
                         .header("Authorization", tokenAdmin))
                 .andExpect(jsonPath("$.flag").value(true))
@@ -238,7 +434,7 @@ public class TaskControllerIntegrationTest {
     @DirtiesContext(methodMode = DirtiesContext.MethodMode.BEFORE_METHOD)
     void testFilterTasksByAssigneeSuccess() throws Exception {
 
-        this.mockMvc.perform(get(baseUrl + "/task/filter?pageNumber=0&pageSize=10&assigneeId=2")
+        this.mockMvc.perform(get(baseUrl + "/task/filter?include=comments&pageNumber=0&pageSize=10&assigneeId=2")
                         .contentType(MediaType.APPLICATION_JSON)
                         .header("Authorization", tokenAdmin))
                 .andExpect(jsonPath("$.flag").value(true))
@@ -294,4 +490,81 @@ public class TaskControllerIntegrationTest {
                 .andExpect(jsonPath("$.data.content").exists())
                 .andExpect(jsonPath("$.data.content", Matchers.hasSize(1)));
     }
+
+    @Test
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.BEFORE_METHOD)
+    void testFindByIdServedFromCacheOnSecondRead() throws Exception {
+        double localHitsBefore = cacheGets("task.local", "hit");
+
+        mockMvc.perform(get(baseUrl + "/task/1").accept(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.data.title").value("Task1"));
+        mockMvc.perform(get(baseUrl + "/task/1").accept(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.flag").value(true))
+                .andExpect(jsonPath("$.data.title").value("Task1"));
+
+        assertThat(redisTemplate.hasKey("task:1")).isTrue();
+        assertThat(cacheGets("task.local", "hit") - localHitsBefore).isEqualTo(1.0);
+    }
+
+    @Test
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.BEFORE_METHOD)
+    void testUpdateEvictsCachedTask() throws Exception {
+        mockMvc.perform(get(baseUrl + "/task/1").accept(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.data.title").value("Task1"));
+        TaskRq rq = new TaskRq("TaskUP", "Update Task", Status.WAITING, Priority.LOW, 1L, 1L);
+
+        mockMvc.perform(put(baseUrl + "/task/1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(rq))
+                        .header("Authorization", tokenAdmin))
+                .andExpect(jsonPath("$.flag").value(true));
+
+        mockMvc.perform(get(baseUrl + "/task/1").accept(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.data.title").value("TaskUP"));
+    }
+
+    @Test
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.BEFORE_METHOD)
+    void testCreateCommentEvictsCachedTaskWithComments() throws Exception {
+        mockMvc.perform(get(baseUrl + "/task/1?include=comments").accept(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.data.commentsRs", Matchers.hasSize(2)));
+        mockMvc.perform(get(baseUrl + "/task/1").accept(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.flag").value(true));
+        CommentRq rq = new CommentRq("Comment5", 1L, 1L);
+
+        mockMvc.perform(post(baseUrl + "/comment")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(rq))
+                        .header("Authorization", tokenAdmin))
+                .andExpect(jsonPath("$.flag").value(true));
+
+        assertThat(redisTemplate.hasKey("task:1:comments")).isFalse();
+        assertThat(redisTemplate.hasKey("task:1")).isTrue();
+        mockMvc.perform(get(baseUrl + "/task/1?include=comments").accept(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.data.commentsRs", Matchers.hasSize(3)));
+    }
+
+    @Test
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.BEFORE_METHOD)
+    void testInvalidationFromOtherNodeDropsLocalCopy() throws Exception {
+        mockMvc.perform(get(baseUrl + "/task/1").accept(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.data.title").value("Task1"));
+        double remoteHitsBefore = cacheGets("task", "hit");
+
+        redisTemplate.convertAndSend(CacheInvalidationBus.CHANNEL, "task:1");
+
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (cacheGets("task", "hit") == remoteHitsBefore && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+            mockMvc.perform(get(baseUrl + "/task/1").accept(MediaType.APPLICATION_JSON))
+                    .andExpect(jsonPath("$.data.title").value("Task1"));
+        }
+        assertThat(cacheGets("task", "hit")).isGreaterThan(remoteHitsBefore);
+    }
+
+    private double cacheGets(String cache, String result) {
+        // L1 meters are function counters bound to the Caffeine stats, L2 meters are plain counters
+        return meterRegistry.get("cache.gets").tag("cache", cache).tag("result", result).meter()
+                .measure().iterator().next().getValue();
+    }
 }
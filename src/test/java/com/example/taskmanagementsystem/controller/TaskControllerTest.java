@@ -1,9 +1,12 @@
 package com.example.taskmanagementsystem.controller;
 
+import com.example.taskmanagementsystem.dto.CursorPage;
+import com.example.taskmanagementsystem.dto.SlicePage;
 import com.example.taskmanagementsystem.dto.StatusCode;
 import com.example.taskmanagementsystem.dto.comment.CommentRs;
 import com.example.taskmanagementsystem.dto.task.*;
 import com.example.taskmanagementsystem.entity.*;
+import com.example.taskmanagementsystem.exception.PreconditionFailedException;
 import com.example.taskmanagementsystem.service.TaskService;
 import com.example.taskmanagementsystem.util.DBDataInitializer;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -12,35 +15,58 @@ import org.hamcrest.Matchers;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
 import org.testcontainers.junit.jupiter.Testcontainers;
 
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
+import java.util.function.BiPredicate;
+import java.util.function.Predicate;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest
 @Testcontainers
@@ -81,12 +107,12 @@ class TaskControllerTest {
         CommentRs commentRs1 = new CommentRs(1L, "Comment1", 1L, 1L, instant);
         CommentRs commentRs2 = new CommentRs(2L, "Comment2", 2L, 1L, instant);
         TaskRs taskRs = new TaskRs(1L, "Task", "Description task", Status.WAITING, Priority.LOW,
-                1L, 1L, instant, List.of(commentRs1, commentRs2));
+                1L, 1L, instant, instant, 0L, List.of(commentRs1, commentRs2));
 
-        given(taskService.findByIdReturnTaskRs(anyLong())).willReturn(taskRs);
+        given(taskService.findByIdReturnTaskRs(eq(1L), eq(true), any())).willReturn(taskRs);
         given(taskToTaskRsConvertor.convert(task)).willReturn(taskRs);
 
-        this.mockMvc.perform(get(baseUrl + "/task/1").accept(MediaType.APPLICATION_JSON))
+        this.mockMvc.perform(get(baseUrl + "/task/1?include=comments").accept(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$.['flag']").value(true))
                 .andExpect(jsonPath("$.code").value(StatusCode.SUCCESS))
                 .andExpect(jsonPath("$.message").value("Found one"))
@@ -95,10 +121,57 @@ class TaskControllerTest {
                 .andExpect(jsonPath("$.data.commentsRs[1].comment").value("Comment2"));
     }
 
+    @Test
+    void findById_ShouldReturnVersionAsETag() throws Exception {
+        Instant updatedAt = Instant.parse("2024-11-21T12:00:00Z");
+        TaskRs taskRs = new TaskRs(1L, "Task", "Description task", Status.WAITING, Priority.LOW, 1L, 1L, Instant.now(), updatedAt, 3L, null);
+        givenTask(taskRs, "\"3\"", updatedAt);
+
+        this.mockMvc.perform(get(baseUrl + "/task/1").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3\""))
+                .andExpect(header().dateValue(HttpHeaders.LAST_MODIFIED, updatedAt.toEpochMilli()))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, private"))
+                .andExpect(jsonPath("$.data.version").value(3));
+    }
+
+    @Test
+    void findById_ShouldReturnNotModified_WhenETagMatches() throws Exception {
+        TaskRs taskRs = new TaskRs(1L, "Task", "Description task", Status.WAITING, Priority.LOW, 1L, 1L, Instant.now(), Instant.now(), 3L, null);
+        givenTask(taskRs, "\"3\"", Instant.now());
+
+        this.mockMvc.perform(get(baseUrl + "/task/1").header(HttpHeaders.IF_NONE_MATCH, "\"3\"").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3\""))
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void findById_ShouldReturnNotModified_WhenNotModifiedSince() throws Exception {
+        Instant updatedAt = Instant.parse("2024-11-21T12:00:00Z");
+        TaskRs taskRs = new TaskRs(1L, "Task", "Description task", Status.WAITING, Priority.LOW, 1L, 1L, Instant.now(), updatedAt, 3L, null);
+        givenTask(taskRs, "\"3\"", updatedAt);
+
+        this.mockMvc.perform(get(baseUrl + "/task/1").header(HttpHeaders.IF_MODIFIED_SINCE, "Thu, 21 Nov 2024 12:00:00 GMT")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void findById_ShouldReturnTask_WhenETagIsStale() throws Exception {
+        TaskRs taskRs = new TaskRs(1L, "Task", "Description task", Status.WAITING, Priority.LOW, 1L, 1L, Instant.now(), Instant.now(), 4L, null);
+        givenTask(taskRs, "\"4\"", Instant.now());
+
+        this.mockMvc.perform(get(baseUrl + "/task/1").header(HttpHeaders.IF_NONE_MATCH, "\"3\"").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"4\""))
+                .andExpect(jsonPath("$.data.version").value(4));
+    }
+
     @Test
     void findById_ShouldThrowException_WhenTaskNotFound() throws Exception {
 
-        given(taskService.findByIdReturnTaskRs(anyLong())).willThrow(new EntityNotFoundException("Task with id 3 not found"));
+        given(taskService.findByIdReturnTaskRs(anyLong(), anyBoolean(), any())).willThrow(new EntityNotFoundException("Task with id 3 not found"));
 
         this.mockMvc.perform(get(baseUrl + "/task/3").accept(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$.flag").value(false))
@@ -112,8 +185,8 @@ class TaskControllerTest {
         Instant instant = Instant.now();
         CommentRs commentRs1 = new CommentRs(1L, "Comment1", 1L, 1L, instant);
         CommentRs commentRs2 = new CommentRs(2L, "Comment2", 2L, 1L, instant);
-        TaskRs taskRs1 = new TaskRs(1L, "Task", "Description task", Status.WAITING, Priority.LOW, 1L, 1L, Instant.now(), List.of(commentRs1, commentRs2));
-        TaskRs taskRs2 = new TaskRs(2L, "Task2", "Description task2", Status.WAITING, Priority.LOW, 1L, 1L, Instant.now(), List.of());
+        TaskRs taskRs1 = new TaskRs(1L, "Task", "Description task", Status.WAITING, Priority.LOW, 1L, 1L, Instant.now(), Instant.now(), 0L, List.of(commentRs1, commentRs2));
+        TaskRs taskRs2 = new TaskRs(2L, "Task2", "Description task2", Status.WAITING, Priority.LOW, 1L, 1L, Instant.now(), Instant.now(), 0L, List.of());
         List<TaskRs> taskRsList = new ArrayList<>(List.of(taskRs1, taskRs2));
         User admin = User.builder().id(1L).username("admin").password("Password123").email("admin@mail.com").roles(Set.of(RoleType.ROLE_ADMIN)).build();
         User user = User.builder().id(2L).username("user").password("Password123").email("user@mail.com").roles(Set.of(RoleType.ROLE_USER)).build();
@@ -123,9 +196,10 @@ class TaskControllerTest {
         Pageable pageable = PageRequest.of(0, 20);
         PageImpl<TaskRs> taskRsPage = new PageImpl<>(taskRsList, pageable, taskRsList.size());
         given(taskToTaskRsConvertor.convert(any(Task.class))).willReturn(taskRs1);
-        given(taskService.findAll(any(Pageable.class))).willReturn(taskRsPage);
+        given(taskService.findAll(any(Pageable.class), anyBoolean(), any())).willReturn(taskRsPage);
         MultiValueMap <String, String> requestParams = new LinkedMultiValueMap<>();
         requestParams.add("page","0");
+        requestParams.add("include","comments");
         requestParams.add("size","20");
 
 
@@ -141,13 +215,62 @@ class TaskControllerTest {
                 .andExpect(jsonPath("$.data.content", Matchers.hasSize(2)));
     }
 
+    @Test
+    void findAll_ShouldReturnNotModified_WhenPageETagMatches() throws Exception {
+        String eTag = "W/\"5d41402abc4b2a76b9719d911017c592\"";
+        given(taskService.findAll(any(Pageable.class), eq(false), any())).willAnswer(invocation ->
+                invocation.<Predicate<String>>getArgument(2).test(eTag) ? null : Page.empty());
+
+        mockMvc.perform(get(baseUrl + "/task").header(HttpHeaders.IF_NONE_MATCH, eTag).accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, eTag))
+                .andExpect(content().string(""));
+
+        mockMvc.perform(get(baseUrl + "/task").header(HttpHeaders.IF_NONE_MATCH, "W/\"0\"").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, eTag))
+                .andExpect(jsonPath("$.data.content").isEmpty());
+    }
+
+    @Test
+    void findAll_InCursorMode_ShouldReturnCursorPage() throws Exception {
+        Instant instant = Instant.now();
+        TaskRs taskRs = new TaskRs(2L, "Task2", "Description task2", Status.WAITING, Priority.LOW, 1L, 1L, instant, instant, 0L, List.of());
+        String nextCursor = new TaskCursor(instant, 2L).encode();
+        given(taskService.findAllByCursor(eq(null), eq(1), eq(false), any())).willReturn(new CursorPage<>(List.of(taskRs), 1, true, nextCursor));
+
+        mockMvc.perform(get(baseUrl + "/task?mode=CURSOR&size=1").accept(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.flag").value(true))
+                .andExpect(jsonPath("$.code").value(StatusCode.SUCCESS))
+                .andExpect(jsonPath("$.message").value("Found all"))
+                .andExpect(jsonPath("$.data.content[0].title").value("Task2"))
+                .andExpect(jsonPath("$.data.hasNext").value(true))
+                .andExpect(jsonPath("$.data.nextCursor").value(nextCursor))
+                .andExpect(jsonPath("$.data.totalElements").doesNotExist());
+    }
+
+    @Test
+    void findAll_InEstimateMode_ShouldReturnSliceWithEstimatedTotal() throws Exception {
+        TaskRs taskRs = new TaskRs(2L, "Task2", "Description task2", Status.WAITING, Priority.LOW, 1L, 1L, Instant.now(), Instant.now(), 0L, List.of());
+        given(taskService.findAllSlice(any(Pageable.class), eq(true), eq(false), any()))
+                .willReturn(new SlicePage<>(List.of(taskRs), 0, 1, true, 5_000_000L));
+
+        mockMvc.perform(get(baseUrl + "/task?mode=ESTIMATE&size=1").accept(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.flag").value(true))
+                .andExpect(jsonPath("$.message").value("Found all"))
+                .andExpect(jsonPath("$.data.content[0].title").value("Task2"))
+                .andExpect(jsonPath("$.data.hasNext").value(true))
+                .andExpect(jsonPath("$.data.estimatedTotal").value(5_000_000L))
+                .andExpect(jsonPath("$.data.totalElements").doesNotExist());
+    }
+
     @Test
     public void create_ShouldSaveTask() throws Exception {
         Instant instant = Instant.now();
         User admin = User.builder().id(1L).username("admin").password("Password123").email("admin@mail.com").roles(Set.of(RoleType.ROLE_ADMIN)).build();
         User user = User.builder().id(2L).username("user").password("Password123").email("user@mail.com").roles(Set.of(RoleType.ROLE_USER)).build();
         Task task = Task.builder().id(1L).title("Task").description("Description task").status(Status.WAITING).priority(Priority.LOW).author(admin).assignee(user).createdAt(instant).comments(new ArrayList<>()).build();
-        TaskRs taskRs = new TaskRs(2L, "Task", "Description task", Status.WAITING, Priority.LOW, 1L, 1L, Instant.now(), List.of());
+        TaskRs taskRs = new TaskRs(2L, "Task", "Description task", Status.WAITING, Priority.LOW, 1L, 1L, Instant.now(), Instant.now(), 0L, List.of());
         TaskRq rq = new TaskRq("Task", "Create Task", Status.WAITING, Priority.LOW, 1L, 1L);
         given(taskRqToTaskConvertor.convert(rq)).willReturn(task);
         given(taskService.create(rq)).willReturn(taskRs);
@@ -182,14 +305,111 @@ class TaskControllerTest {
                 .andExpect(jsonPath("$.data.priority").value("Priority must not be null"));
     }
 
+    @Test
+    void createBatch_ShouldReturnIds() throws Exception {
+        List<TaskRq> rqs = List.of(
+                new TaskRq("Task1", "Create Task1", Status.WAITING, Priority.LOW, 1L, 1L),
+                new TaskRq("Task2", "Create Task2", Status.RUNNING, Priority.HIGH, 1L, 2L));
+        given(taskService.createAll(rqs)).willReturn(List.of(3L, 4L));
+
+        this.mockMvc.perform(post(baseUrl + "/task/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(rqs))
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.flag").value(true))
+                .andExpect(jsonPath("$.code").value(StatusCode.SUCCESS))
+                .andExpect(jsonPath("$.message").value("Tasks created"))
+                .andExpect(jsonPath("$.data[0]").value(3))
+                .andExpect(jsonPath("$.data[1]").value(4));
+    }
+
+    @Test
+    void createBatch_NotValidTaskDataFail() throws Exception {
+        List<TaskRq> rqs = List.of(
+                new TaskRq("Task1", "Create Task1", Status.WAITING, Priority.LOW, 1L, 1L),
+                new TaskRq("", "Create Task2", null, Priority.HIGH, 1L, 2L));
+
+        this.mockMvc.perform(post(baseUrl + "/task/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(rqs))
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.flag").value(false))
+                .andExpect(jsonPath("$.code").value(StatusCode.INVALID_ARGUMENT))
+                .andExpect(jsonPath("$.message").value("Provided arguments are not valid"))
+                .andExpect(jsonPath("$.data['[1].title']").value("Title must be from 3 to 20"))
+                .andExpect(jsonPath("$.data['[1].status']").value("Status must not be null"));
+        verifyNoInteractions(taskService);
+    }
+
+    @Test
+    void export_ShouldStreamWithFormatHeaders() throws Exception {
+        doAnswer(invocation -> {
+            invocation.getArgument(2, OutputStream.class).write("id\r\n".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(taskService).export(any(TaskFilter.class), eq(TaskExportFormat.CSV), any(OutputStream.class));
+
+        MvcResult mvcResult = this.mockMvc.perform(get(baseUrl + "/task/export?format=csv&authorId=1"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        assertEquals(Duration.ofMinutes(30).toMillis(), mvcResult.getRequest().getAsyncContext().getTimeout());
+
+        this.mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, "text/csv;charset=UTF-8"))
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"tasks.csv\""))
+                .andExpect(content().string("id\r\n"));
+    }
+
+    @Test
+    void export_UnknownFormatFail() throws Exception {
+        this.mockMvc.perform(get(baseUrl + "/task/export?format=xml").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.flag").value(false))
+                .andExpect(jsonPath("$.code").value(StatusCode.INVALID_ARGUMENT))
+                .andExpect(jsonPath("$.data.format").value("Unknown export format xml"));
+        verifyNoInteractions(taskService);
+    }
+
+    @Test
+    void updateAll_ShouldReturnUpdatedCount() throws Exception {
+        TaskFilter filter = new TaskFilter(null, null, null, null, Status.WAITING, null, null, null, null, null, null);
+        TaskBulkUpdateRq rq = new TaskBulkUpdateRq(filter, Status.FINISHED, null);
+        given(taskService.updateAll(rq)).willReturn(1500L);
+
+        this.mockMvc.perform(patch(baseUrl + "/task/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(rq))
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.flag").value(true))
+                .andExpect(jsonPath("$.code").value(StatusCode.SUCCESS))
+                .andExpect(jsonPath("$.message").value("Tasks updated"))
+                .andExpect(jsonPath("$.data").value(1500));
+    }
+
+    @Test
+    void updateAll_WithoutChangesFail() throws Exception {
+        TaskFilter filter = new TaskFilter(null, null, null, null, Status.WAITING, null, null, null, null, null, null);
+
+        this.mockMvc.perform(patch(baseUrl + "/task/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new TaskBulkUpdateRq(filter, null, null)))
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.flag").value(false))
+                .andExpect(jsonPath("$.code").value(StatusCode.INVALID_ARGUMENT))
+                .andExpect(jsonPath("$.data.changeSpecified").value("Status or priority must be specified"));
+        verifyNoInteractions(taskService);
+    }
+
     @Test
     void update_ShouldUpdateTask() throws Exception {
         Instant instant = Instant.now();
         TaskRq rq = new TaskRq("TaskUP", "Update Task", Status.WAITING, Priority.LOW, 1L, 1L);
         Task task = Task.builder().id(1L).title("TaskUP").description("Update Task").status(Status.FINISHED).priority(Priority.HIGH).author(null).assignee(null).createdAt(instant).comments(List.of()).build();
-        TaskRs taskRs = new TaskRs(1L, "TaskUP", "Update Task", Status.WAITING, Priority.LOW, 1L, 1L, instant, List.of());
+        TaskRs taskRs = new TaskRs(1L, "TaskUP", "Update Task", Status.WAITING, Priority.LOW, 1L, 1L, instant, instant, 0L, List.of());
         given(taskRqToTaskConvertor.convert(rq)).willReturn(task);
-        given(taskService.update(anyLong(), any(TaskRq.class))).willReturn(taskRs);
+        given(taskService.update(anyLong(), any(TaskRq.class), isNull())).willReturn(taskRs);
         given(taskToTaskRsConvertor.convert(any(Task.class))).willReturn(taskRs);
 
         this.mockMvc.perform(put(baseUrl + "/task/1")
@@ -203,6 +423,65 @@ class TaskControllerTest {
                 .andExpect(jsonPath("$.data.description").value("Update Task"));
     }
 
+    @Test
+    void update_ShouldPassIfMatchVersion_AndReturnNewETag() throws Exception {
+        TaskRq rq = new TaskRq("TaskUP", "Update Task", Status.WAITING, Priority.LOW, 1L, 1L);
+        TaskRs taskRs = new TaskRs(1L, "TaskUP", "Update Task", Status.WAITING, Priority.LOW, 1L, 1L, Instant.now(), Instant.now(), 4L, null);
+        given(taskService.update(1L, rq, 3L)).willReturn(taskRs);
+
+        this.mockMvc.perform(put(baseUrl + "/task/1")
+                        .header(HttpHeaders.IF_MATCH, "\"3\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(rq))
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"4\""))
+                .andExpect(jsonPath("$.data.version").value(4));
+    }
+
+    @Test
+    void update_ShouldReturnPreconditionFailed_WhenVersionIsStale() throws Exception {
+        TaskRq rq = new TaskRq("TaskUP", "Update Task", Status.WAITING, Priority.LOW, 1L, 1L);
+        given(taskService.update(1L, rq, 2L)).willThrow(new PreconditionFailedException("Task with id 1 is not at version 2"));
+
+        this.mockMvc.perform(put(baseUrl + "/task/1")
+                        .header(HttpHeaders.IF_MATCH, "\"2\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(rq))
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(jsonPath("$.flag").value(false))
+                .andExpect(jsonPath("$.code").value(StatusCode.PRECONDITION_FAILED))
+                .andExpect(jsonPath("$.data").value("Task with id 1 is not at version 2"));
+    }
+
+    @Test
+    void update_ShouldReturnPreconditionFailed_WhenConcurrentUpdateWins() throws Exception {
+        TaskRq rq = new TaskRq("TaskUP", "Update Task", Status.WAITING, Priority.LOW, 1L, 1L);
+        given(taskService.update(1L, rq, null)).willThrow(new ObjectOptimisticLockingFailureException(Task.class, 1L));
+
+        this.mockMvc.perform(put(baseUrl + "/task/1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(rq))
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(jsonPath("$.code").value(StatusCode.PRECONDITION_FAILED));
+    }
+
+    @Test
+    void update_ShouldReturnPreconditionFailed_WhenIfMatchIsWeak() throws Exception {
+        TaskRq rq = new TaskRq("TaskUP", "Update Task", Status.WAITING, Priority.LOW, 1L, 1L);
+
+        this.mockMvc.perform(put(baseUrl + "/task/1")
+                        .header(HttpHeaders.IF_MATCH, "W/\"3\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(rq))
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(jsonPath("$.code").value(StatusCode.PRECONDITION_FAILED));
+        verifyNoInteractions(taskService);
+    }
+
     @Test
     void deleteById_ShouldDeleteTask() throws Exception {
         doNothing().when(taskService).deleteById(1L);
@@ -230,15 +509,15 @@ class TaskControllerTest {
         Instant instant = Instant.now();
         CommentRs commentRs1 = new CommentRs(1L, "Comment1", 1L, 1L, instant);
         CommentRs commentRs2 = new CommentRs(2L, "Comment2", 2L, 1L, instant);
-        TaskRs taskRs1 = new TaskRs(1L, "Task", "Description task", Status.WAITING, Priority.LOW, 1L, 1L, Instant.now(), List.of(commentRs1, commentRs2));
-        TaskRs taskRs2 = new TaskRs(2L, "Task2", "Description task2", Status.WAITING, Priority.LOW, 1L, 1L, Instant.now(), List.of());
+        TaskRs taskRs1 = new TaskRs(1L, "Task", "Description task", Status.WAITING, Priority.LOW, 1L, 1L, Instant.now(), Instant.now(), 0L, List.of(commentRs1, commentRs2));
+        TaskRs taskRs2 = new TaskRs(2L, "Task2", "Description task2", Status.WAITING, Priority.LOW, 1L, 1L, Instant.now(), Instant.now(), 0L, List.of());
         List<TaskRs> taskRsList = new ArrayList<>(List.of(taskRs1, taskRs2));
         Pageable pageable = PageRequest.of(0, 20);
         PageImpl<TaskRs> taskRsPage = new PageImpl<>(taskRsList, pageable, taskRsList.size());
         given(taskToTaskRsConvertor.convert(any(Task.class))).willReturn(taskRs1);
-        given(taskService.filterBy(Mockito.any(TaskFilter.class))).willReturn(taskRsPage);
+        given(taskService.filterBy(Mockito.any(TaskFilter.class), anyBoolean())).willReturn(taskRsPage);
 
-        this.mockMvc.perform(get(baseUrl + "/task/filter?pageNumber=0&pageSize=10&authorId=1")
+        this.mockMvc.perform(get(baseUrl + "/task/filter?include=comments&pageNumber=0&pageSize=10&authorId=1")
                         .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$.flag").value(true))
                 .andExpect(jsonPath("$.code").value(StatusCode.SUCCESS))
@@ -255,18 +534,18 @@ class TaskControllerTest {
         Instant instant = Instant.now();
         CommentRs commentRs1 = new CommentRs(1L, "Comment1", 1L, 1L, instant);
         CommentRs commentRs2 = new CommentRs(2L, "Comment2", 2L, 1L, instant);
-        TaskRs taskRs1 = new TaskRs(1L, "Task", "Description task", Status.WAITING, Priority.LOW, 1L, 1L, Instant.now(), List.of(commentRs1, commentRs2));
-        TaskRs taskRs2 = new TaskRs(2L, "Task2", "Description task2", Status.WAITING, Priority.LOW, 1L, 1L, Instant.now(), List.of());
+        TaskRs taskRs1 = new TaskRs(1L, "Task", "Description task", Status.WAITING, Priority.LOW, 1L, 1L, Instant.now(), Instant.now(), 0L, List.of(commentRs1, commentRs2));
+        TaskRs taskRs2 = new TaskRs(2L, "Task2", "Description task2", Status.WAITING, Priority.LOW, 1L, 1L, Instant.now(), Instant.now(), 0L, List.of());
         List<TaskRs> taskRsList = new ArrayList<>(List.of(taskRs1, taskRs2));
         Pageable pageable = PageRequest.of(0, 20);
         PageImpl<TaskRs> taskRsPage = new PageImpl<>(taskRsList, pageable, taskRsList.size());
         given(taskToTaskRsConvertor.convert(any(Task.class))).willReturn(taskRs1);
-        given(taskService.filterBy(Mockito.any(TaskFilter.class))).willReturn(taskRsPage);
+        given(taskService.filterBy(Mockito.any(TaskFilter.class), anyBoolean())).willReturn(taskRsPage);
 
         given(taskToTaskRsConvertor.convert(any(Task.class))).willReturn(taskRs1);
-        given(taskService.filterBy(Mockito.any(TaskFilter.class))).willReturn(taskRsPage);
+        given(taskService.filterBy(Mockito.any(TaskFilter.class), anyBoolean())).willReturn(taskRsPage);
 
-        this.mockMvc.perform(get(baseUrl + "/task/filter?pageNumber=0&pageSize=10&assigneeId=2")
+        this.mockMvc.perform(get(baseUrl + "/task/filter?include=comments&pageNumber=0&pageSize=10&assigneeId=2")
                         .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$.flag").value(true))
                 .andExpect(jsonPath("$.code").value(StatusCode.SUCCESS))
@@ -276,4 +555,34 @@ class TaskControllerTest {
                 .andExpect(jsonPath("$.data.content[0].commentsRs[0].comment").value("Comment1"))
                 .andExpect(jsonPath("$.data.content", Matchers.hasSize(2)));
     }
-}
\ No newline at end of file
+
+    @ParameterizedTest
+    @ValueSource(strings = {"0", "-1", "1001"})
+    void filter_ShouldReturnBadRequest_WhenCursorPageSizeIsOutOfRange(String pageSize) throws Exception {
+        this.mockMvc.perform(get(baseUrl + "/task/filter?mode=CURSOR&pageSize=" + pageSize)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.flag").value(false))
+                .andExpect(jsonPath("$.code").value(StatusCode.INVALID_ARGUMENT))
+                .andExpect(jsonPath("$.data.pageSize").value("Page size must be from 1 to 1000"));
+        verifyNoInteractions(taskService);
+    }
+
+    @Test
+    void filter_ShouldReturnBadRequest_WhenPageNumberIsNegative() throws Exception {
+        this.mockMvc.perform(get(baseUrl + "/task/filter?pageNumber=-1&pageSize=10")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.data.pageNumber").value("Page number must not be negative"));
+        verifyNoInteractions(taskService);
+    }
+
+    /**
+     * Answers like {@link TaskService#findByIdReturnTaskRs}: the validators are tested first and the task is
+     * returned only when they are stale.
+     */
+    private void givenTask(TaskRs taskRs, String eTag, Instant lastModified) {
+        given(taskService.findByIdReturnTaskRs(eq(taskRs.id()), eq(false), any())).willAnswer(invocation ->
+                invocation.<BiPredicate<String, Long>>getArgument(2).test(eTag, lastModified.toEpochMilli()) ? null : taskRs);
+    }
+}
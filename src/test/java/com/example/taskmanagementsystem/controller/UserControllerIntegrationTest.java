@@ -33,6 +33,7 @@ import static org.hamcrest.Matchers.any;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 
 @SpringBootTest
@@ -317,6 +318,105 @@ public class UserControllerIntegrationTest {
                 .andExpect(jsonPath("$.message").value("Change password success"));
     }
 
+    @Test
+    void testChangeUserPasswordRevokesToken() throws Exception {
+        mockMvc.perform(get(baseUrl + "/user/2")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header("Authorization", tokenUser))
+                .andExpect(jsonPath("$.code").value(StatusCode.SUCCESS));
+
+        Map<String, String> passwordMap = new HashMap<>();
+        passwordMap.put("oldPassword", "Password123");
+        passwordMap.put("newPassword", "Abc12345");
+        passwordMap.put("confirmNewPassword", "Abc12345");
+        this.mockMvc.perform(patch(baseUrl + "/user/2/password")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(passwordMap))
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header("Authorization", tokenAdmin))
+                .andExpect(jsonPath("$.code").value(StatusCode.SUCCESS));
+
+        mockMvc.perform(get(baseUrl + "/user/2")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header("Authorization", tokenUser))
+                .andExpect(jsonPath("$.flag").value(false))
+                .andExpect(jsonPath("$.code").value(StatusCode.UNAUTHORIZED));
+    }
+
+    @Test
+    void testReLoginRevokesPreviousToken() throws Exception {
+        mockMvc.perform(get(baseUrl + "/user/2")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header("Authorization", tokenUser))
+                .andExpect(jsonPath("$.code").value(StatusCode.SUCCESS));
+
+        MvcResult mvcResult = mockMvc.perform(post(baseUrl + "/user/login")
+                        .with(httpBasic("user1", "Password123")))
+                .andReturn();
+        String newTokenUser = "Bearer " + new JSONObject(mvcResult.getResponse().getContentAsString())
+                .getJSONObject("data").getString("token");
+
+        mockMvc.perform(get(baseUrl + "/user/2")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header("Authorization", tokenUser))
+                .andExpect(jsonPath("$.flag").value(false))
+                .andExpect(jsonPath("$.code").value(StatusCode.UNAUTHORIZED));
+        mockMvc.perform(get(baseUrl + "/user/2")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header("Authorization", newTokenUser))
+                .andExpect(jsonPath("$.code").value(StatusCode.SUCCESS));
+    }
+
+    @Test
+    void testLoginThrottledAfterFailedAttempts() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            mockMvc.perform(post(baseUrl + "/user/login")
+                            .with(httpBasic("user2", "WrongPassword123")))
+                    .andExpect(jsonPath("$.code").value(StatusCode.UNAUTHORIZED));
+        }
+
+        mockMvc.perform(post(baseUrl + "/user/login")
+                        .with(httpBasic("user2", "Password123")))
+                .andExpect(header().exists("Retry-After"))
+                .andExpect(jsonPath("$.flag").value(false))
+                .andExpect(jsonPath("$.code").value(StatusCode.TOO_MANY_REQUESTS));
+        mockMvc.perform(post(baseUrl + "/user/login")
+                        .with(httpBasic("user2", "Password123"))
+                        .with(request -> {
+                            request.setRemoteAddr("10.0.0.9");
+                            return request;
+                        }))
+                .andExpect(jsonPath("$.code").value(StatusCode.SUCCESS));
+        mockMvc.perform(post(baseUrl + "/user/login")
+                        .with(httpBasic("user1", "Password123")))
+                .andExpect(jsonPath("$.code").value(StatusCode.SUCCESS));
+    }
+
+    @Test
+    void testBasicCredentialsRejectedAfterPasswordChange() throws Exception {
+        mockMvc.perform(post(baseUrl + "/user/login")
+                        .with(httpBasic("user1", "Password123")))
+                .andExpect(jsonPath("$.code").value(StatusCode.SUCCESS));
+
+        Map<String, String> passwordMap = new HashMap<>();
+        passwordMap.put("oldPassword", "Password123");
+        passwordMap.put("newPassword", "Abc12345");
+        passwordMap.put("confirmNewPassword", "Abc12345");
+        this.mockMvc.perform(patch(baseUrl + "/user/2/password")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(passwordMap))
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header("Authorization", tokenAdmin))
+                .andExpect(jsonPath("$.code").value(StatusCode.SUCCESS));
+
+        mockMvc.perform(post(baseUrl + "/user/login")
+                        .with(httpBasic("user1", "Password123")))
+                .andExpect(jsonPath("$.code").value(StatusCode.UNAUTHORIZED));
+        mockMvc.perform(post(baseUrl + "/user/login")
+                        .with(httpBasic("user1", "Abc12345")))
+                .andExpect(jsonPath("$.code").value(StatusCode.SUCCESS));
+    }
+
     @Test
     void testChangeUserPasswordWithWrongOldPassword() throws Exception {
 
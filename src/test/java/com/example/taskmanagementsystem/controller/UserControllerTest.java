@@ -4,6 +4,7 @@ import com.example.taskmanagementsystem.dto.StatusCode;
 import com.example.taskmanagementsystem.dto.user.*;
 import com.example.taskmanagementsystem.entity.RoleType;
 import com.example.taskmanagementsystem.entity.User;
+import com.example.taskmanagementsystem.exception.PreconditionFailedException;
 import com.example.taskmanagementsystem.service.UserService;
 import com.example.taskmanagementsystem.util.DBDataInitializer;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -15,6 +16,7 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.core.Authentication;
 import org.springframework.test.context.ActiveProfiles;
@@ -30,7 +32,9 @@ import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 
 @SpringBootTest
@@ -59,7 +63,7 @@ class UserControllerTest {
     @Test
     void getLoginInfo_ShouldReturnUserInfoAndToken() throws Exception {
         Map<String, Object> loginInfo = new HashMap<>();
-        loginInfo.put("userInfo", new UserRs(1L, "testUser", "test@mail.com", Set.of(RoleType.ROLE_USER)));
+        loginInfo.put("userInfo", new UserRs(1L, "testUser", "test@mail.com", Set.of(RoleType.ROLE_USER), 0L));
         loginInfo.put("token", "jwtToken");
 
         given(authentication.getName()).willReturn("testUser");
@@ -83,7 +87,7 @@ class UserControllerTest {
     @Test
     void findById_ShouldReturnUserRs() throws Exception {
         User admin = User.builder().id(1L).username("admin").password("Password123").email("admin@mail.com").roles(Set.of(RoleType.ROLE_ADMIN)).build();
-        UserRs adminRs = new UserRs(1L, "admin", "admin@mail.com", Set.of(RoleType.ROLE_ADMIN));
+        UserRs adminRs = new UserRs(1L, "admin", "admin@mail.com", Set.of(RoleType.ROLE_ADMIN), 0L);
         given(userService.findByIdReturnUserRs(1L)).willReturn(adminRs);
         given(userToUserRsConverter.convert(admin)).willReturn(adminRs);
 
@@ -96,7 +100,8 @@ class UserControllerTest {
                 .andExpect(jsonPath("$.data.username").value("admin"))
                 .andExpect(jsonPath("$.data.email").value("admin@mail.com"))
                 .andExpect(jsonPath("$.data.roles").value("ROLE_ADMIN"))
-                .andExpect(jsonPath("$.data.password").doesNotExist());
+                .andExpect(jsonPath("$.data.password").doesNotExist())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"0\""));
     }
 
     @Test
@@ -113,8 +118,8 @@ class UserControllerTest {
 
     @Test
     void findAllSuccess() throws Exception {
-        UserRs adminRs = new UserRs(1L, "admin", "admin@mail.com", Set.of(RoleType.ROLE_ADMIN));
-        UserRs userRs = new UserRs(1L, "user", "user@mail.com", Set.of(RoleType.ROLE_USER));
+        UserRs adminRs = new UserRs(1L, "admin", "admin@mail.com", Set.of(RoleType.ROLE_ADMIN), 0L);
+        UserRs userRs = new UserRs(1L, "user", "user@mail.com", Set.of(RoleType.ROLE_USER), 0L);
         List<UserRs> userRsList = List.of(adminRs, userRs);
         given(userService.findAll()).willReturn(userRsList);
         given(userToUserRsConverter.convert(any(User.class))).willReturn(adminRs);
@@ -133,7 +138,7 @@ class UserControllerTest {
     @Test
     void create_ShouldSaveUser() throws Exception {
         User admin = User.builder().id(1L).username("admin").password("Password123").email("admin@mail.com").roles(Set.of(RoleType.ROLE_ADMIN)).build();
-        UserRs adminRs = new UserRs(1L, "admin", "admin@mail.com", Set.of(RoleType.ROLE_ADMIN));
+        UserRs adminRs = new UserRs(1L, "admin", "admin@mail.com", Set.of(RoleType.ROLE_ADMIN), 0L);
         UserRq adminRq = new UserRq("admin", "admin@mail.com", "Password123", Set.of(RoleType.ROLE_ADMIN), true);
         given(userRqToUserConverter.convert(adminRq)).willReturn(admin);
         given(userService.create(adminRq)).willReturn(adminRs);
@@ -179,10 +184,10 @@ class UserControllerTest {
     @Test
     void update_ShouldUpdateUser() throws Exception {
         User user = User.builder().id(2L).username("user").password("Password123").email("user@mail.com").roles(Set.of(RoleType.ROLE_USER)).build();
-        UserRs userRs = new UserRs(1L,"userUp", "userUp@mail.com", Set.of(RoleType.ROLE_USER));
+        UserRs userRs = new UserRs(1L,"userUp", "userUp@mail.com", Set.of(RoleType.ROLE_USER), 0L);
         UserRq rq = new UserRq("userUp", "userUp@mail.com","Password123", Set.of(RoleType.ROLE_USER), true);
         given(userRqToUserConverter.convert(rq)).willReturn(user);
-        given(userService.update(1L, rq)).willReturn(userRs);
+        given(userService.update(1L, rq, null)).willReturn(userRs);
         given(userToUserRsConverter.convert(user)).willReturn(userRs);
 
         this.mockMvc.perform(put(baseUrl + "/user/1")
@@ -195,6 +200,22 @@ class UserControllerTest {
                 .andExpect(jsonPath("$.data.username").value("userUp"));
     }
 
+    @Test
+    void update_ShouldReturnPreconditionFailed_WhenVersionIsStale() throws Exception {
+        UserRq rq = new UserRq("userUp", "userUp@mail.com","Password123", Set.of(RoleType.ROLE_USER), true);
+        given(userService.update(1L, rq, 2L)).willThrow(new PreconditionFailedException("User with id 1 is not at version 2"));
+
+        this.mockMvc.perform(put(baseUrl + "/user/1")
+                        .header(HttpHeaders.IF_MATCH, "\"2\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(rq))
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(jsonPath("$.flag").value(false))
+                .andExpect(jsonPath("$.code").value(StatusCode.PRECONDITION_FAILED))
+                .andExpect(jsonPath("$.data").value("User with id 1 is not at version 2"));
+    }
+
     @Test
     void update_NotValidUserDataFail() throws Exception {
 
@@ -0,0 +1,221 @@
+package com.example.taskmanagementsystem.repo;
+
+import com.example.taskmanagementsystem.dto.task.TaskCursor;
+import com.example.taskmanagementsystem.dto.task.TaskFilter;
+import com.example.taskmanagementsystem.entity.Priority;
+import com.example.taskmanagementsystem.entity.Status;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.redis.testcontainers.RedisContainer;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Plans every {@link TaskFilter} predicate combination against a seeded PostgreSQL schema built by the
+ * Liquibase changelog and checks that no query over tasks or comments falls back to a sequential scan.
+ * <p>
+ * The SQL is the statement Hibernate actually sends, captured with a {@link StatementInspector}, and is
+ * planned with {@code EXPLAIN (GENERIC_PLAN)}: the plan a server-side prepared statement settles on,
+ * chosen without knowing the parameter values.
+ */
+@SpringBootTest
+@Import(TaskFilterIndexIntegrationTest.SqlCaptureConfiguration.class)
+@Testcontainers
+@ActiveProfiles(value = "local")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class TaskFilterIndexIntegrationTest {
+
+    private static final int USERS = 1_000;
+    private static final int TASKS = 200_000;
+    private static final int PAGE_SIZE = 20;
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgresContainer = new PostgreSQLContainer<>(DockerImageName.parse("postgres:16-alpine"));
+
+    @Container
+    @ServiceConnection
+    static RedisContainer redisContainer = new RedisContainer(DockerImageName.parse("redis:6.2.6"));
+
+    @Autowired
+    TaskRepository taskRepository;
+    @Autowired
+    CommentRepository commentRepository;
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+    @Autowired
+    ObjectMapper objectMapper;
+    @Autowired
+    SqlCapture sqlCapture;
+
+    /**
+     * Records the SQL Hibernate prepares so the exact statement can be planned.
+     */
+    static class SqlCapture implements StatementInspector {
+
+        final List<String> statements = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            statements.add(sql);
+            return sql;
+        }
+    }
+
+    @TestConfiguration
+    static class SqlCaptureConfiguration {
+
+        @Bean
+        SqlCapture sqlCapture() {
+            return new SqlCapture();
+        }
+
+        @Bean
+        HibernatePropertiesCustomizer statementInspectorCustomizer(SqlCapture sqlCapture) {
+            return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, sqlCapture);
+        }
+    }
+
+    @BeforeAll
+    void seed() {
+        // Skewed like a real backlog: most tasks are finished, a fifth are unassigned
+        jdbcTemplate.update("INSERT INTO users (username, email, password, enabled) " +
+                "SELECT 'bench' || g, 'bench' || g || '@example.com', 'x', true FROM generate_series(1, ?) g", USERS);
+        jdbcTemplate.update("INSERT INTO tasks (title, description, status, priority, author_id, assignee_id, created_at) " +
+                "SELECT 'Task ' || g, 'Description ' || g, " +
+                "CASE WHEN g % 10 < 7 THEN 'FINISHED' WHEN g % 10 < 9 THEN 'RUNNING' ELSE 'WAITING' END, " +
+                "(ARRAY['LOW', 'MEDIUM', 'HIGH'])[1 + g % 3], " +
+                "1 + (g * 7) % ?, CASE WHEN g % 5 = 0 THEN NULL ELSE 1 + (g * 13) % ? END, " +
+                "TIMESTAMP '2024-01-01' + g * INTERVAL '1 minute' FROM generate_series(1, ?) g", USERS, USERS, TASKS);
+        jdbcTemplate.update("INSERT INTO comments (comment, author_id, task_id) " +
+                "SELECT 'Comment ' || g, 1 + g % ?, 1 + g % ? FROM generate_series(1, ?) g", USERS, TASKS, TASKS);
+        // Index-only scans need the visibility map, the planner needs statistics
+        jdbcTemplate.execute("VACUUM ANALYZE tasks");
+        jdbcTemplate.execute("VACUUM ANALYZE comments");
+    }
+
+    /**
+     * All 32 subsets of the selective predicates, plus the exact-match title and description filters.
+     */
+    Stream<TaskFilter> filters() {
+        Stream<TaskFilter> combinations = IntStream.range(0, 1 << 5).mapToObj(mask -> new TaskFilter(PAGE_SIZE, 0, null, null,
+                (mask & 1) != 0 ? Status.WAITING : null,
+                (mask & 2) != 0 ? Priority.HIGH : null,
+                (mask & 4) != 0 ? 42L : null,
+                (mask & 8) != 0 ? 42L : null,
+                (mask & 16) != 0 ? Instant.parse("2024-02-01T00:00:00Z") : null,
+                null, null));
+        return Stream.concat(combinations, Stream.of(
+                new TaskFilter(PAGE_SIZE, 0, "Task 42", null, null, null, null, null, null, null, null),
+                new TaskFilter(PAGE_SIZE, 0, null, "Description 42", null, null, null, null, null, null, null)));
+    }
+
+    @ParameterizedTest
+    @MethodSource("filters")
+    void keysetPageUsesIndex(TaskFilter filter) throws Exception {
+        String sql = capture(() -> taskRepository.findBy(TaskSpecification.withFilter(filter),
+                query -> query.sortBy(TaskCursor.SORT).limit(PAGE_SIZE + 1).all()));
+
+        assertThat(sequentialScans(sql)).as("%s%n%s", filter, sql).isEmpty();
+    }
+
+    @ParameterizedTest
+    @MethodSource("filters")
+    void countUsesIndex(TaskFilter filter) throws Exception {
+        // An unfiltered count reads the whole table whatever the indexes; ESTIMATE mode exists for that case
+        if (Stream.of(filter.getTitle(), filter.getDescription(), filter.getStatus(), filter.getPriority(),
+                filter.getAuthorId(), filter.getAssigneeId(), filter.getCreatedAt()).allMatch(Objects::isNull)) {
+            return;
+        }
+        String sql = capture(() -> taskRepository.count(TaskSpecification.withFilter(filter)));
+
+        assertThat(sequentialScans(sql)).as("%s%n%s", filter, sql).isEmpty();
+    }
+
+    @Test
+    void commentsOfPageUseIndex() throws Exception {
+        List<Long> taskIds = LongStream.rangeClosed(1, PAGE_SIZE).boxed().toList();
+        String sql = capture(() -> commentRepository.findCommentsRsByTaskIds(taskIds));
+
+        assertThat(sequentialScans(sql)).as(sql).isEmpty();
+    }
+
+    private String capture(Supplier<?> query) {
+        sqlCapture.statements.clear();
+        query.get();
+        assertThat(sqlCapture.statements).hasSize(1);
+        return sqlCapture.statements.get(0);
+    }
+
+    /**
+     * Returns the relations read by a sequential scan in the generic plan of a JDBC statement.
+     */
+    private List<String> sequentialScans(String sql) throws Exception {
+        StringBuilder numbered = new StringBuilder();
+        int parameter = 0;
+        for (char c : sql.toCharArray()) {
+            if (c == '?') {
+                numbered.append('$').append(++parameter);
+            } else {
+                numbered.append(c);
+            }
+        }
+
+        // GENERIC_PLAN takes $n placeholders, which only the simple query protocol passes through unbound
+        Properties properties = new Properties();
+        properties.setProperty("user", postgresContainer.getUsername());
+        properties.setProperty("password", postgresContainer.getPassword());
+        properties.setProperty("preferQueryMode", "simple");
+        properties.setProperty("currentSchema", "tms");
+        try (Connection connection = DriverManager.getConnection(postgresContainer.getJdbcUrl(), properties);
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("EXPLAIN (GENERIC_PLAN, FORMAT JSON) " + numbered)) {
+            rs.next();
+            List<String> scans = new ArrayList<>();
+            collectSequentialScans(objectMapper.readTree(rs.getString(1)).path(0).path("Plan"), scans);
+            return scans;
+        }
+    }
+
+    private static void collectSequentialScans(JsonNode plan, List<String> scans) {
+        if (plan.path("Node Type").asText().contains("Seq Scan")) {
+            scans.add(plan.path("Relation Name").asText());
+        }
+        plan.path("Plans").forEach(child -> collectSequentialScans(child, scans));
+    }
+}
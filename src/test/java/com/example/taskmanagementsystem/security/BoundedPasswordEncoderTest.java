@@ -0,0 +1,98 @@
+package com.example.taskmanagementsystem.security;
+
+import com.example.taskmanagementsystem.exception.AuthenticationThrottledException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class BoundedPasswordEncoderTest {
+
+    @Mock
+    private PasswordEncoder delegate;
+
+    private MeterRegistry meterRegistry;
+    private BoundedPasswordEncoder encoder;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        encoder = new BoundedPasswordEncoder(delegate, meterRegistry, 1, 1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        encoder.close();
+    }
+
+    @Test
+    void matches_ShouldRunOnEncoderThread() {
+        when(delegate.matches("Password123", "hash")).thenAnswer(invocation ->
+                Thread.currentThread().getName().startsWith("password-encoder-"));
+
+        assertTrue(encoder.matches("Password123", "hash"));
+    }
+
+    @Test
+    void encode_ShouldReturnDelegateHash() {
+        when(delegate.encode("Password123")).thenReturn("hash");
+
+        assertEquals("hash", encoder.encode("Password123"));
+    }
+
+    @Test
+    void matches_ShouldRethrowDelegateException() {
+        when(delegate.matches("Password123", "hash")).thenThrow(new IllegalArgumentException("Invalid hash"));
+
+        assertThrows(IllegalArgumentException.class, () -> encoder.matches("Password123", "hash"));
+    }
+
+    @Test
+    void matches_ShouldThrowThrottled_WhenQueueIsFull() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        when(delegate.matches(any(), any())).thenAnswer(invocation -> release.await(5, TimeUnit.SECONDS));
+
+        CompletableFuture<Boolean> running = CompletableFuture.supplyAsync(() -> encoder.matches("a", "hash"));
+        awaitGauge("executor.active", 1);
+        CompletableFuture<Boolean> queued = CompletableFuture.supplyAsync(() -> encoder.matches("b", "hash"));
+        awaitGauge("executor.queued", 1);
+
+        AuthenticationThrottledException exception = assertThrows(AuthenticationThrottledException.class,
+                () -> encoder.matches("c", "hash"));
+        assertEquals(BoundedPasswordEncoder.RETRY_AFTER, exception.getRetryAfter());
+        assertEquals(1, meterRegistry.get("password.encoder.rejected").counter().count());
+
+        release.countDown();
+        assertTrue(running.get(5, TimeUnit.SECONDS));
+        assertTrue(queued.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void upgradeEncoding_ShouldDelegate() {
+        when(delegate.upgradeEncoding("hash")).thenReturn(true);
+
+        assertTrue(encoder.upgradeEncoding("hash"));
+    }
+
+    private void awaitGauge(String name, double value) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.get(name).tag("name", "password.encoder").gauge().value() < value) {
+            assertTrue(System.nanoTime() < deadline, name + " did not reach " + value);
+            Thread.sleep(10);
+        }
+    }
+}
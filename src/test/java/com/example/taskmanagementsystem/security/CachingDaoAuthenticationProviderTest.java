@@ -0,0 +1,133 @@
+package com.example.taskmanagementsystem.security;
+
+import com.example.taskmanagementsystem.client.rediscache.CacheInvalidationBus;
+import com.example.taskmanagementsystem.client.rediscache.CacheClient;
+import com.example.taskmanagementsystem.entity.RoleType;
+import com.example.taskmanagementsystem.entity.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.DisabledException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class CachingDaoAuthenticationProviderTest {
+
+    @Mock
+    private UserDetailsService userDetailsService;
+    @Mock
+    private UserDetailsPasswordService userDetailsPasswordService;
+    @Mock
+    private CacheClient cacheClient;
+
+    private final PasswordEncoder passwordEncoder = spy(new BCryptPasswordEncoder(4));
+    private UserAuthenticationCache userAuthenticationCache;
+    private CachingDaoAuthenticationProvider provider;
+
+    @BeforeEach
+    void setUp() {
+        userAuthenticationCache = new UserAuthenticationCache(new CacheInvalidationBus(cacheClient),
+                new SimpleMeterRegistry(), 100, Duration.ofMinutes(1), 100, Duration.ofMinutes(5));
+        provider = new CachingDaoAuthenticationProvider(passwordEncoder, userDetailsService,
+                userDetailsPasswordService, userAuthenticationCache);
+    }
+
+    @Test
+    void authenticate_ShouldSkipQueryAndPasswordCheck_WhenCredentialsWereVerified() {
+        when(userDetailsService.loadUserByUsername("user1")).thenReturn(user("user1", "Password123", true));
+
+        Authentication first = provider.authenticate(basic("user1", "Password123"));
+        Authentication second = provider.authenticate(basic("user1", "Password123"));
+
+        assertTrue(second.isAuthenticated());
+        assertEquals(first.getPrincipal(), second.getPrincipal());
+        verify(userDetailsService, times(1)).loadUserByUsername("user1");
+        verify(passwordEncoder, times(1)).matches(anyString(), anyString());
+    }
+
+    @Test
+    void authenticate_ShouldCheckPasswordAgainstCachedUser_WhenCredentialsAreNew() {
+        when(userDetailsService.loadUserByUsername("user1")).thenReturn(user("user1", "Password123", true));
+
+        assertThrows(BadCredentialsException.class, () -> provider.authenticate(basic("user1", "Wrong123")));
+        assertThrows(BadCredentialsException.class, () -> provider.authenticate(basic("user1", "Wrong123")));
+        provider.authenticate(basic("user1", "Password123"));
+
+        // A failure against the cached user re-reads the user, but checks again only if its hash changed
+        verify(userDetailsService, times(2)).loadUserByUsername("user1");
+        verify(passwordEncoder, times(3)).matches(anyString(), anyString());
+    }
+
+    @Test
+    void authenticate_ShouldReloadUser_WhenEvicted() {
+        when(userDetailsService.loadUserByUsername("user1"))
+                .thenReturn(user("user1", "Password123", true))
+                .thenReturn(user("user1", "NewPassword123", true));
+        provider.authenticate(basic("user1", "Password123"));
+
+        userAuthenticationCache.evict("user1");
+
+        assertThrows(BadCredentialsException.class, () -> provider.authenticate(basic("user1", "Password123")));
+        assertTrue(provider.authenticate(basic("user1", "NewPassword123")).isAuthenticated());
+        verify(cacheClient).publish(CacheInvalidationBus.CHANNEL, "user:user1");
+    }
+
+    @Test
+    void authenticate_ShouldRetryWithDatabase_WhenCachedUserIsStale() {
+        when(userDetailsService.loadUserByUsername("user1"))
+                .thenReturn(user("user1", "Password123", true))
+                .thenReturn(user("user1", "NewPassword123", true));
+        userAuthenticationCache.putUserInCache(userDetailsService.loadUserByUsername("user1"), 0);
+
+        assertTrue(provider.authenticate(basic("user1", "NewPassword123")).isAuthenticated());
+    }
+
+    @Test
+    void authenticate_ShouldRejectDisabledUser_WhenCredentialsWereVerified() {
+        userAuthenticationCache.putVerified("user1", "Password123", user("user1", "Password123", false), 0);
+
+        assertThrows(DisabledException.class, () -> provider.authenticate(basic("user1", "Password123")));
+    }
+
+    @Test
+    void putVerified_ShouldBeSkipped_WhenEvictionRacedWithVerification() {
+        long seenInvalidations = userAuthenticationCache.invalidations();
+        userAuthenticationCache.evict("user1");
+
+        userAuthenticationCache.putVerified("user1", "Password123", user("user1", "Password123", true), seenInvalidations);
+        userAuthenticationCache.putUserInCache(user("user1", "Password123", true), seenInvalidations);
+
+        assertNull(userAuthenticationCache.getVerified("user1", "Password123"));
+        assertNull(userAuthenticationCache.getUserFromCache("user1"));
+    }
+
+    private AppUserDetails user(String username, String password, boolean enabled) {
+        return new AppUserDetails(User.builder()
+                .id(2L)
+                .username(username)
+                .password(new BCryptPasswordEncoder(4).encode(password))
+                .roles(Set.of(RoleType.ROLE_USER))
+                .enabled(enabled)
+                .build());
+    }
+
+    private static UsernamePasswordAuthenticationToken basic(String username, String password) {
+        return UsernamePasswordAuthenticationToken.unauthenticated(username, password);
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.taskmanagementsystem.security;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class CachingJwtDecoderTest {
+
+    @Mock
+    private JwtDecoder delegate;
+    @Mock
+    private Clock clock;
+
+    private final Instant now = Instant.parse("2024-09-01T10:00:00Z");
+    private MeterRegistry meterRegistry;
+    private CachingJwtDecoder decoder;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        decoder = new CachingJwtDecoder(delegate, meterRegistry, 100, clock);
+        lenient().when(clock.instant()).thenReturn(now);
+    }
+
+    @Test
+    void decode_ShouldVerifyOnce_WhenTokenIsReused() {
+        Jwt jwt = jwt("token", now.plus(2, ChronoUnit.HOURS));
+        when(delegate.decode("token")).thenReturn(jwt);
+
+        assertSame(jwt, decoder.decode("token"));
+        assertSame(jwt, decoder.decode("token"));
+
+        verify(delegate, times(1)).decode("token");
+        assertEquals(1, cacheGets("hit"));
+        assertEquals(1, cacheGets("miss"));
+    }
+
+    @Test
+    void decode_ShouldVerifyEachToken() {
+        Jwt first = jwt("first", now.plus(2, ChronoUnit.HOURS));
+        Jwt second = jwt("second", now.plus(2, ChronoUnit.HOURS));
+        when(delegate.decode("first")).thenReturn(first);
+        when(delegate.decode("second")).thenReturn(second);
+
+        assertSame(first, decoder.decode("first"));
+        assertSame(second, decoder.decode("second"));
+    }
+
+    @Test
+    void decode_ShouldVerifyAgain_WhenCachedTokenExpired() {
+        Instant expiresAt = now.plus(2, ChronoUnit.HOURS);
+        when(delegate.decode("token"))
+                .thenReturn(jwt("token", expiresAt))
+                .thenThrow(new BadJwtException("Jwt expired"));
+
+        decoder.decode("token");
+        when(clock.instant()).thenReturn(expiresAt);
+
+        assertThrows(BadJwtException.class, () -> decoder.decode("token"));
+        verify(delegate, times(2)).decode("token");
+    }
+
+    @Test
+    void decode_ShouldNotCache_WhenTokenIsRejected() {
+        when(delegate.decode("token")).thenThrow(new BadJwtException("Signed JWT rejected"));
+
+        assertThrows(BadJwtException.class, () -> decoder.decode("token"));
+        assertThrows(BadJwtException.class, () -> decoder.decode("token"));
+
+        verify(delegate, times(2)).decode("token");
+    }
+
+    @Test
+    void decode_ShouldNotCache_WhenTokenHasNoExpiry() {
+        Jwt jwt = jwt("token", null);
+        when(delegate.decode("token")).thenReturn(jwt);
+
+        decoder.decode("token");
+        decoder.decode("token");
+
+        verify(delegate, times(2)).decode("token");
+    }
+
+    private static Jwt jwt(String token, Instant expiresAt) {
+        Jwt.Builder builder = Jwt.withTokenValue(token)
+                .header("alg", "RS256")
+                .claim("userId", 1L);
+        if (expiresAt != null) {
+            builder.expiresAt(expiresAt);
+        }
+        return builder.build();
+    }
+
+    private double cacheGets(String result) {
+        return meterRegistry.get("cache.gets").tag("cache", "jwt").tag("result", result).functionCounter().count();
+    }
+}
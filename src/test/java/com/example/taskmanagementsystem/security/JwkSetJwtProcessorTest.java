@@ -0,0 +1,103 @@
+package com.example.taskmanagementsystem.security;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSet;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.security.oauth2.jwt.*;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JwkSetJwtProcessorTest {
+
+    @ParameterizedTest
+    @EnumSource(JwtSigningAlgorithm.class)
+    void decode_ShouldReturnJwt_WhenSignedWithKnownKey(JwtSigningAlgorithm algorithm) throws JOSEException {
+        JWK key = algorithm.generateKey("kid-1");
+        JwtDecoder decoder = decoder(key);
+
+        Jwt jwt = decoder.decode(encode(algorithm, key));
+
+        assertEquals(algorithm.getName(), jwt.getHeaders().get("alg"));
+        assertEquals("kid-1", jwt.getHeaders().get("kid"));
+        assertEquals(1L, (Long) jwt.getClaim("userId"));
+    }
+
+    @ParameterizedTest
+    @EnumSource(JwtSigningAlgorithm.class)
+    void decode_ShouldReject_WhenSignedWithUnknownKey(JwtSigningAlgorithm algorithm) throws JOSEException {
+        JwtDecoder decoder = decoder(algorithm.generateKey("kid-1"));
+
+        String token = encode(algorithm, algorithm.generateKey("kid-2"));
+
+        assertThrows(BadJwtException.class, () -> decoder.decode(token));
+    }
+
+    @ParameterizedTest
+    @EnumSource(JwtSigningAlgorithm.class)
+    void decode_ShouldReject_WhenSignatureIsInvalid(JwtSigningAlgorithm algorithm) throws JOSEException {
+        JwtDecoder decoder = decoder(algorithm.generateKey("kid-1"));
+
+        String token = encode(algorithm, algorithm.generateKey("kid-1"));
+
+        BadJwtException exception = assertThrows(BadJwtException.class, () -> decoder.decode(token));
+        assertTrue(exception.getMessage().contains("Invalid signature"));
+    }
+
+    @ParameterizedTest
+    @EnumSource(JwtSigningAlgorithm.class)
+    void decode_ShouldReject_WhenSignedWithAnotherAlgorithm(JwtSigningAlgorithm algorithm) throws JOSEException {
+        JwtSigningAlgorithm other = algorithm == JwtSigningAlgorithm.RS256
+                ? JwtSigningAlgorithm.ES256
+                : JwtSigningAlgorithm.RS256;
+        JwtDecoder decoder = decoder(algorithm.generateKey("kid-1"));
+
+        String token = encode(other, other.generateKey("kid-1"));
+
+        assertThrows(BadJwtException.class, () -> decoder.decode(token));
+    }
+
+    @Test
+    void decode_ShouldAcceptTokensOfEveryKey_WhenKeysAreRotated() throws JOSEException {
+        JWK oldKey = JwtSigningAlgorithm.RS256.generateKey("kid-old");
+        JWK newKey = JwtSigningAlgorithm.EdDSA.generateKey("kid-new");
+        JwtDecoder decoder = new NimbusJwtDecoder(new JwkSetJwtProcessor(
+                new JWKSet(List.of(oldKey.toPublicJWK(), newKey.toPublicJWK()))));
+
+        assertEquals("kid-old", decoder.decode(encode(JwtSigningAlgorithm.RS256, oldKey)).getHeaders().get("kid"));
+        assertEquals("kid-new", decoder.decode(encode(JwtSigningAlgorithm.EdDSA, newKey)).getHeaders().get("kid"));
+    }
+
+    @Test
+    void decode_ShouldReject_WhenTokenHasNoKidAndSetHasSeveralKeys() throws JOSEException {
+        JWK key = JwtSigningAlgorithm.ES256.generateKey("kid-1");
+        JwtDecoder decoder = new NimbusJwtDecoder(new JwkSetJwtProcessor(
+                new JWKSet(List.of(key.toPublicJWK(), JwtSigningAlgorithm.ES256.generateKey("kid-2").toPublicJWK()))));
+
+        String token = encode(JwtSigningAlgorithm.ES256, JwtSigningAlgorithm.ES256.keyGenerator().generate());
+
+        assertThrows(BadJwtException.class, () -> decoder.decode(token));
+    }
+
+    private static JwtDecoder decoder(JWK key) throws JOSEException {
+        return new NimbusJwtDecoder(new JwkSetJwtProcessor(new JWKSet(key.toPublicJWK())));
+    }
+
+    private static String encode(JwtSigningAlgorithm algorithm, JWK key) throws JOSEException {
+        Instant now = Instant.now();
+        JwtClaimsSet claims = JwtClaimsSet.builder()
+                .issuer("self")
+                .issuedAt(now)
+                .expiresAt(now.plus(2, ChronoUnit.HOURS))
+                .subject("admin")
+                .claim("userId", 1L)
+                .build();
+        return new JwkJwtEncoder(key, algorithm).encode(JwtEncoderParameters.from(claims)).getTokenValue();
+    }
+}
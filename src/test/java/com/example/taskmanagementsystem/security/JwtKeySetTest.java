@@ -0,0 +1,75 @@
+package com.example.taskmanagementsystem.security;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSet;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ByteArrayResource;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JwtKeySetTest {
+
+    @Test
+    void loadJwks_ShouldSignWithSelectedKey_AndVerifyWithAllPublicKeys() throws Exception {
+        JWK oldKey = JwtSigningAlgorithm.RS256.generateKey("2024-01");
+        JWK newKey = JwtSigningAlgorithm.EdDSA.generateKey("2024-06");
+        String jwks = new JWKSet(List.of(oldKey, newKey)).toString(false);
+
+        JwtKeySet keySet = JwtKeySet.loadJwks(new ByteArrayResource(jwks.getBytes(StandardCharsets.UTF_8)), "2024-06");
+
+        assertEquals(newKey, keySet.getSigningKey());
+        assertEquals(JwtSigningAlgorithm.EdDSA, keySet.getSigningAlgorithm());
+        assertEquals(List.of("2024-01", "2024-06"), keySet.getVerificationKeys().getKeys().stream().map(JWK::getKeyID).toList());
+        assertTrue(keySet.getVerificationKeys().getKeys().stream().noneMatch(JWK::isPrivate));
+    }
+
+    @Test
+    void constructor_ShouldSignWithOnlyPrivateKey_WhenKeyIdIsOmitted() throws JOSEException {
+        JWK retiredKey = JwtSigningAlgorithm.ES256.generateKey("2024-01");
+        JWK currentKey = JwtSigningAlgorithm.ES256.generateKey("2024-06");
+
+        JwtKeySet keySet = new JwtKeySet(new JWKSet(List.of(retiredKey.toPublicJWK(), currentKey)), null);
+
+        assertEquals(currentKey, keySet.getSigningKey());
+        assertEquals(2, keySet.getVerificationKeys().size());
+    }
+
+    @Test
+    void constructor_ShouldInferAlgorithm_WhenKeyHasNoAlg() throws JOSEException {
+        JWK key = JwtSigningAlgorithm.ES256.keyGenerator().keyID("kid-1").generate();
+
+        assertEquals(JwtSigningAlgorithm.ES256, new JwtKeySet(new JWKSet(key), null).getSigningAlgorithm());
+    }
+
+    @Test
+    void constructor_ShouldThrow_WhenSigningKeyIsNotPrivate() throws JOSEException {
+        JWK key = JwtSigningAlgorithm.RS256.generateKey("kid-1");
+        JWKSet jwkSet = new JWKSet(key.toPublicJWK());
+
+        assertThrows(IllegalArgumentException.class, () -> new JwtKeySet(jwkSet, "kid-1"));
+        assertThrows(IllegalArgumentException.class, () -> new JwtKeySet(jwkSet, null));
+    }
+
+    @Test
+    void constructor_ShouldThrow_WhenSigningKeyIsAmbiguousOrUnknown() throws JOSEException {
+        JWKSet jwkSet = new JWKSet(List.of(
+                JwtSigningAlgorithm.RS256.generateKey("kid-1"),
+                JwtSigningAlgorithm.RS256.generateKey("kid-2")));
+
+        assertThrows(IllegalArgumentException.class, () -> new JwtKeySet(jwkSet, null));
+        assertThrows(IllegalArgumentException.class, () -> new JwtKeySet(jwkSet, "kid-3"));
+    }
+
+    @Test
+    void constructor_ShouldThrow_WhenKeyOfSeveralHasNoKid() throws JOSEException {
+        JWKSet jwkSet = new JWKSet(List.of(
+                JwtSigningAlgorithm.RS256.generateKey("kid-1"),
+                JwtSigningAlgorithm.RS256.keyGenerator().generate().toPublicJWK()));
+
+        assertThrows(IllegalArgumentException.class, () -> new JwtKeySet(jwkSet, "kid-1"));
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.taskmanagementsystem.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.event.AuthenticationFailureBadCredentialsEvent;
+import org.springframework.security.authentication.event.AuthenticationSuccessEvent;
+import org.springframework.security.web.authentication.WebAuthenticationDetails;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LoginRateLimiterTest {
+
+    private final LoginRateLimiter limiter = new LoginRateLimiter(Duration.ofMinutes(15), 3, 5, 1000);
+
+    @Test
+    void isBlocked_ShouldBlockUserAtAddress_WhenFailuresReachLimit() {
+        limiter.recordFailure("user1", "10.0.0.1");
+        limiter.recordFailure("user1", "10.0.0.1");
+        assertFalse(limiter.isBlocked("user1", "10.0.0.1"));
+
+        limiter.recordFailure("user1", "10.0.0.1");
+
+        assertTrue(limiter.isBlocked("user1", "10.0.0.1"));
+        assertFalse(limiter.isBlocked("user2", "10.0.0.1"));
+    }
+
+    @Test
+    void isBlocked_ShouldNotBlockUserAtOtherAddress_WhenFailuresComeFromElsewhere() {
+        List.of("10.0.0.1", "10.0.0.2", "10.0.0.3").forEach(address -> {
+            limiter.recordFailure("user1", address);
+            limiter.recordFailure("user1", address);
+            limiter.recordFailure("user1", address);
+        });
+
+        assertTrue(limiter.isBlocked("user1", "10.0.0.1"));
+        assertFalse(limiter.isBlocked("user1", "10.0.0.4"));
+    }
+
+    @Test
+    void isBlocked_ShouldBlockAddress_WhenFailuresReachLimit() {
+        List.of("a", "b", "c", "d", "e").forEach(username -> limiter.recordFailure(username, "10.0.0.1"));
+
+        assertTrue(limiter.isBlocked("f", "10.0.0.1"));
+        assertFalse(limiter.isBlocked("f", "10.0.0.2"));
+    }
+
+    @Test
+    void onSuccess_ShouldResetUserAtAddressButNotAddress() {
+        List.of("user1", "user1", "user1", "a", "b").forEach(username -> limiter.recordFailure(username, "10.0.0.1"));
+        limiter.recordFailure("user1", "10.0.0.2");
+        limiter.recordFailure("user1", "10.0.0.2");
+        limiter.recordFailure("user1", "10.0.0.2");
+
+        limiter.onSuccess(new AuthenticationSuccessEvent(authenticated("user1", "10.0.0.2")));
+
+        assertFalse(limiter.isBlocked("user1", "10.0.0.2"));
+        assertTrue(limiter.isBlocked("user1", "10.0.0.1"));
+        assertTrue(limiter.isBlocked("c", "10.0.0.1"));
+    }
+
+    @Test
+    void onFailure_ShouldCountUserAndAddress() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setRemoteAddr("10.0.0.1");
+        UsernamePasswordAuthenticationToken attempt = UsernamePasswordAuthenticationToken.unauthenticated("user1", "wrong");
+        attempt.setDetails(new WebAuthenticationDetails(request));
+
+        for (int i = 0; i < 3; i++) {
+            limiter.onFailure(new AuthenticationFailureBadCredentialsEvent(attempt, new BadCredentialsException("Bad credentials")));
+        }
+
+        assertTrue(limiter.isBlocked("user1", "10.0.0.1"));
+        assertFalse(limiter.isBlocked("user1", "10.0.0.2"));
+        assertFalse(limiter.isBlocked("user2", "10.0.0.1"));
+    }
+
+    private static UsernamePasswordAuthenticationToken authenticated(String username, String address) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setRemoteAddr(address);
+        UsernamePasswordAuthenticationToken authentication = UsernamePasswordAuthenticationToken.authenticated(username, null, List.of());
+        authentication.setDetails(new WebAuthenticationDetails(request));
+        return authentication;
+    }
+}
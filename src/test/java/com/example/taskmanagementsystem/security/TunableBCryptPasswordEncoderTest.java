@@ -0,0 +1,35 @@
+package com.example.taskmanagementsystem.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TunableBCryptPasswordEncoderTest {
+
+    private final TunableBCryptPasswordEncoder encoder = new TunableBCryptPasswordEncoder(5);
+
+    @Test
+    void upgradeEncoding_ShouldBeFalse_WhenStrengthMatches() {
+        assertFalse(encoder.upgradeEncoding(encoder.encode("Password123")));
+    }
+
+    @Test
+    void upgradeEncoding_ShouldBeTrue_WhenStrengthIsLower() {
+        assertTrue(encoder.upgradeEncoding(new BCryptPasswordEncoder(4).encode("Password123")));
+    }
+
+    @Test
+    void upgradeEncoding_ShouldBeTrue_WhenStrengthIsHigher() {
+        String hash = new BCryptPasswordEncoder(6).encode("Password123");
+
+        assertTrue(encoder.upgradeEncoding(hash));
+        assertTrue(encoder.matches("Password123", hash));
+    }
+
+    @Test
+    void upgradeEncoding_ShouldBeFalse_WhenHashIsNotBCrypt() {
+        assertFalse(encoder.upgradeEncoding("plain"));
+        assertFalse(encoder.upgradeEncoding(null));
+    }
+}
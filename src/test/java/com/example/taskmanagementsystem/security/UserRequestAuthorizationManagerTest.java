@@ -0,0 +1,91 @@
+package com.example.taskmanagementsystem.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class UserRequestAuthorizationManagerTest {
+
+    private final UserRequestAuthorizationManager manager = new UserRequestAuthorizationManager("/api/v1");
+    private final UserJwtAuthenticationConverter converter = new UserJwtAuthenticationConverter();
+
+    @Test
+    void check_ShouldGrantAdmin_ForAnyUser() {
+        Authentication admin = converter.convert(jwt(1L, "ROLE_ADMIN ROLE_USER"));
+
+        assertTrue(isGranted(admin, "/api/v1/user/2"));
+        assertTrue(isGranted(admin, "/api/v1/user"));
+    }
+
+    @Test
+    void check_ShouldGrantUser_OnlyForOwnId() {
+        Authentication user = converter.convert(jwt(2L, "ROLE_USER"));
+
+        assertTrue(isGranted(user, "/api/v1/user/2"));
+        assertTrue(isGranted(user, "/api/v1/user/2/password"));
+        assertFalse(isGranted(user, "/api/v1/user/1"));
+        assertFalse(isGranted(user, "/api/v1/user/22"));
+        assertFalse(isGranted(user, "/api/v1/user"));
+    }
+
+    @Test
+    void check_ShouldDeny_WhenIdIsNotNumeric() {
+        Authentication user = converter.convert(jwt(2L, "ROLE_USER"));
+
+        assertFalse(isGranted(user, "/api/v1/user/2a"));
+        assertFalse(isGranted(user, "/api/v1/user//2"));
+        assertFalse(isGranted(user, "/api/v1/user/99999999999999999999"));
+        assertFalse(isGranted(user, "/api/v1/task/user/2"));
+    }
+
+    @Test
+    void check_ShouldDeny_WhenUserRoleIsMissing() {
+        assertFalse(isGranted(converter.convert(jwt(2L, "")), "/api/v1/user/2"));
+    }
+
+    @Test
+    void check_ShouldSkipContextPath() {
+        Authentication user = converter.convert(jwt(2L, "ROLE_USER"));
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/tms/api/v1/user/2");
+        request.setContextPath("/tms");
+
+        assertTrue(manager.check(() -> user, new RequestAuthorizationContext(request)).isGranted());
+    }
+
+    @Test
+    void check_ShouldReadClaims_WhenAuthenticationIsPlainJwtToken() {
+        Authentication user = new JwtAuthenticationToken(jwt(2L, "ROLE_USER"), AuthorityUtils.createAuthorityList("ROLE_USER"));
+
+        assertTrue(isGranted(user, "/api/v1/user/2"));
+        assertFalse(isGranted(user, "/api/v1/user/1"));
+    }
+
+    @Test
+    void check_ShouldDeny_WhenAnonymous() {
+        Authentication anonymous = new AnonymousAuthenticationToken("key", "anonymousUser",
+                AuthorityUtils.createAuthorityList("ROLE_ANONYMOUS"));
+
+        assertFalse(isGranted(anonymous, "/api/v1/user/2"));
+    }
+
+    private boolean isGranted(Authentication authentication, String uri) {
+        RequestAuthorizationContext context = new RequestAuthorizationContext(new MockHttpServletRequest("GET", uri));
+        return manager.check(() -> authentication, context).isGranted();
+    }
+
+    private static Jwt jwt(Long userId, String authorities) {
+        return Jwt.withTokenValue("token")
+                .header("alg", "RS256")
+                .subject("user")
+                .claim("userId", userId)
+                .claim("authorities", authorities)
+                .build();
+    }
+}
@@ -1,10 +1,13 @@
 package com.example.taskmanagementsystem.service;
 
+import com.example.taskmanagementsystem.client.rediscache.TaskRsCache;
 import com.example.taskmanagementsystem.dto.comment.CommentRq;
 import com.example.taskmanagementsystem.dto.comment.CommentRqToCommentConverter;
 import com.example.taskmanagementsystem.dto.comment.CommentRs;
 import com.example.taskmanagementsystem.dto.comment.CommentToCommentRsConverter;
 import com.example.taskmanagementsystem.entity.Comment;
+import com.example.taskmanagementsystem.entity.EventType;
+import com.example.taskmanagementsystem.entity.Task;
 import com.example.taskmanagementsystem.repo.CommentRepository;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.Assertions;
@@ -31,6 +34,10 @@ class CommentServiceTest {
     private CommentToCommentRsConverter commentToCommentRsConverter;
     @Mock
     private CommentRqToCommentConverter commentRqToCommentConverter;
+    @Mock
+    private TaskRsCache taskRsCache;
+    @Mock
+    private OutboxService outboxService;
     @InjectMocks
     CommentService commentService;
 
@@ -75,7 +82,7 @@ class CommentServiceTest {
     @Test
     void create_ShouldSaveAndReturnCommentRs() {
         Instant instant = Instant.now();
-        Comment comment = Comment.builder().id(1L).comment("Test comment").build();
+        Comment comment = Comment.builder().id(1L).comment("Test comment").task(Task.builder().id(1L).build()).build();
         CommentRq rq = new CommentRq("Test comment", 1L, 1L);
         CommentRs rs = new CommentRs(1L, "Test comment", 1L, 1L, instant);
         given(commentRqToCommentConverter.convert(rq)).willReturn(comment);
@@ -87,6 +94,8 @@ class CommentServiceTest {
         assertThat(returnedComment.id()).isEqualTo(1L);
         assertThat(returnedComment.comment()).isEqualTo("Test comment");
         verify(commentRepository, times(1)).save(comment);
+        verify(outboxService).recordComment(comment, EventType.CREATED);
+        verify(taskRsCache).evictComments(1L);
     }
 
     @Test
@@ -105,7 +114,7 @@ class CommentServiceTest {
 
     @Test
     void deleteById_ShouldDeleteComment() {
-        Comment comment = Comment.builder().id(1L).comment("Test comment").build();
+        Comment comment = Comment.builder().id(1L).comment("Test comment").task(Task.builder().id(2L).build()).build();
         given(commentRepository.findById(1L)).willReturn(Optional.of(comment));
         doNothing().when(commentRepository).deleteById(1L);
 
@@ -114,6 +123,8 @@ class CommentServiceTest {
         verify(commentRepository).findById(1L);
         verify(commentRepository).deleteById(1L);
         verify(commentRepository, times(1)).deleteById(1L);
+        verify(outboxService).recordComment(comment, EventType.DELETED);
+        verify(taskRsCache).evictComments(2L);
     }
 
     @Test
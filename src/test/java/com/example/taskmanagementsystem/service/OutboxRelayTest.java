@@ -0,0 +1,125 @@
+package com.example.taskmanagementsystem.service;
+
+import com.example.taskmanagementsystem.client.rediscache.CacheClient;
+import com.example.taskmanagementsystem.entity.AggregateType;
+import com.example.taskmanagementsystem.entity.EventType;
+import com.example.taskmanagementsystem.entity.OutboxEvent;
+import com.example.taskmanagementsystem.repo.OutboxEventRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxRelayTest {
+
+    private static final Instant CREATED_AT = Instant.parse("2024-01-01T10:00:00Z");
+
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+    @Mock
+    private CacheClient cacheClient;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    @Mock
+    private OutboxRelay.Listener listener;
+
+    private OutboxRelay outboxRelay;
+
+    @BeforeEach
+    void setUp() {
+        outboxRelay = new OutboxRelay(outboxEventRepository, cacheClient, transactionManager, new SimpleMeterRegistry(),
+                2, Duration.ofMillis(500), 1000, true);
+        outboxRelay.subscribe(listener);
+    }
+
+    @AfterEach
+    void tearDown() {
+        outboxRelay.stop();
+    }
+
+    @Test
+    void relayBatch_ShouldPublishToStreamAndListenersBeforeDeleting() {
+        OutboxEvent taskUpdated = event(1L, AggregateType.TASK, 10L, EventType.UPDATED, 10L);
+        OutboxEvent userCreated = event(2L, AggregateType.USER, 3L, EventType.CREATED, null);
+        when(outboxEventRepository.findByOrderByIdAsc(Limit.of(2))).thenReturn(List.of(taskUpdated, userCreated));
+
+        int relayed = outboxRelay.relayBatch();
+
+        assertEquals(2, relayed);
+        InOrder inOrder = inOrder(cacheClient, listener, outboxEventRepository, transactionManager);
+        inOrder.verify(cacheClient).appendToStream(OutboxRelay.STREAM, List.of(
+                Map.of("id", "1", "aggregateType", "TASK", "aggregateId", "10", "eventType", "UPDATED",
+                        "taskId", "10", "createdAt", "2024-01-01T10:00:00Z"),
+                Map.of("id", "2", "aggregateType", "USER", "aggregateId", "3", "eventType", "CREATED",
+                        "createdAt", "2024-01-01T10:00:00Z")), 1000);
+        inOrder.verify(listener).onEvents(List.of(taskUpdated, userCreated));
+        inOrder.verify(outboxEventRepository).deleteAllByIdInBatch(List.of(1L, 2L));
+        inOrder.verify(transactionManager).commit(any());
+    }
+
+    @Test
+    void relayBatch_ShouldPublishNothing_WhenOutboxIsEmpty() {
+        when(outboxEventRepository.findByOrderByIdAsc(Limit.of(2))).thenReturn(List.of());
+
+        assertEquals(0, outboxRelay.relayBatch());
+
+        verifyNoInteractions(cacheClient, listener);
+        verify(outboxEventRepository, never()).deleteAllByIdInBatch(anyIterable());
+    }
+
+    @Test
+    void relay_ShouldDrainOutbox_UntilBatchComesBackShort() {
+        when(outboxEventRepository.findByOrderByIdAsc(Limit.of(2)))
+                .thenReturn(List.of(event(1L, AggregateType.TASK, 1L, EventType.CREATED, 1L), event(2L, AggregateType.TASK, 2L, EventType.CREATED, 2L)))
+                .thenReturn(List.of(event(3L, AggregateType.TASK, 3L, EventType.CREATED, 3L)));
+
+        outboxRelay.relay();
+
+        verify(outboxEventRepository, times(2)).findByOrderByIdAsc(Limit.of(2));
+        verify(outboxEventRepository).deleteAllByIdInBatch(List.of(1L, 2L));
+        verify(outboxEventRepository).deleteAllByIdInBatch(List.of(3L));
+    }
+
+    @Test
+    void relay_ShouldRollBackAndKeepEvents_WhenStreamIsUnavailable() {
+        OutboxEvent event = event(1L, AggregateType.COMMENT, 5L, EventType.DELETED, 10L);
+        when(outboxEventRepository.findByOrderByIdAsc(Limit.of(2))).thenReturn(List.of(event));
+        doThrow(new RedisConnectionFailureException("Redis circuit is open"))
+                .when(cacheClient).appendToStream(anyString(), anyList(), anyLong());
+
+        outboxRelay.relay();
+
+        verify(transactionManager).rollback(any());
+        verify(transactionManager, never()).commit(any());
+        verifyNoInteractions(listener);
+        verify(outboxEventRepository, never()).deleteAllByIdInBatch(anyIterable());
+    }
+
+    private static OutboxEvent event(Long id, AggregateType aggregateType, Long aggregateId, EventType eventType, Long taskId) {
+        return OutboxEvent.builder()
+                .id(id)
+                .aggregateType(aggregateType)
+                .aggregateId(aggregateId)
+                .eventType(eventType)
+                .taskId(taskId)
+                .createdAt(CREATED_AT)
+                .build();
+    }
+}
@@ -1,8 +1,21 @@
 package com.example.taskmanagementsystem.service;
 
+import com.example.taskmanagementsystem.client.rediscache.TaskRsCache;
+import com.example.taskmanagementsystem.dto.CursorPage;
+import com.example.taskmanagementsystem.dto.PageMode;
+import com.example.taskmanagementsystem.dto.ResourceVersion;
+import com.example.taskmanagementsystem.dto.SlicePage;
+import com.example.taskmanagementsystem.dto.comment.CommentRs;
+import com.example.taskmanagementsystem.dto.comment.CommentStats;
 import com.example.taskmanagementsystem.dto.task.*;
 import com.example.taskmanagementsystem.entity.*;
+import com.example.taskmanagementsystem.exception.InvalidCursorException;
+import com.example.taskmanagementsystem.exception.PreconditionFailedException;
+import com.example.taskmanagementsystem.repo.CommentRepository;
+import com.example.taskmanagementsystem.repo.TaskBulkUpdater;
+import com.example.taskmanagementsystem.repo.TaskCountEstimator;
 import com.example.taskmanagementsystem.repo.TaskRepository;
+import com.example.taskmanagementsystem.repo.TaskSearchIndex;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Assertions;
@@ -16,6 +29,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
@@ -23,8 +37,14 @@ import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.oauth2.jwt.Jwt;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
 import static org.junit.jupiter.api.Assertions.*;
@@ -39,6 +59,20 @@ class TaskServiceTest {
     @Mock
     TaskRepository taskRepository;
     @Mock
+    CommentRepository commentRepository;
+    @Mock
+    TaskSearchIndex taskSearchIndex;
+    @Mock
+    TaskRsCache taskRsCache;
+    @Mock
+    TaskCountEstimator taskCountEstimator;
+    @Mock
+    TaskBulkUpdater taskBulkUpdater;
+    @Mock
+    UserService userService;
+    @Mock
+    OutboxService outboxService;
+    @Mock
     private TaskToTaskRsConvertor taskToTaskRsConvertor;
     @Mock
     private TaskRqToTaskConvertor taskRqToTaskConvertor;
@@ -92,35 +126,96 @@ class TaskServiceTest {
     }
 
     @Test
-    void findByIdReturnTaskRs_ShouldReturnTaskRs() {
+    void findByIdReturnTaskRs_ShouldLoadTask_WhenNotCached() {
         Instant instant = Instant.now();
         User user = User.builder().id(1L).username("user").email("user@mail.com").password("Password123").roles(Set.of(RoleType.ROLE_USER)).build();
         Task task = Task.builder().id(1L).title("Task").description("Description task").status(Status.WAITING).priority(Priority.MEDIUM).author(user).assignee(user).createdAt(instant).build();
-        TaskRs taskRs = new TaskRs(1L, "Task", "Description task", Status.WAITING, Priority.MEDIUM, 1L, 1L, instant, List.of());
+        TaskRs taskRs = new TaskRs(1L, "Task", "Description task", Status.WAITING, Priority.MEDIUM, 1L, 1L, instant, instant, 0L, List.of());
 
+        when(taskRepository.findVersionById(1L)).thenReturn(Optional.of(new TaskVersion(0L, instant)));
+        when(taskRsCache.load(eq(1L), eq(false), any())).thenAnswer(invocation -> invocation.<Supplier<TaskRs>>getArgument(2).get());
         when(taskRepository.findById(anyLong())).thenReturn(Optional.of(task));
         when(taskToTaskRsConvertor.convert(task)).thenReturn(taskRs);
 
-        TaskRs result = taskService.findByIdReturnTaskRs(1L);
+        TaskRs result = taskService.findByIdReturnTaskRs(1L, false, (eTag, lastModified) -> false);
 
         assertNotNull(result);
         verify(taskRepository).findById(1L);
         verify(taskToTaskRsConvertor).convert(task);
     }
 
+    @Test
+    void findByIdReturnTaskRs_ShouldReturnNull_WhenNotModifiedAndNotCached() {
+        Instant updatedAt = Instant.now();
+        when(taskRepository.findVersionById(1L)).thenReturn(Optional.of(new TaskVersion(3L, updatedAt)));
+
+        TaskRs result = taskService.findByIdReturnTaskRs(1L, false,
+                (eTag, lastModified) -> eTag.equals("\"3\"") && lastModified == updatedAt.toEpochMilli());
+
+        assertNull(result);
+        verify(taskRepository, never()).findById(anyLong());
+        verify(taskRsCache, never()).load(anyLong(), anyBoolean(), any());
+    }
+
+    @Test
+    void findByIdReturnTaskRs_ShouldAnswerFromCache_WithoutQueryingDatabase() {
+        Instant updatedAt = Instant.parse("2024-11-21T12:00:00Z");
+        TaskRs taskRs = new TaskRs(1L, "Task", "Description task", Status.WAITING, Priority.MEDIUM, 1L, 1L, Instant.now(), updatedAt, 3L, null);
+        when(taskRsCache.getIfPresent(1L, false)).thenReturn(taskRs);
+        List<String> validators = new ArrayList<>();
+
+        TaskRs result = taskService.findByIdReturnTaskRs(1L, false, (eTag, lastModified) -> {
+            validators.add(eTag + " " + lastModified);
+            return false;
+        });
+
+        assertThat(result).isEqualTo(taskRs);
+        assertEquals(List.of("\"3\" " + updatedAt.toEpochMilli()), validators);
+        verifyNoInteractions(taskRepository, commentRepository, taskToTaskRsConvertor);
+    }
+
+    @Test
+    void findByIdReturnTaskRs_ShouldReturnNull_WhenCachedTaskNotModified() {
+        TaskRs taskRs = new TaskRs(1L, "Task", "Description task", Status.WAITING, Priority.MEDIUM, 1L, 1L, Instant.now(), Instant.now(), 3L, null);
+        when(taskRsCache.getIfPresent(1L, false)).thenReturn(taskRs);
+
+        TaskRs result = taskService.findByIdReturnTaskRs(1L, false, (eTag, lastModified) -> eTag.equals("\"3\""));
+
+        assertNull(result);
+        verifyNoInteractions(taskRepository, commentRepository, taskToTaskRsConvertor);
+    }
+
+    @Test
+    void findByIdReturnTaskRs_WithComments_ShouldBuildSameETagFromCacheAsFromDatabase() {
+        Instant instant = Instant.now();
+        List<CommentRs> commentsRs = List.of(new CommentRs(4L, "Comment1", 1L, 1L, instant), new CommentRs(9L, "Comment2", 2L, 1L, instant));
+        TaskRs taskRs = new TaskRs(1L, "Task", "Description task", Status.WAITING, Priority.MEDIUM, 1L, 1L, instant, instant, 3L, commentsRs);
+        when(taskRsCache.getIfPresent(1L, true)).thenReturn(taskRs);
+        when(taskRepository.findVersionById(1L)).thenReturn(Optional.of(new TaskVersion(3L, instant)));
+        when(commentRepository.findStatsByTaskIds(List.of(1L))).thenReturn(new CommentStats(2L, 9L));
+        String eTag = taskService.findVersionById(1L, true).eTag();
+
+        TaskRs result = taskService.findByIdReturnTaskRs(1L, true, (cachedETag, lastModified) -> cachedETag.equals(eTag) && lastModified == -1);
+
+        assertNull(result);
+        verify(taskRepository).findVersionById(1L);
+        verify(commentRepository).findStatsByTaskIds(List.of(1L));
+        verifyNoMoreInteractions(taskRepository, commentRepository);
+    }
+
     @Test
     void findAll_ShouldReturnPageOfTaskRs() {
         Instant instant = Instant.now();
         User user = User.builder().id(1L).username("user").email("user@mail.com").password("Password123").roles(Set.of(RoleType.ROLE_USER)).build();
         Task task = Task.builder().id(1L).title("Task").description("Description task").status(Status.WAITING).priority(Priority.MEDIUM).author(user).assignee(user).createdAt(instant).build();
-        TaskRs taskRs = new TaskRs(1L, "Task", "Description task", Status.WAITING, Priority.MEDIUM, 1L, 1L, instant, List.of());
+        TaskRs taskRs = new TaskRs(1L, "Task", "Description task", Status.WAITING, Priority.MEDIUM, 1L, 1L, instant, instant, 0L, List.of());
         Pageable pageable = PageRequest.of(0, 10);
         Task task2 = new Task();
         Page<Task> mockPage = new PageImpl<>(List.of(task, task2));
         when(taskRepository.findAll(pageable)).thenReturn(mockPage);
         when(taskToTaskRsConvertor.convert(any(Task.class))).thenReturn(taskRs);
 
-        Page<TaskRs> result = taskService.findAll(pageable);
+        Page<TaskRs> result = taskService.findAll(pageable, false, eTag -> false);
 
         assertNotNull(result);
         assertEquals(2, result.getTotalElements());
@@ -128,13 +223,154 @@ class TaskServiceTest {
         verify(taskToTaskRsConvertor).convert(task);
     }
 
+    @Test
+    void findAllSlice_ShouldNotCountRows() {
+        Task task = Task.builder().id(1L).title("Task").build();
+        Pageable pageable = PageRequest.of(0, 1);
+        when(taskRepository.findSlice(null, pageable)).thenReturn(new SliceImpl<>(List.of(task), pageable, true));
+
+        SlicePage<TaskRs> result = taskService.findAllSlice(pageable, false, false, eTag -> false);
+
+        assertTrue(result.hasNext());
+        assertNull(result.estimatedTotal());
+        verify(taskRepository, never()).count();
+        verifyNoInteractions(taskCountEstimator);
+    }
+
+    @Test
+    void filterBySlice_InEstimateMode_ShouldReturnPlannerEstimate() {
+        Task task = Task.builder().id(1L).title("Task").build();
+        TaskFilter filter = new TaskFilter(1, 0, null, null, Status.WAITING, null, null, null, null, PageMode.ESTIMATE, null);
+        when(taskRepository.findSlice(anySpec(), eq(PageRequest.of(0, 1))))
+                .thenReturn(new SliceImpl<>(List.of(task), PageRequest.of(0, 1), true));
+        when(taskCountEstimator.estimate(filter)).thenReturn(4_200L);
+
+        SlicePage<TaskRs> result = taskService.filterBySlice(filter, false);
+
+        assertEquals(4_200L, result.estimatedTotal());
+        assertEquals(1, result.content().size());
+        verify(taskRepository, never()).count(anySpec());
+    }
+
+    @Test
+    void filterBySlice_ShouldNotReportEstimateBelowRowsSeen() {
+        Task task = Task.builder().id(1L).title("Task").build();
+        TaskFilter filter = new TaskFilter(1, 3, null, null, null, null, null, null, null, PageMode.ESTIMATE, null);
+        when(taskRepository.findSlice(anySpec(), eq(PageRequest.of(3, 1))))
+                .thenReturn(new SliceImpl<>(List.of(task), PageRequest.of(3, 1), false));
+        when(taskCountEstimator.estimate(filter)).thenReturn(0L);
+
+        SlicePage<TaskRs> result = taskService.filterBySlice(filter, false);
+
+        assertEquals(4L, result.estimatedTotal());
+    }
+
+    @Test
+    void findAll_WithoutComments_ShouldNotQueryComments() {
+        Task task = Task.builder().id(1L).title("Task").build();
+        Pageable pageable = PageRequest.of(0, 10);
+        when(taskRepository.findAll(pageable)).thenReturn(new PageImpl<>(List.of(task)));
+
+        taskService.findAll(pageable, false, eTag -> false);
+
+        verifyNoInteractions(commentRepository);
+    }
+
+    @Test
+    void findAll_WithComments_ShouldLoadCommentsForPageInOneQuery() {
+        Instant instant = Instant.now();
+        Task task1 = Task.builder().id(1L).title("Task1").build();
+        Task task2 = Task.builder().id(2L).title("Task2").build();
+        CommentRs comment1 = new CommentRs(1L, "Comment1", 1L, 1L, instant);
+        CommentRs comment2 = new CommentRs(2L, "Comment2", 1L, 1L, instant);
+        Pageable pageable = PageRequest.of(0, 10);
+        when(taskRepository.findAll(pageable)).thenReturn(new PageImpl<>(List.of(task1, task2)));
+        when(commentRepository.findCommentsRsByTaskIds(List.of(1L, 2L))).thenReturn(List.of(comment1, comment2));
+        when(commentRepository.findStatsByTaskIds(List.of(1L, 2L))).thenReturn(new CommentStats(2L, 2L));
+
+        taskService.findAll(pageable, true, eTag -> false);
+
+        verify(commentRepository, times(1)).findCommentsRsByTaskIds(List.of(1L, 2L));
+        verify(taskToTaskRsConvertor).convert(task1, List.of(comment1, comment2));
+        verify(taskToTaskRsConvertor).convert(task2, List.of());
+    }
+
+    @Test
+    void findAll_ShouldNotConvertPage_WhenNotModified() {
+        Task task = Task.builder().id(1L).version(2L).title("Task").build();
+        Pageable pageable = PageRequest.of(0, 10);
+        when(taskRepository.findAll(pageable)).thenReturn(new PageImpl<>(List.of(task)));
+        when(commentRepository.findStatsByTaskIds(List.of(1L))).thenReturn(new CommentStats(3L, 7L));
+        List<String> eTags = new ArrayList<>();
+
+        Page<TaskRs> result = taskService.findAll(pageable, true, eTag -> eTags.add(eTag));
+
+        assertNull(result);
+        assertTrue(eTags.get(0).startsWith("W/\""));
+        verify(commentRepository, never()).findCommentsRsByTaskIds(anyCollection());
+        verifyNoInteractions(taskToTaskRsConvertor);
+    }
+
+    @Test
+    void findAll_ShouldChangeETag_WhenTaskOrCommentsChange() {
+        Pageable pageable = PageRequest.of(0, 10);
+        Task task = Task.builder().id(1L).version(2L).title("Task").build();
+        when(taskRepository.findAll(pageable)).thenReturn(new PageImpl<>(List.of(task)));
+        when(commentRepository.findStatsByTaskIds(List.of(1L))).thenReturn(new CommentStats(3L, 7L));
+        List<String> eTags = new ArrayList<>();
+
+        taskService.findAll(pageable, true, eTags::add);
+        taskService.findAll(pageable, true, eTags::add);
+        task.setVersion(3L);
+        taskService.findAll(pageable, true, eTags::add);
+        when(commentRepository.findStatsByTaskIds(List.of(1L))).thenReturn(new CommentStats(2L, 7L));
+        taskService.findAll(pageable, true, eTags::add);
+
+        assertEquals(eTags.get(0), eTags.get(1));
+        assertEquals(3, new HashSet<>(eTags).size());
+    }
+
+    @Test
+    void findVersionById_ShouldReturnVersionAndUpdateTime_WithoutLoadingTask() {
+        Instant updatedAt = Instant.now();
+        when(taskRepository.findVersionById(1L)).thenReturn(Optional.of(new TaskVersion(3L, updatedAt)));
+
+        ResourceVersion result = taskService.findVersionById(1L, false);
+
+        assertEquals("\"3\"", result.eTag());
+        assertEquals(updatedAt, result.lastModified());
+        verify(taskRepository, never()).findById(anyLong());
+        verifyNoInteractions(taskRsCache, commentRepository);
+    }
+
+    @Test
+    void findVersionById_WithComments_ShouldReturnWeakETag() {
+        when(taskRepository.findVersionById(1L)).thenReturn(Optional.of(new TaskVersion(3L, Instant.now())));
+        when(commentRepository.findStatsByTaskIds(List.of(1L))).thenReturn(new CommentStats(2L, 9L));
+
+        ResourceVersion result = taskService.findVersionById(1L, true);
+
+        assertTrue(result.eTag().startsWith("W/\""));
+        assertNull(result.lastModified());
+    }
+
+    @Test
+    void findVersionById_ShouldThrowException_WhenTaskNotFound() {
+        when(taskRepository.findVersionById(3L)).thenReturn(Optional.empty());
+
+        EntityNotFoundException exception = Assertions.assertThrows(
+                EntityNotFoundException.class, () -> taskService.findVersionById(3L, false));
+
+        assertEquals("Task with id 3 not found", exception.getMessage());
+    }
+
     @Test
     void create_ShouldSaveAndReturnTaskRs() {
         Instant instant = Instant.now();
         User user = User.builder().id(1L).username("user").email("user@mail.com").password("Password123").roles(Set.of(RoleType.ROLE_USER)).build();
         Task task = Task.builder().id(1L).title("Task").description("Description task").status(Status.WAITING).priority(Priority.MEDIUM).author(user).assignee(user).createdAt(instant).build();
         TaskRq taskRq = new TaskRq("Task", "Description task", Status.WAITING, Priority.MEDIUM, 1L, 1L);
-        TaskRs taskRs = new TaskRs(1L, "Task", "Description task", Status.WAITING, Priority.MEDIUM, 1L, 1L, instant, List.of());
+        TaskRs taskRs = new TaskRs(1L, "Task", "Description task", Status.WAITING, Priority.MEDIUM, 1L, 1L, instant, instant, 0L, List.of());
         given(taskRqToTaskConvertor.convert(taskRq)).willReturn(task);
         given(taskRepository.save(task)).willReturn(task);
         given(taskToTaskRsConvertor.convert(task)).willReturn(taskRs);
@@ -146,6 +382,104 @@ class TaskServiceTest {
         assertThat(returnedTask.description()).isEqualTo("Description task");
         assertThat(returnedTask.createdAt()).isEqualTo(instant);
         verify(taskRepository, times(1)).save(task);
+        verify(outboxService).recordTask(1L, EventType.CREATED);
+        verify(taskSearchIndex).index(task);
+    }
+
+    @Test
+    void createAll_ShouldCheckUsersOnceAndInsertInOneBatch() {
+        User author = User.builder().id(1L).username("admin").build();
+        User assignee = User.builder().id(2L).username("user").build();
+        Map<Long, User> users = Map.of(1L, author, 2L, assignee);
+        TaskRq first = new TaskRq("Task1", "Description task1", Status.WAITING, Priority.LOW, 1L, 2L);
+        TaskRq second = new TaskRq("Task2", "Description task2", Status.RUNNING, Priority.HIGH, 2L, 2L);
+        Task firstTask = Task.builder().title("Task1").author(author).assignee(assignee).build();
+        Task secondTask = Task.builder().title("Task2").author(assignee).assignee(assignee).build();
+        given(userService.getReferencesById(Set.of(1L, 2L))).willReturn(users);
+        given(taskRqToTaskConvertor.convert(first, users)).willReturn(firstTask);
+        given(taskRqToTaskConvertor.convert(second, users)).willReturn(secondTask);
+        given(taskRepository.insertAll(List.of(firstTask, secondTask))).willReturn(List.of(10L, 11L));
+
+        List<Long> ids = taskService.createAll(List.of(first, second));
+
+        assertEquals(List.of(10L, 11L), ids);
+        verify(userService, times(1)).getReferencesById(anyCollection());
+        verify(taskRepository, never()).save(any(Task.class));
+        verify(outboxService).recordTasks(List.of(10L, 11L), EventType.CREATED);
+        verify(taskSearchIndex).index(firstTask);
+        verify(taskSearchIndex).index(secondTask);
+    }
+
+    @Test
+    void createAll_ShouldInsertNothing_WhenUserIsMissing() {
+        TaskRq rq = new TaskRq("Task1", "Description task1", Status.WAITING, Priority.LOW, 1L, 99L);
+        given(userService.getReferencesById(Set.of(1L, 99L))).willThrow(new EntityNotFoundException("User with id 99 not found"));
+
+        Assertions.assertThrows(EntityNotFoundException.class, () -> taskService.createAll(List.of(rq)));
+
+        verifyNoInteractions(taskRepository, outboxService);
+    }
+
+    @Test
+    void export_InCsv_ShouldQuoteFieldsAndCloseCursor() throws Exception {
+        Instant instant = Instant.parse("2024-01-01T10:00:00Z");
+        TaskRs plain = new TaskRs(2L, "Task2", "Description", Status.WAITING, Priority.LOW, 1L, null, instant, instant, 0L, null);
+        TaskRs quoted = new TaskRs(1L, "Task, \"one\"", "Line1\nLine2", Status.RUNNING, Priority.HIGH, 1L, 2L, instant, instant, 0L, null);
+        AtomicBoolean closed = new AtomicBoolean();
+        when(taskRepository.streamTaskRs(anySpec(), anyInt()))
+                .thenReturn(Stream.of(plain, quoted).onClose(() -> closed.set(true)));
+        TaskFilter filter = new TaskFilter(null, null, null, null, null, null, 1L, null, null, null, null);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        taskService.export(filter, TaskExportFormat.CSV, out);
+
+        assertEquals("id,title,description,status,priority,authorId,assigneeId,createdAt\r\n" +
+                "2,Task2,Description,WAITING,LOW,1,,2024-01-01T10:00:00Z\r\n" +
+                "1,\"Task, \"\"one\"\"\",\"Line1\nLine2\",RUNNING,HIGH,1,2,2024-01-01T10:00:00Z\r\n",
+                out.toString(StandardCharsets.UTF_8));
+        assertTrue(closed.get());
+    }
+
+    @Test
+    void export_InCsv_ShouldEscapeFormulaCells() throws Exception {
+        Instant instant = Instant.parse("2024-01-01T10:00:00Z");
+        TaskRs formula = new TaskRs(1L, "=HYPERLINK(\"x\")", "@SUM(A1)", Status.WAITING, Priority.LOW, 1L, null, instant, instant, 0L, null);
+        TaskRs signed = new TaskRs(2L, "+1 task", "-1,\tdone", Status.WAITING, Priority.LOW, 1L, null, instant, instant, 0L, null);
+        when(taskRepository.streamTaskRs(anySpec(), anyInt())).thenReturn(Stream.of(formula, signed));
+        TaskFilter filter = new TaskFilter(null, null, null, null, null, null, null, null, null, null, null);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        taskService.export(filter, TaskExportFormat.CSV, out);
+
+        assertEquals("id,title,description,status,priority,authorId,assigneeId,createdAt\r\n" +
+                        "1,\"'=HYPERLINK(\"\"x\"\")\",'@SUM(A1),WAITING,LOW,1,,2024-01-01T10:00:00Z\r\n" +
+                        "2,'+1 task,\"'-1,\tdone\",WAITING,LOW,1,,2024-01-01T10:00:00Z\r\n",
+                out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void updateAll_ShouldUpdateInChunksAndEvictUpdatedTasks() {
+        TaskFilter filter = new TaskFilter(null, null, null, null, Status.WAITING, null, null, null, null, null, null);
+        TaskBulkUpdateRq rq = new TaskBulkUpdateRq(filter, Status.FINISHED, null);
+        List<Long> firstChunk = LongStream.rangeClosed(1, 1000).boxed().toList();
+        List<Long> secondChunk = List.of(1001L, 1002L);
+        when(taskRepository.findIdsAfter(anySpec(), isNull(), eq(1000))).thenReturn(firstChunk);
+        when(taskRepository.findIdsAfter(anySpec(), eq(1000L), eq(1000))).thenReturn(secondChunk);
+        // Tasks 999 and 1000 stopped matching the filter after their ids were read
+        List<Long> firstUpdated = firstChunk.subList(0, 998);
+        when(taskBulkUpdater.updateAll(eq(filter), eq(firstChunk), eq(Status.FINISHED), isNull())).thenReturn(firstUpdated);
+        when(taskBulkUpdater.updateAll(eq(filter), eq(secondChunk), eq(Status.FINISHED), isNull())).thenReturn(secondChunk);
+
+        long updated = taskService.updateAll(rq);
+
+        assertEquals(1000L, updated);
+        verify(taskRsCache).evict(firstUpdated);
+        verify(taskRsCache).evict(secondChunk);
+        verify(outboxService).recordTasks(firstUpdated, EventType.UPDATED);
+        verify(outboxService).recordTasks(secondChunk, EventType.UPDATED);
+        verify(outboxService, never()).recordTasks(firstChunk, EventType.UPDATED);
+        verify(taskRepository, never()).findIdsAfter(anySpec(), eq(1002L), anyInt());
+        verify(taskRepository, never()).save(any(Task.class));
     }
 
     @Test
@@ -171,18 +505,18 @@ class TaskServiceTest {
         Task convertedTask = Task.builder().title("TaskUp").description("Description taskUp").status(Status.FINISHED).priority(Priority.HIGH).author(user).assignee(author).build();
         Task existingTask = Task.builder().id(1L).title("Task").description("Description task").status(Status.WAITING).priority(Priority.MEDIUM).author(author).assignee(user).createdAt(instant).build();
         Task updatedTask = Task.builder().id(1L).title("Task").description("Description task").status(Status.FINISHED).priority(Priority.MEDIUM).author(author).assignee(user).createdAt(instant).build();
-        TaskRs taskRs = new TaskRs(1L, "Task", "Description task", Status.FINISHED, Priority.MEDIUM, 2L, 1L, instant, List.of());
+        TaskRs taskRs = new TaskRs(1L, "Task", "Description task", Status.FINISHED, Priority.MEDIUM, 2L, 1L, instant, instant, 0L, List.of());
         SecurityContextHolder.setContext(securityContext);
         when(securityContext.getAuthentication()).thenReturn(authentication);
         when(authentication.getPrincipal()).thenReturn(jwt);
         when(jwt.getClaim("userId")).thenReturn(1L);
-        when(authentication.getAuthorities()).thenReturn((Collection) Collections.singletonList(new SimpleGrantedAuthority("ROLE_USER")));
+        doReturn(List.of(new SimpleGrantedAuthority("ROLE_USER"))).when(authentication).getAuthorities();
         when(taskRqToTaskConvertor.convert(taskRq)).thenReturn(convertedTask);
         when(taskRepository.findById(2L)).thenReturn(Optional.of(existingTask));
-        when(taskRepository.save(existingTask)).thenReturn(updatedTask);
+        when(taskRepository.saveAndFlush(existingTask)).thenReturn(updatedTask);
         when(taskToTaskRsConvertor.convert(updatedTask)).thenReturn(taskRs);
 
-        TaskRs result = taskService.update(2L, taskRq);
+        TaskRs result = taskService.update(2L, taskRq, null);
 
         assertNotNull(result);
         assertEquals("Task", result.title());
@@ -191,7 +525,7 @@ class TaskServiceTest {
         assertEquals(Priority.MEDIUM, result.priority());
         assertEquals(2L, result.authorId());
         assertEquals(1L, result.assigneeId());
-        verify(taskRepository).save(existingTask);
+        verify(taskRepository).saveAndFlush(existingTask);
         verify(taskRqToTaskConvertor).convert(taskRq);
         verify(taskToTaskRsConvertor).convert(updatedTask);
     }
@@ -205,27 +539,45 @@ class TaskServiceTest {
         Task convertedTask = Task.builder().id(1L).title("TaskUp").description("Description taskUp").status(Status.FINISHED).priority(Priority.HIGH).author(admin).assignee(user).createdAt(instant).build();
         Task existingTask = Task.builder().id(1L).title("Task").description("Description task").status(Status.WAITING).priority(Priority.MEDIUM).author(admin).assignee(admin).createdAt(instant).build();
         Task updatedTask = Task.builder().id(1L).title("TaskUp").description("Description taskUp").status(Status.FINISHED).priority(Priority.HIGH).author(admin).assignee(admin).createdAt(instant).build();
-        TaskRs taskRs = new TaskRs(1L, "TaskUp", "Description taskUp", Status.FINISHED, Priority.HIGH, 1L, 1L, instant, List.of());
+        TaskRs taskRs = new TaskRs(1L, "TaskUp", "Description taskUp", Status.FINISHED, Priority.HIGH, 1L, 1L, instant, instant, 0L, List.of());
         when(securityContext.getAuthentication()).thenReturn(authentication);
         SecurityContextHolder.setContext(securityContext);
         when(authentication.getPrincipal()).thenReturn(jwt);
         when(jwt.getClaim("userId")).thenReturn(1L);
-        when(authentication.getAuthorities()).thenReturn((Collection) Collections.singletonList(new SimpleGrantedAuthority("ROLE_ADMIN")));
+        doReturn(List.of(new SimpleGrantedAuthority("ROLE_ADMIN"))).when(authentication).getAuthorities();
         when(taskRqToTaskConvertor.convert(taskRq)).thenReturn(convertedTask);
         when(taskRepository.findById(1L)).thenReturn(Optional.of(existingTask));
-        when(taskRepository.save(existingTask)).thenReturn(updatedTask);
+        when(taskRepository.saveAndFlush(existingTask)).thenReturn(updatedTask);
         when(taskToTaskRsConvertor.convert(updatedTask)).thenReturn(taskRs);
 
-        TaskRs result = taskService.update(1L, taskRq);
+        TaskRs result = taskService.update(1L, taskRq, null);
 
         assertNotNull(result);
         assertEquals("TaskUp", result.title());
         assertEquals("Description taskUp", result.description());
         assertEquals(Status.FINISHED, result.status());
         assertEquals(Priority.HIGH, result.priority());
-        verify(taskRepository).save(existingTask);
+        verify(taskRepository).saveAndFlush(existingTask);
         verify(taskRqToTaskConvertor).convert(taskRq);
         verify(taskToTaskRsConvertor).convert(updatedTask);
+        verify(taskRsCache).evict(1L);
+        verify(outboxService).recordTask(1L, EventType.UPDATED);
+    }
+
+    @Test
+    void update_ShouldThrowPreconditionFailed_WhenVersionDiffers() {
+        TaskRq taskRq = new TaskRq("TaskUp", "Description taskUp", Status.FINISHED, Priority.HIGH, 1L, 1L);
+        Task existingTask = Task.builder().id(1L).version(3L).title("Task").status(Status.WAITING).build();
+        when(taskRqToTaskConvertor.convert(taskRq)).thenReturn(Task.builder().title("TaskUp").build());
+        when(taskRepository.findById(1L)).thenReturn(Optional.of(existingTask));
+
+        PreconditionFailedException exception = Assertions.assertThrows(
+                PreconditionFailedException.class, () -> taskService.update(1L, taskRq, 2L));
+
+        assertEquals("Task with id 1 is not at version 2", exception.getMessage());
+        assertEquals("Task", existingTask.getTitle());
+        verify(taskRepository, never()).saveAndFlush(any(Task.class));
+        verifyNoInteractions(taskRsCache, outboxService);
     }
 
     @Test
@@ -234,7 +586,7 @@ class TaskServiceTest {
         when(taskRqToTaskConvertor.convert(taskRq)).thenReturn(null);
 
         IllegalArgumentException exception = Assertions.assertThrows(
-                IllegalArgumentException.class,() -> taskService.update(1L, taskRq));
+                IllegalArgumentException.class,() -> taskService.update(1L, taskRq, null));
 
         assertTrue(exception.getMessage().contains("Conversion failed task"));
         verify(taskRqToTaskConvertor).convert(taskRq);
@@ -252,6 +604,9 @@ class TaskServiceTest {
         taskService.deleteById(1L);
 
         verify(taskRepository, times(1)).deleteById(1L);
+        verify(outboxService).recordTask(1L, EventType.DELETED);
+        verify(taskSearchIndex).remove(1L);
+        verify(taskRsCache).evict(1L);
     }
 
     @Test
@@ -268,13 +623,13 @@ class TaskServiceTest {
         Instant instant = Instant.now();
         User user = User.builder().id(1L).username("user").email("user@mail.com").password("Password123").roles(Set.of(RoleType.ROLE_USER)).build();
         Task task = Task.builder().id(1L).title("Test Title").description("Test description").status(Status.WAITING).priority(Priority.MEDIUM).author(user).assignee(user).createdAt(instant).build();
-        TaskFilter filter = new TaskFilter(10, 0, "Test Title", "Test description", Status.WAITING, Priority.MEDIUM, 1L, 1L, instant);
-        TaskRs taskRs = new TaskRs(1L, "Test Title", "Test description", Status.WAITING, Priority.MEDIUM, 1L, 1L, instant, List.of());
+        TaskFilter filter = new TaskFilter(10, 0, "Test Title", "Test description", Status.WAITING, Priority.MEDIUM, 1L, 1L, instant, null, null);
+        TaskRs taskRs = new TaskRs(1L, "Test Title", "Test description", Status.WAITING, Priority.MEDIUM, 1L, 1L, instant, instant, 0L, List.of());
         Page<Task> taskPage = new PageImpl<>(List.of(task));
-        when(taskRepository.findAll(any(Specification.class), any(PageRequest.class))).thenReturn(taskPage);
+        when(taskRepository.findAll(anySpec(), any(PageRequest.class))).thenReturn(taskPage);
         when(taskToTaskRsConvertor.convert(task)).thenReturn(taskRs);
 
-        Page<TaskRs> result = taskService.filterBy(filter);
+        Page<TaskRs> result = taskService.filterBy(filter, false);
 
         assertNotNull(result);
         assertEquals(1, result.getTotalElements());
@@ -282,7 +637,7 @@ class TaskServiceTest {
         assertEquals("Test description", result.getContent().get(0).description());
         assertEquals(Status.WAITING, result.getContent().get(0).status());
         assertEquals(Priority.MEDIUM, result.getContent().get(0).priority());
-        verify(taskRepository).findAll(any(Specification.class), any(PageRequest.class));
+        verify(taskRepository).findAll(anySpec(), any(PageRequest.class));
         verify(taskToTaskRsConvertor).convert(task);
     }
 
@@ -294,14 +649,14 @@ class TaskServiceTest {
         filter.setPageSize(10);
 
         Page<Task> emptyPage = Page.empty();
-        when(taskRepository.findAll(any(Specification.class), any(PageRequest.class))).thenReturn(emptyPage);
+        when(taskRepository.findAll(anySpec(), any(PageRequest.class))).thenReturn(emptyPage);
 
-        Page<TaskRs> result = taskService.filterBy(filter);
+        Page<TaskRs> result = taskService.filterBy(filter, false);
 
         assertNotNull(result);
         assertTrue(result.isEmpty());
 
-        verify(taskRepository).findAll(any(Specification.class), any(PageRequest.class));
+        verify(taskRepository).findAll(anySpec(), any(PageRequest.class));
         verifyNoInteractions(taskToTaskRsConvertor);
     }
 
@@ -309,7 +664,59 @@ class TaskServiceTest {
     void filterBy_withNullFilter_shouldThrowException() {
         TaskFilter filter = null;
 
-        assertThrows(IllegalArgumentException.class, () -> taskService.filterBy(filter));
+        assertThrows(IllegalArgumentException.class, () -> taskService.filterBy(filter, false));
+
+        verifyNoInteractions(taskRepository, taskToTaskRsConvertor);
+    }
+
+    @Test
+    void findAllByCursor_ShouldReturnPageWithNextCursor_WhenMoreRowsExist() {
+        Instant instant = Instant.now();
+        Task task3 = Task.builder().id(3L).title("Task3").description("Description task").status(Status.WAITING).priority(Priority.MEDIUM).createdAt(instant).build();
+        Task task2 = Task.builder().id(2L).title("Task2").description("Description task").status(Status.WAITING).priority(Priority.MEDIUM).createdAt(instant).build();
+        Task task1 = Task.builder().id(1L).title("Task1").description("Description task").status(Status.WAITING).priority(Priority.MEDIUM).createdAt(instant).build();
+        TaskRs taskRs = new TaskRs(3L, "Task3", "Description task", Status.WAITING, Priority.MEDIUM, 1L, 1L, instant, instant, 0L, List.of());
+        when(taskRepository.findBy(anySpec(), any())).thenReturn(List.of(task3, task2, task1));
+        when(taskToTaskRsConvertor.convert(any(Task.class))).thenReturn(taskRs);
+
+        CursorPage<TaskRs> result = taskService.findAllByCursor(null, 2, false, eTag -> false);
+
+        assertEquals(2, result.content().size());
+        assertEquals(2, result.size());
+        assertTrue(result.hasNext());
+        assertEquals(new TaskCursor(instant, 2L), TaskCursor.decode(result.nextCursor()));
+        verify(taskToTaskRsConvertor, times(2)).convert(any(Task.class));
+        verify(taskRepository, never()).count(anySpec());
+    }
+
+    @Test
+    void filterByCursor_ShouldReturnLastPageWithoutNextCursor() {
+        Instant instant = Instant.now();
+        Task task = Task.builder().id(1L).title("Task1").description("Description task").status(Status.WAITING).priority(Priority.MEDIUM).createdAt(instant).build();
+        TaskRs taskRs = new TaskRs(1L, "Task1", "Description task", Status.WAITING, Priority.MEDIUM, 1L, 1L, instant, instant, 0L, List.of());
+        TaskFilter filter = new TaskFilter();
+        filter.setPageSize(2);
+        filter.setMode(PageMode.CURSOR);
+        filter.setCursor(new TaskCursor(instant.plusSeconds(1), 5L).encode());
+        when(taskRepository.findBy(anySpec(), any())).thenReturn(List.of(task));
+        when(taskToTaskRsConvertor.convert(task)).thenReturn(taskRs);
+
+        CursorPage<TaskRs> result = taskService.filterByCursor(filter, false);
+
+        assertEquals(1, result.content().size());
+        assertFalse(result.hasNext());
+        assertNull(result.nextCursor());
+        verify(taskToTaskRsConvertor).convert(task);
+    }
+
+    @Test
+    void filterByCursor_withMalformedCursor_shouldThrowException() {
+        TaskFilter filter = new TaskFilter();
+        filter.setPageSize(2);
+        filter.setMode(PageMode.CURSOR);
+        filter.setCursor("not-a-cursor");
+
+        assertThrows(InvalidCursorException.class, () -> taskService.filterByCursor(filter, false));
 
         verifyNoInteractions(taskRepository, taskToTaskRsConvertor);
     }
@@ -324,12 +731,12 @@ class TaskServiceTest {
         Instant instant = Instant.now();
         User user = User.builder().id(1L).username("user").email("user@mail.com").password("Password123").roles(Set.of(RoleType.ROLE_USER)).build();
         Task task = Task.builder().id(1L).title("Test Title").description("Test description").status(Status.WAITING).priority(Priority.MEDIUM).author(user).assignee(user).createdAt(instant).build();
-        TaskRs taskRs = new TaskRs(1L, "Test Title", "Test description", Status.WAITING, Priority.MEDIUM, 1L, 1L, instant, List.of());
+        TaskRs taskRs = new TaskRs(1L, "Test Title", "Test description", Status.WAITING, Priority.MEDIUM, 1L, 1L, instant, instant, 0L, List.of());
         Page<Task> taskPage = new PageImpl<>(List.of(task));
-        when(taskRepository.findAll(any(Specification.class), eq(pageable))).thenReturn(taskPage);
+        when(taskRepository.findAll(anySpec(), eq(pageable))).thenReturn(taskPage);
         when(taskToTaskRsConvertor.convert(task)).thenReturn(taskRs);
 
-        Page<TaskRs> result = taskService.findByCriteria(searchCriteria, pageable);
+        Page<TaskRs> result = taskService.findByCriteria(searchCriteria, pageable, false);
 
         assertNotNull(result);
         assertEquals(1, result.getTotalElements());
@@ -337,7 +744,8 @@ class TaskServiceTest {
         assertEquals("Test description", result.getContent().get(0).description());
         assertEquals(Status.WAITING, result.getContent().get(0).status());
         assertEquals(Priority.MEDIUM, result.getContent().get(0).priority());
-        verify(taskRepository).findAll(any(Specification.class), eq(pageable));
+        verify(taskSearchIndex).search("Test Title", null);
+        verify(taskRepository).findAll(anySpec(), eq(pageable));
         verify(taskToTaskRsConvertor).convert(task);
     }
 
@@ -348,7 +756,7 @@ class TaskServiceTest {
         Pageable pageable = PageRequest.of(0, 10);
 
         IllegalAccessException exception = assertThrows(IllegalAccessException.class,
-                () -> taskService.findByCriteria(searchCriteria, pageable));
+                () -> taskService.findByCriteria(searchCriteria, pageable, false));
 
         assertEquals("Invalid status value:INVALID_STATUS", exception.getMessage());
         verifyNoInteractions(taskRepository, taskToTaskRsConvertor);
@@ -361,7 +769,7 @@ class TaskServiceTest {
         Pageable pageable = PageRequest.of(0, 10);
 
         IllegalAccessException exception = assertThrows(IllegalAccessException.class,
-                () -> taskService.findByCriteria(searchCriteria, pageable));
+                () -> taskService.findByCriteria(searchCriteria, pageable, false));
 
         assertEquals("Invalid priority value:INVALID_PRIORITY", exception.getMessage());
         verifyNoInteractions(taskRepository, taskToTaskRsConvertor);
@@ -373,13 +781,13 @@ class TaskServiceTest {
         Pageable pageable = PageRequest.of(0, 10);
 
         Page<Task> emptyPage = Page.empty();
-        when(taskRepository.findAll(any(Specification.class), eq(pageable))).thenReturn(emptyPage);
+        when(taskRepository.findAll(anySpec(), eq(pageable))).thenReturn(emptyPage);
 
-        Page<TaskRs> result = taskService.findByCriteria(searchCriteria, pageable);
+        Page<TaskRs> result = taskService.findByCriteria(searchCriteria, pageable, false);
 
         assertNotNull(result);
         assertTrue(result.isEmpty());
-        verify(taskRepository).findAll(any(Specification.class), eq(pageable));
+        verify(taskRepository).findAll(anySpec(), eq(pageable));
         verifyNoInteractions(taskToTaskRsConvertor);
     }
 
@@ -392,16 +800,20 @@ class TaskServiceTest {
         Instant instant = Instant.now();
         User user = User.builder().id(1L).username("user").email("user@mail.com").password("Password123").roles(Set.of(RoleType.ROLE_USER)).build();
         Task task = Task.builder().id(1L).title("Test Title").description("Test description").status(Status.WAITING).priority(Priority.MEDIUM).author(user).assignee(user).createdAt(instant).build();
-        TaskRs taskRs = new TaskRs(1L, "Test Title", "Test description", Status.WAITING, Priority.MEDIUM, 1L, 1L, instant, List.of());
+        TaskRs taskRs = new TaskRs(1L, "Test Title", "Test description", Status.WAITING, Priority.MEDIUM, 1L, 1L, instant, instant, 0L, List.of());
         Page<Task> taskPage = new PageImpl<>(List.of(task));
-        when(taskRepository.findAll(any(Specification.class), eq(pageable))).thenReturn(taskPage);
+        when(taskRepository.findAll(anySpec(), eq(pageable))).thenReturn(taskPage);
         when(taskToTaskRsConvertor.convert(task)).thenReturn(taskRs);
 
-        Page<TaskRs> result = taskService.findByCriteria(searchCriteria, pageable);
+        Page<TaskRs> result = taskService.findByCriteria(searchCriteria, pageable, false);
 
         assertNotNull(result);
         assertEquals(1, result.getTotalElements());
-        verify(taskRepository).findAll(any(Specification.class), eq(pageable));
+        verify(taskRepository).findAll(anySpec(), eq(pageable));
         verify(taskToTaskRsConvertor).convert(task);
     }
-}
\ No newline at end of file
+
+    private static Specification<Task> anySpec() {
+        return any();
+    }
+}
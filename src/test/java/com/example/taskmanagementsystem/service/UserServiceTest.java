@@ -1,14 +1,20 @@
 package com.example.taskmanagementsystem.service;
 
-import com.example.taskmanagementsystem.client.rediscache.RedisCacheClient;
+import com.example.taskmanagementsystem.client.rediscache.TokenWhitelistCache;
+import com.example.taskmanagementsystem.client.rediscache.TaskRsCache;
 import com.example.taskmanagementsystem.dto.user.*;
+import com.example.taskmanagementsystem.entity.Comment;
+import com.example.taskmanagementsystem.entity.EventType;
 import com.example.taskmanagementsystem.entity.RoleType;
+import com.example.taskmanagementsystem.entity.Task;
 import com.example.taskmanagementsystem.entity.User;
 import com.example.taskmanagementsystem.exception.PasswordChangeIllegalArgumentException;
+import com.example.taskmanagementsystem.exception.PreconditionFailedException;
 import com.example.taskmanagementsystem.exception.UsernameAlreadyTakenException;
 import com.example.taskmanagementsystem.repo.UserRepository;
 import com.example.taskmanagementsystem.security.AppUserDetails;
 import com.example.taskmanagementsystem.security.JwtProvider;
+import com.example.taskmanagementsystem.security.UserAuthenticationCache;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -20,15 +26,21 @@ import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.test.context.ActiveProfiles;
 
 import java.util.*;
 import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -39,7 +51,7 @@ public class UserServiceTest {
     @Mock
     private PasswordEncoder passwordEncoder;
     @Mock
-    private RedisCacheClient redisCacheClient;
+    private TokenWhitelistCache tokenWhitelistCache;
     @Mock
     private JwtProvider jwtProvider;
     @Mock
@@ -47,6 +59,12 @@ public class UserServiceTest {
     @Mock
     private UserRqToUserConverter userRqToUserConverter;
     @Mock
+    private TaskRsCache taskRsCache;
+    @Mock
+    private UserAuthenticationCache userAuthenticationCache;
+    @Mock
+    private OutboxService outboxService;
+    @Mock
     Authentication authentication;
     @Mock
     AppUserDetails appUserDetails;
@@ -59,8 +77,12 @@ public class UserServiceTest {
         UserRs userRs = new UserRs(1L,
                 "admin",
                 "admin@mail.com",
-                Set.of(RoleType.ROLE_ADMIN));
-        String token = "mockToken";
+                Set.of(RoleType.ROLE_ADMIN), 0L);
+        Jwt token = Jwt.withTokenValue("mockToken")
+                .header("alg", "RS256")
+                .jti("mockTokenId")
+                .claim("userId", 1L)
+                .build();
 
         when(authentication.getPrincipal()).thenReturn(appUserDetails);
         when(appUserDetails.getUser()).thenReturn(user);
@@ -71,8 +93,8 @@ public class UserServiceTest {
 
         assertNotNull(result);
         assertEquals(userRs, result.get("userInfo"));
-        assertEquals(token, result.get("token"));
-        verify(redisCacheClient).set(Mockito.eq("whitelist:" + userRs.id()), Mockito.eq(token), Mockito.eq(2L), Mockito.eq(TimeUnit.HOURS));
+        assertEquals("mockToken", result.get("token"));
+        verify(tokenWhitelistCache).put(userRs.id(), "mockTokenId", 2L, TimeUnit.HOURS);
     }
 
     @Test
@@ -82,7 +104,7 @@ public class UserServiceTest {
         UserRs userRs = new UserRs(1L,
                 "admin",
                 "admin@mail.com",
-                Set.of(RoleType.ROLE_ADMIN));
+                Set.of(RoleType.ROLE_ADMIN), 0L);
         when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
 
         User result = userService.findById(id);
@@ -99,6 +121,29 @@ public class UserServiceTest {
         assertEquals("User with id 1 not found", exception.getMessage());
     }
 
+    @Test
+    void getReferencesById_ShouldCheckExistenceOnceAndReturnReferences() {
+        User author = User.builder().id(1L).build();
+        User assignee = User.builder().id(2L).build();
+        when(userRepository.findExistingIds(Set.of(1L, 2L))).thenReturn(List.of(1L, 2L));
+        when(userRepository.getReferenceById(1L)).thenReturn(author);
+        when(userRepository.getReferenceById(2L)).thenReturn(assignee);
+
+        Map<Long, User> users = userService.getReferencesById(Arrays.asList(1L, 2L, 2L, null));
+
+        assertEquals(Map.of(1L, author, 2L, assignee), users);
+        verify(userRepository, Mockito.never()).findById(anyLong());
+    }
+
+    @Test
+    void getReferencesById_ShouldThrowException_WhenUserNotFound() {
+        when(userRepository.findExistingIds(Set.of(1L, 99L))).thenReturn(List.of(1L));
+
+        EntityNotFoundException exception = assertThrows(EntityNotFoundException.class,
+                () -> userService.getReferencesById(List.of(1L, 99L)));
+        assertEquals("User with id 99 not found", exception.getMessage());
+    }
+
     @Test
     void create_ShouldSaveUser() {
         UserRq rq = new UserRq("testUser",
@@ -109,7 +154,7 @@ public class UserServiceTest {
         UserRs rs = new UserRs(1L,
                 "admin",
                 "admin@mail.com",
-                Set.of(RoleType.ROLE_ADMIN));
+                Set.of(RoleType.ROLE_ADMIN), 0L);
         User user = new User();
         User savedUser = new User();
 
@@ -121,6 +166,7 @@ public class UserServiceTest {
 
         assertEquals(rs, result);
         verify(userRepository).save(user);
+        verify(outboxService).recordUser(savedUser.getId(), EventType.CREATED);
     }
 
     @Test
@@ -146,22 +192,39 @@ public class UserServiceTest {
         UserRs rs = new UserRs(1L,
                 "admin",
                 "admin@mail.com",
-                Set.of(RoleType.ROLE_ADMIN));
+                Set.of(RoleType.ROLE_ADMIN), 0L);
 
         when(userRqToUserConverter.convert(rq)).thenReturn(updateUser);
         when(userRepository.findById(userId)).thenReturn(Optional.of(existingUser));
-        when(userRepository.save(existingUser)).thenReturn(updatedUser);
+        when(userRepository.saveAndFlush(existingUser)).thenReturn(updatedUser);
         when(userToUserRsConverter.convert(updatedUser)).thenReturn(rs);
-        when(authentication.getAuthorities())
-                .thenReturn((Collection) Collections.singletonList(new SimpleGrantedAuthority("ROLE_ADMIN")));
+        doReturn(List.of(new SimpleGrantedAuthority("ROLE_ADMIN"))).when(authentication).getAuthorities();
         SecurityContextHolder.getContext().setAuthentication(authentication);
 
-        UserRs result = userService.update(userId, rq);
+        UserRs result = userService.update(userId, rq, null);
 
         assertEquals(rs, result);
         assertEquals("newUsername", existingUser.getUsername());
         assertEquals("newEmail@mail.com", existingUser.getEmail());
         assertEquals(Set.of(RoleType.ROLE_ADMIN), existingUser.getRoles());
+        verify(userAuthenticationCache).evict("oldUsername");
+        verify(outboxService).recordUser(userId, EventType.UPDATED);
+    }
+
+    @Test
+    void update_ShouldThrowPreconditionFailed_WhenVersionDiffers() {
+        UserRq rq = new UserRq("newUsername", "newEmail@mail.com", "Password123", Set.of(RoleType.ROLE_USER), true);
+        User existingUser = User.builder().id(1L).version(5L).username("oldUsername").email("oldEmail@example.com").build();
+        when(userRqToUserConverter.convert(rq)).thenReturn(new User());
+        when(userRepository.findById(1L)).thenReturn(Optional.of(existingUser));
+
+        PreconditionFailedException exception = assertThrows(PreconditionFailedException.class,
+                () -> userService.update(1L, rq, 4L));
+
+        assertEquals("User with id 1 is not at version 4", exception.getMessage());
+        assertEquals("oldUsername", existingUser.getUsername());
+        verify(userRepository, never()).saveAndFlush(any(User.class));
+        verifyNoInteractions(userAuthenticationCache);
     }
 
     @Test
@@ -177,7 +240,7 @@ public class UserServiceTest {
         when(userRepository.findById(userId)).thenReturn(Optional.empty());
 
         EntityNotFoundException exception = assertThrows(EntityNotFoundException.class,
-                () -> userService.update(userId, rq));
+                () -> userService.update(userId, rq, null));
         assertEquals("User with id 1 not found", exception.getMessage());
     }
 
@@ -194,7 +257,7 @@ public class UserServiceTest {
         Mockito.when(userRqToUserConverter.convert(rq)).thenReturn(null);
 
         IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
-                () -> userService.update(userId, rq));
+                () -> userService.update(userId, rq, null));
         assertEquals("Conversion failed user testUser", exception.getMessage());
     }
 
@@ -218,7 +281,7 @@ public class UserServiceTest {
         when(userRepository.existsByUsername("takenUsername")).thenReturn(true);
 
         UsernameAlreadyTakenException exception = assertThrows(UsernameAlreadyTakenException.class,
-                () -> userService.update(userId, rq));
+                () -> userService.update(userId, rq, null));
         assertEquals("Username takenUsername is already taken", exception.getMessage());
     }
 
@@ -242,18 +305,17 @@ public class UserServiceTest {
         UserRs rs = new UserRs(1L,
                 "admin",
                 "admin@mail.com",
-                Set.of(RoleType.ROLE_ADMIN));
+                Set.of(RoleType.ROLE_ADMIN), 0L);
 
         when(userRqToUserConverter.convert(rq)).thenReturn(updateUser);
         when(userRepository.findById(userId)).thenReturn(Optional.of(existingUser));
-        when(userRepository.save(existingUser)).thenReturn(updatedUser);
+        when(userRepository.saveAndFlush(existingUser)).thenReturn(updatedUser);
         when(userToUserRsConverter.convert(updatedUser)).thenReturn(rs);
-        when(authentication.getAuthorities())
-                .thenReturn((Collection) Collections.singletonList(new SimpleGrantedAuthority("ROLE_ADMIN")));
+        doReturn(List.of(new SimpleGrantedAuthority("ROLE_ADMIN"))).when(authentication).getAuthorities();
         SecurityContextHolder.getContext().setAuthentication(authentication);
         SecurityContextHolder.getContext().setAuthentication(authentication);
 
-        UserRs result = userService.update(userId, rq);
+        UserRs result = userService.update(userId, rq, null);
 
         assertEquals(rs, result);
         assertEquals("newUsername", existingUser.getUsername());
@@ -262,12 +324,55 @@ public class UserServiceTest {
     @Test
     void deleteById_ShouldDeleteUser() {
         Long userId = 1L;
-        User user = new User();
+        User user = User.builder().username("user1").build();
+        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+
+        userService.deleteById(userId);
+
+        verify(userRepository).deleteById(userId);
+        verify(userAuthenticationCache).evict("user1");
+    }
+
+    @Test
+    void deleteById_ShouldEvictCachedTasksAndRecordEveryRemovedComment() {
+        Long userId = 2L;
+        Task authored = Task.builder().id(1L).build();
+        Task assigned = Task.builder().id(2L).build();
+        Task commented = Task.builder().id(3L).build();
+        Comment comment = Comment.builder().id(1L).task(commented).build();
+        Comment ownOnAuthored = Comment.builder().id(2L).task(authored).build();
+        Comment otherOnAssigned = Comment.builder().id(3L).task(assigned).build();
+        authored.getComments().add(ownOnAuthored);
+        assigned.getComments().add(otherOnAssigned);
+        User user = User.builder().id(userId)
+                .tasksAuthor(List.of(authored))
+                .tasksAssignee(List.of(authored, assigned))
+                .comments(List.of(comment, ownOnAuthored))
+                .build();
         when(userRepository.findById(userId)).thenReturn(Optional.of(user));
 
         userService.deleteById(userId);
 
         verify(userRepository).deleteById(userId);
+        verify(taskRsCache).evict(List.of(1L, 2L));
+        verify(taskRsCache).evictComments(List.of(3L, 1L));
+        verify(outboxService).recordUser(userId, EventType.DELETED);
+        verify(outboxService).recordTasks(List.of(1L, 2L), EventType.DELETED);
+        verify(outboxService).recordComments(List.of(comment, ownOnAuthored, otherOnAssigned), EventType.DELETED);
+    }
+
+    @Test
+    void updatePassword_ShouldSaveRehashedPassword() {
+        User user = User.builder().id(2L).username("user1").password("$2a$10$old").build();
+        when(userRepository.findByUsername("user1")).thenReturn(Optional.of(user));
+        when(userRepository.save(user)).thenReturn(user);
+
+        UserDetails result = userService.updatePassword(new AppUserDetails(user), "$2a$12$new");
+
+        verify(userRepository).save(user);
+        assertEquals("$2a$12$new", user.getPassword());
+        assertEquals("$2a$12$new", result.getPassword());
+        verify(userAuthenticationCache).evict("user1");
     }
 
     @Test
@@ -275,7 +380,7 @@ public class UserServiceTest {
 
         Long userId = 1L;
         PasswordRq passwordRq = new PasswordRq("oldPassword123", "NewPassword123", "NewPassword123");
-        User user = User.builder().password("encodedOldPassword").build();
+        User user = User.builder().username("user1").password("encodedOldPassword").build();
         when(userRepository.findById(userId)).thenReturn(Optional.of(user));
         when(passwordEncoder.matches("oldPassword123", "encodedOldPassword")).thenReturn(true);
         when(passwordEncoder.encode("NewPassword123")).thenReturn("encodedNewPassword");
@@ -283,7 +388,9 @@ public class UserServiceTest {
         userService.changePassword(userId, passwordRq);
 
         verify(userRepository).save(user);
-        verify(redisCacheClient).delete("whitelist:" + userId);
+        verify(tokenWhitelistCache).revoke(userId);
+        verify(userAuthenticationCache).evict("user1");
+        verify(outboxService).recordUser(userId, EventType.UPDATED);
         assertEquals("encodedNewPassword", user.getPassword());
     }
 